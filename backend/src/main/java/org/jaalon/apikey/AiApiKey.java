@@ -4,7 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.time.Instant;
@@ -40,4 +43,14 @@ public class AiApiKey extends PanacheEntity {
 
     @Column(nullable = false)
     public Instant createdAt = Instant.now();
+
+    // Last modification, read by delta exports (GET /api/data-exchange/export/{type}?since=)
+    @NotNull
+    public Instant updatedAt = Instant.now();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -3,6 +3,25 @@ package org.jaalon.apikey;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.jaalon.persistence.InClause.inChunks;
+
 @ApplicationScoped
 public class AiApiKeyRepository implements PanacheRepository<AiApiKey> {
+
+    /** Keys whose name is in the given collection, keyed by {@link #key(String, String) provider:name}. */
+    public Map<String, AiApiKey> findByNames(Collection<String> names) {
+        Map<String, AiApiKey> byKey = new HashMap<>();
+        for (AiApiKey aiApiKey : inChunks(names, chunk -> list("name in ?1", chunk))) {
+            byKey.putIfAbsent(key(aiApiKey.provider, aiApiKey.name), aiApiKey);
+        }
+        return byKey;
+    }
+
+    public static String key(String provider, String name) {
+        return provider + ":" + name;
+    }
 }
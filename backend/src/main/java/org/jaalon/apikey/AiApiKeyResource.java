@@ -6,6 +6,8 @@ import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jaalon.exchange.tombstones.TombstoneRepository;
+import org.jaalon.llm.ModelListCache;
 import org.jaalon.llm.dto.ApiKeyCreateDto;
 import org.jaalon.llm.dto.ApiKeyFullViewDto;
 import org.jaalon.llm.dto.ApiKeyViewDto;
@@ -30,6 +32,12 @@ public class AiApiKeyResource {
     @Inject
     AiApiKeyRepository repository;
 
+    @Inject
+    ModelListCache modelListCache;
+
+    @Inject
+    TombstoneRepository tombstoneRepository;
+
     @GET
     public List<ApiKeyViewDto> list() {
         return repository.listAll().stream().map(ApiKeyViewDto::from).collect(Collectors.toList());
@@ -86,12 +94,18 @@ public class AiApiKeyResource {
         validate(apiKeyCreateDto);
         AiApiKey aiApiKey = repository.findById(id);
         if (aiApiKey == null) throw new NotFoundException();
+        String previousKey = AiApiKeyRepository.key(aiApiKey.provider, aiApiKey.name);
         aiApiKey.provider = apiKeyCreateDto.provider.toLowerCase();
         aiApiKey.name = apiKeyCreateDto.name;
+        if (!previousKey.equals(AiApiKeyRepository.key(aiApiKey.provider, aiApiKey.name))) {
+            // Other installations know the key by its former provider:name
+            tombstoneRepository.record("AiApiKey", previousKey);
+        }
         aiApiKey.baseUrl = apiKeyCreateDto.baseUrl;
         aiApiKey.apiKey = apiKeyCreateDto.apiKey;
         aiApiKey.organizationId = apiKeyCreateDto.organizationId;
         aiApiKey.projectId = apiKeyCreateDto.projectId;
+        modelListCache.invalidate(id);
         return ApiKeyViewDto.from(aiApiKey);
     }
 
@@ -101,7 +115,9 @@ public class AiApiKeyResource {
     public Response delete(@PathParam("id") Long id) {
         AiApiKey aiApiKey = repository.findById(id);
         if (aiApiKey == null) throw new NotFoundException();
+        tombstoneRepository.record("AiApiKey", AiApiKeyRepository.key(aiApiKey.provider, aiApiKey.name));
         repository.delete(aiApiKey);
+        modelListCache.invalidate(id);
         return noContent().build();
     }
 }
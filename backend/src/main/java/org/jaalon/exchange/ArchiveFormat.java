@@ -0,0 +1,29 @@
+package org.jaalon.exchange;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Encoding of the data files of an export archive, announced in its {@code manifest.json}.
+ * Entries keep their names whatever the encoding; an archive without manifest is JSON.
+ */
+public enum ArchiveFormat {
+    // Compact JSON, no indentation
+    JSON,
+    // Jackson's binary JSON: smaller and faster to parse, not human-readable
+    SMILE;
+
+    public static ArchiveFormat fromString(String format) {
+        if (format == null || format.isBlank()) {
+            return JSON;
+        }
+        return switch (format.trim().toLowerCase()) {
+            case "json" -> JSON;
+            case "smile" -> SMILE;
+            default -> throw new BadRequestException("format must be 'json' or 'smile'");
+        };
+    }
+
+    public String value() {
+        return name().toLowerCase();
+    }
+}
@@ -1,12 +1,19 @@
 package org.jaalon.exchange;
 
 public enum DataExchangeFiles {
+    // Format and scope of the archive, see ExportManifest
+    MANIFEST("manifest.json"),
     API_KEYS("api-keys.json"),
     LLM_CONFIGS("llm-configs.json"),
     PROMPTS("prompts.json"),
     LINKS("links.json"),
     TECHWATCHES("techwatches.json"),
-    TAGS("tags.json");
+    TAGS("tags.json"),
+    // Only in delta exports: entities deleted since the requested point in time
+    DELETIONS("deletions.json");
+
+    // Markdown content of the links, one entry per distinct content: content/<sha256>.md
+    private static final String CONTENT_DIRECTORY = "content/";
 
     private final String fileName;
 
@@ -18,6 +25,10 @@ public enum DataExchangeFiles {
         return fileName;
     }
 
+    public static String contentFileName(String contentHash) {
+        return CONTENT_DIRECTORY + contentHash + ".md";
+    }
+
     @Override
     public String toString() {
         return fileName;
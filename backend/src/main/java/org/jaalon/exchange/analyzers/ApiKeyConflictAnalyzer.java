@@ -1,12 +1,10 @@
 package org.jaalon.exchange.analyzers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.ConflictItem;
 import org.jaalon.exchange.dto.ApiKeyExport;
-import org.jaalon.exchange.DataExchangeFiles;
-import org.jaalon.exchange.services.ZipService;
+import org.jaalon.exchange.services.ImportArchive;
 import org.jaalon.apikey.AiApiKey;
 import org.jaalon.apikey.AiApiKeyRepository;
 
@@ -14,13 +12,12 @@ import java.util.*;
 
 @ApplicationScoped
 public class ApiKeyConflictAnalyzer implements ConflictAnalyzer {
-    @Inject ZipService zipService;
     @Inject AiApiKeyRepository aiApiKeyRepository;
 
     @Override
-    public List<ConflictItem> analyze(Map<String, byte[]> files) {
+    public List<ConflictItem> analyze(ImportArchive archive) {
         List<ConflictItem> conflicts = new ArrayList<>();
-        List<ApiKeyExport> exportedApiKeyList = zipService.readIfPresent(files, DataExchangeFiles.API_KEYS.fileName(), new TypeReference<>(){});
+        List<ApiKeyExport> exportedApiKeyList = archive.apiKeys();
         if (exportedApiKeyList != null) {
             for (ApiKeyExport exportedApiKey : exportedApiKeyList) {
                 AiApiKey existing = aiApiKeyRepository.find("provider = ?1 and name = ?2", exportedApiKey.provider(), exportedApiKey.name()).firstResult();
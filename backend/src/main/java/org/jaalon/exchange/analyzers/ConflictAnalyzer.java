@@ -1,10 +1,14 @@
 package org.jaalon.exchange.analyzers;
 
 import org.jaalon.exchange.dto.ConflictItem;
+import org.jaalon.exchange.services.ImportArchive;
 
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Compares one kind of entity of an archive with the database. Analyzers run concurrently, each in its
+ * own read-only transaction, and must not modify the shared archive.
+ */
 public interface ConflictAnalyzer {
-    List<ConflictItem> analyze(Map<String, byte[]> files);
+    List<ConflictItem> analyze(ImportArchive archive);
 }
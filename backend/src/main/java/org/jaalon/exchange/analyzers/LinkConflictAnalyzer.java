@@ -1,11 +1,9 @@
 package org.jaalon.exchange.analyzers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.LinkExport;
-import org.jaalon.exchange.DataExchangeFiles;
-import org.jaalon.exchange.services.ZipService;
+import org.jaalon.exchange.services.ImportArchive;
 import org.jaalon.exchange.dto.ConflictItem;
 import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
@@ -15,16 +13,18 @@ import java.util.*;
 
 @ApplicationScoped
 public class LinkConflictAnalyzer implements ConflictAnalyzer {
-    @Inject ZipService zipService;
     @Inject LinkRepository linkRepository;
 
     @Override
-    public List<ConflictItem> analyze(Map<String, byte[]> files) {
+    public List<ConflictItem> analyze(ImportArchive archive) {
         List<ConflictItem> conflicts = new ArrayList<>();
-        List<LinkExport> exportedLinkList = zipService.readIfPresent(files, DataExchangeFiles.LINKS.fileName(), new TypeReference<>(){});
+        List<LinkExport> exportedLinkList = archive.links();
         if (exportedLinkList != null) {
+            // One query per chunk of URLs instead of one lookup (plus one tag query) per incoming link
+            Map<String, Link> existingByUrl = linkRepository.findByUrlsWithTags(
+                    exportedLinkList.stream().map(LinkExport::url).filter(Objects::nonNull).toList());
             for (LinkExport exportedLink : exportedLinkList) {
-                Link existing = linkRepository.find("url", exportedLink.url()).firstResult();
+                Link existing = existingByUrl.get(exportedLink.url());
                 if (existing != null) {
                     LinkedHashSet<String> exTags = new LinkedHashSet<>();
                     if (existing.tags != null) for (Tag t : existing.tags) exTags.add(t.name);
@@ -1,12 +1,10 @@
 package org.jaalon.exchange.analyzers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.ConflictItem;
 import org.jaalon.exchange.dto.TagExport;
-import org.jaalon.exchange.DataExchangeFiles;
-import org.jaalon.exchange.services.ZipService;
+import org.jaalon.exchange.services.ImportArchive;
 import org.jaalon.tags.Tag;
 import org.jaalon.tags.TagRepository;
 
@@ -14,13 +12,12 @@ import java.util.*;
 
 @ApplicationScoped
 public class TagConflictAnalyzer implements ConflictAnalyzer {
-    @Inject ZipService zipService;
     @Inject TagRepository tagRepository;
 
     @Override
-    public List<ConflictItem> analyze(Map<String, byte[]> files) {
+    public List<ConflictItem> analyze(ImportArchive archive) {
         List<ConflictItem> conflicts = new ArrayList<>();
-        List<TagExport> tags = zipService.readIfPresent(files, DataExchangeFiles.TAGS.fileName(), new TypeReference<>(){});
+        List<TagExport> tags = archive.tags();
         if (tags != null) {
             for (TagExport t : tags) {
                 Tag existing = tagRepository.find("name", t.name()).firstResult();
@@ -1,39 +1,39 @@
 package org.jaalon.exchange.analyzers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.TechWatchExport;
-import org.jaalon.exchange.DataExchangeFiles;
-import org.jaalon.exchange.services.ZipService;
+import org.jaalon.exchange.services.ImportArchive;
 import org.jaalon.exchange.dto.ConflictItem;
-import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
 import org.jaalon.techwatch.TechWatch;
 import org.jaalon.techwatch.TechWatchRepository;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @ApplicationScoped
 public class TechWatchConflictAnalyzer implements ConflictAnalyzer {
-    @Inject ZipService zipService;
     @Inject TechWatchRepository techWatchRepository;
     @Inject LinkRepository linkRepository;
 
     @Override
-    public List<ConflictItem> analyze(Map<String, byte[]> files) {
+    public List<ConflictItem> analyze(ImportArchive archive) {
         List<ConflictItem> conflicts = new ArrayList<>();
-        List<TechWatchExport> techWatchList = zipService.readIfPresent(files, DataExchangeFiles.TECHWATCHES.fileName(), new TypeReference<>(){});
+        List<TechWatchExport> techWatchList = archive.techWatches();
         if (techWatchList != null) {
+            List<LocalDate> dates = new ArrayList<>();
+            for (TechWatchExport te : techWatchList) dates.add(te.date());
+            Map<LocalDate, TechWatch> existingByDate = techWatchRepository.findByDates(dates);
+            List<Long> existingIds = new ArrayList<>();
+            for (TechWatch tw : existingByDate.values()) existingIds.add(tw.id);
+            // One grouped query for the URLs of every existing TechWatch of the archive
+            Map<Long, Set<String>> urlsByTechWatch = linkRepository.urlsByTechWatch(existingIds);
+
             for (TechWatchExport te : techWatchList) {
-                TechWatch existing = techWatchRepository.find("date", te.date()).firstResult();
+                TechWatch existing = existingByDate.get(te.date());
                 if (existing != null) {
-                    LinkedHashSet<String> exUrls = new LinkedHashSet<>();
-                    for (Link l : linkRepository.listAll()) {
-                        if (l.techWatches != null && l.techWatches.contains(existing)) {
-                            exUrls.add(l.url);
-                        }
-                    }
+                    Set<String> exUrls = urlsByTechWatch.getOrDefault(existing.id, new LinkedHashSet<>());
 
                     Map<String, Object> ex = new LinkedHashMap<>();
                     ex.put("date", existing.date.toString());
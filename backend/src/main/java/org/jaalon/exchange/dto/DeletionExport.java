@@ -0,0 +1,6 @@
+package org.jaalon.exchange.dto;
+
+import java.time.Instant;
+
+/** An entity deleted after the {@code since} of a delta export, identified like in {@link ResolveRequest}. */
+public record DeletionExport(String entity, String key, Instant deletedAt) {}
@@ -0,0 +1,11 @@
+package org.jaalon.exchange.dto;
+
+import java.time.Instant;
+
+/**
+ * First entry of an export archive, always JSON. {@code since} is set for delta exports only.
+ */
+public record ExportManifest(int version, String format, String type, Instant since, Instant exportedAt) {
+
+    public static final int CURRENT_VERSION = 1;
+}
@@ -0,0 +1,12 @@
+package org.jaalon.exchange.dto;
+
+/**
+ * Records read and upserted from one file of an imported archive, and the number of batches used.
+ * {@code skipped} counts the records ignored because they are invalid, such as a deletion with a malformed key.
+ */
+public record ImportFileReport(String file, long imported, int batches, long skipped) {
+
+    public ImportFileReport(String file, long imported, int batches) {
+        this(file, imported, batches, 0);
+    }
+}
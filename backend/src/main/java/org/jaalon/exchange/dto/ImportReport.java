@@ -0,0 +1,6 @@
+package org.jaalon.exchange.dto;
+
+import java.util.List;
+
+/** Outcome of an archive import: one entry per file found in the archive, in import order. */
+public record ImportReport(String status, List<ImportFileReport> files) { }
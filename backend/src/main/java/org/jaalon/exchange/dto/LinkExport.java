@@ -2,5 +2,9 @@ package org.jaalon.exchange.dto;
 
 import java.util.Set;
 
+/**
+ * {@code contentHash} names the archive entry holding the Markdown content (content/&lt;hash&gt;.md);
+ * null when the link has no content, or in archives written before content was exported.
+ */
 public record LinkExport(String title, String url, String description, String summary,
-                         Set<String> tags) { }
+                         Set<String> tags, String contentHash) { }
@@ -0,0 +1,13 @@
+package org.jaalon.exchange.dto;
+
+/** Outcome of one item of a batch resolution; {@code error} is set when the item was not applied. */
+public record ResolveResult(String entity, String key, boolean ok, String error) {
+
+    public static ResolveResult ok(ResolveRequest req) {
+        return new ResolveResult(req.entity(), req.key(), true, null);
+    }
+
+    public static ResolveResult failed(ResolveRequest req, String error) {
+        return new ResolveResult(req != null ? req.entity() : null, req != null ? req.key() : null, false, error);
+    }
+}
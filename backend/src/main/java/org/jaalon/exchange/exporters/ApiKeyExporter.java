@@ -1,5 +1,7 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.ExportType;
@@ -8,6 +10,8 @@ import org.jaalon.apikey.AiApiKeyRepository;
 import org.jaalon.exchange.DataExchangeFiles;
 import org.jaalon.exchange.dto.ApiKeyExport;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,13 +25,18 @@ public class ApiKeyExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.API_KEYS; }
 
     @Override
-    public Object exportData() {
-        List<AiApiKey> keys = aiApiKeyRepository.listAll();
-        List<ApiKeyExport> apiKeyListToExport = new ArrayList<>();
-        for (AiApiKey apiKey : keys) {
-            apiKeyListToExport.add(new ApiKeyExport(apiKey.provider, apiKey.name, apiKey.baseUrl, apiKey.apiKey, apiKey.organizationId, apiKey.projectId));
-        }
-        return apiKeyListToExport;
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        ExportBatches.write(generator, batchSize,
+                (afterId, size) -> since == null
+                        ? aiApiKeyRepository.find("id > ?1", Sort.by("id"), afterId).page(0, size).list()
+                        : aiApiKeyRepository.find("id > ?1 and updatedAt > ?2", Sort.by("id"), afterId, since).page(0, size).list(),
+                (List<AiApiKey> keys) -> {
+                    List<ApiKeyExport> apiKeyListToExport = new ArrayList<>();
+                    for (AiApiKey apiKey : keys) {
+                        apiKeyListToExport.add(new ApiKeyExport(apiKey.provider, apiKey.name, apiKey.baseUrl, apiKey.apiKey, apiKey.organizationId, apiKey.projectId));
+                    }
+                    return apiKeyListToExport;
+                });
     }
 
     @Override
@@ -1,12 +1,21 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jaalon.exchange.DataExchangeFiles;
 import org.jaalon.exchange.ExportType;
 
+import java.io.IOException;
+import java.time.Instant;
+
 public interface DataExporter {
     DataExchangeFiles file();
 
-    Object exportData();
+    /**
+     * Writes the exported records, one element at a time, inside the JSON array opened by the caller.
+     * Records are read from the database at most {@code batchSize} at a time. When {@code since} is set,
+     * only records modified after it are written (delta export).
+     */
+    void write(JsonGenerator generator, int batchSize, Instant since) throws IOException;
 
     ExportType dataType();
 }
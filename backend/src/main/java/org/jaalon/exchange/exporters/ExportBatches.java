@@ -0,0 +1,48 @@
+package org.jaalon.exchange.exporters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset-paged reads for exporters. Each batch is read and mapped in its own short transaction, so the
+ * persistence context never holds more than one batch, and written before the next one is read.
+ */
+final class ExportBatches {
+
+    private record Batch(List<Object> rows, long lastId) {
+    }
+
+    private ExportBatches() {
+    }
+
+    /**
+     * @param batchAfter entities with an id greater than the given one, in id order, at most the given count
+     * @param toExport   mapping to the exported record, applied while the batch transaction is open
+     */
+    static <E extends PanacheEntity> void write(JsonGenerator generator, int batchSize,
+                                                BiFunction<Long, Integer, List<E>> batchAfter,
+                                                Function<List<E>, List<?>> toExport) throws IOException {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            Batch batch = QuarkusTransaction.requiringNew().call(() -> {
+                List<E> entities = batchAfter.apply(from, batchSize);
+                long lastId = entities.isEmpty() ? from : entities.get(entities.size() - 1).id;
+                return new Batch(new ArrayList<>(toExport.apply(entities)), lastId);
+            });
+            for (Object row : batch.rows()) {
+                generator.writeObject(row);
+            }
+            generator.flush();
+            if (batch.rows().size() < batchSize) return;
+            afterId = batch.lastId();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.jaalon.exchange.exporters;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jaalon.exchange.DataExchangeFiles;
+import org.jaalon.links.LinkRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the Markdown content of the links as {@code content/<sha256>.md} entries referenced by the
+ * {@code contentHash} of links.json, each distinct content once whatever the number of links sharing it.
+ * Contents are read in batches keyed by hash, each in its own short transaction.
+ */
+@ApplicationScoped
+public class LinkContentExporter {
+
+    @Inject LinkRepository linkRepository;
+
+    public void write(ZipOutputStream zos, int batchSize, Instant since) throws IOException {
+        // Text compresses well and is written once: worth the slowest level
+        zos.setLevel(Deflater.BEST_COMPRESSION);
+        String afterHash = "";
+        while (true) {
+            String from = afterHash;
+            Map<String, String> contents = QuarkusTransaction.requiringNew()
+                    .call(() -> linkRepository.listContentsAfter(from, batchSize, since));
+            for (Map.Entry<String, String> content : contents.entrySet()) {
+                zos.putNextEntry(new ZipEntry(DataExchangeFiles.contentFileName(content.getKey())));
+                zos.write(content.getValue().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+                afterHash = content.getKey();
+            }
+            if (contents.size() < batchSize) break;
+        }
+        zos.setLevel(Deflater.DEFAULT_COMPRESSION);
+    }
+}
@@ -1,5 +1,6 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.LinkExport;
@@ -9,6 +10,8 @@ import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
 import org.jaalon.tags.Tag;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -24,16 +27,18 @@ public class LinkExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.LINKS; }
 
     @Override
-    public Object exportData() {
-        List<LinkExport> out = new ArrayList<>();
-        for (Link l : linkRepository.listAll()) {
-            Set<String> t = new LinkedHashSet<>();
-            if (l.tags != null) {
-                for (Tag tag : l.tags) t.add(tag.name);
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        ExportBatches.write(generator, batchSize, (afterId, size) -> linkRepository.listBatchWithTags(afterId, size, since), (List<Link> links) -> {
+            List<LinkExport> out = new ArrayList<>();
+            for (Link l : links) {
+                Set<String> t = new LinkedHashSet<>();
+                if (l.tags != null) {
+                    for (Tag tag : l.tags) t.add(tag.name);
+                }
+                out.add(new LinkExport(l.title, l.url, l.description, l.summary, t, l.contentHash));
             }
-            out.add(new LinkExport(l.title, l.url, l.description, l.summary, t));
-        }
-        return out;
+            return out;
+        });
     }
 
     @Override
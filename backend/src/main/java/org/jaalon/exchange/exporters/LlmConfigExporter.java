@@ -1,5 +1,7 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.LlmConfigExport;
@@ -8,6 +10,8 @@ import org.jaalon.exchange.ExportType;
 import org.jaalon.llm.LlmConfig;
 import org.jaalon.llm.LlmConfigRepository;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,15 +25,19 @@ public class LlmConfigExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.LLM_CONFIGS; }
 
     @Override
-    public Object exportData() {
-        List<LlmConfig> list = llmConfigRepository.listAll();
-        List<LlmConfigExport> out = new ArrayList<>();
-        for (LlmConfig c : list) {
-            String provider = c.aiApiKey == null ? null : c.aiApiKey.provider;
-            String apiKeyName = c.aiApiKey == null ? null : c.aiApiKey.name;
-            out.add(new LlmConfigExport(c.name, provider, apiKeyName, c.model, c.isDefault));
-        }
-        return out;
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        // Not timestamped: a few rows at most, always exported in full
+        ExportBatches.write(generator, batchSize,
+                (afterId, size) -> llmConfigRepository.find("id > ?1", Sort.by("id"), afterId).page(0, size).list(),
+                (List<LlmConfig> list) -> {
+                    List<LlmConfigExport> out = new ArrayList<>();
+                    for (LlmConfig c : list) {
+                        String provider = c.aiApiKey == null ? null : c.aiApiKey.provider;
+                        String apiKeyName = c.aiApiKey == null ? null : c.aiApiKey.name;
+                        out.add(new LlmConfigExport(c.name, provider, apiKeyName, c.model, c.isDefault));
+                    }
+                    return out;
+                });
     }
 
     @Override
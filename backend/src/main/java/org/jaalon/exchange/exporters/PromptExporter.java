@@ -1,5 +1,7 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.PromptExport;
@@ -8,6 +10,8 @@ import org.jaalon.exchange.ExportType;
 import org.jaalon.promptinstruction.PromptInstruction;
 import org.jaalon.promptinstruction.PromptInstructionRepository;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,12 +25,21 @@ public class PromptExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.PROMPTS; }
 
     @Override
-    public Object exportData() {
-        List<PromptExport> out = new ArrayList<>();
-        for (PromptInstruction pi : promptRepository.listAll()) {
-            out.add(new PromptExport(pi.type, pi.content));
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        // One instruction per type, a handful at most: read in a single transaction
+        List<PromptExport> out = QuarkusTransaction.requiringNew().call(() -> {
+            List<PromptExport> prompts = new ArrayList<>();
+            List<PromptInstruction> instructions = since == null
+                    ? promptRepository.listAll()
+                    : promptRepository.list("updatedAt > ?1", since);
+            for (PromptInstruction pi : instructions) {
+                prompts.add(new PromptExport(pi.type, pi.content));
+            }
+            return prompts;
+        });
+        for (PromptExport prompt : out) {
+            generator.writeObject(prompt);
         }
-        return out;
     }
 
     @Override
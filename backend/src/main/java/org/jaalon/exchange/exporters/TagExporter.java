@@ -1,5 +1,7 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.DataExchangeFiles;
@@ -8,6 +10,8 @@ import org.jaalon.exchange.dto.TagExport;
 import org.jaalon.tags.Tag;
 import org.jaalon.tags.TagRepository;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,12 +25,18 @@ public class TagExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.TAGS; }
 
     @Override
-    public Object exportData() {
-        List<TagExport> out = new ArrayList<>();
-        for (Tag t : tagRepository.listAll()) {
-            out.add(new TagExport(t.name));
-        }
-        return out;
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        ExportBatches.write(generator, batchSize,
+                (afterId, size) -> since == null
+                        ? tagRepository.find("id > ?1", Sort.by("id"), afterId).page(0, size).list()
+                        : tagRepository.find("id > ?1 and updatedAt > ?2", Sort.by("id"), afterId, since).page(0, size).list(),
+                (List<Tag> tags) -> {
+                    List<TagExport> out = new ArrayList<>();
+                    for (Tag t : tags) {
+                        out.add(new TagExport(t.name));
+                    }
+                    return out;
+                });
     }
 
     @Override
@@ -1,18 +1,22 @@
 package org.jaalon.exchange.exporters;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jaalon.exchange.dto.TechWatchExport;
 import org.jaalon.exchange.DataExchangeFiles;
 import org.jaalon.exchange.ExportType;
-import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
 import org.jaalon.techwatch.TechWatch;
 import org.jaalon.techwatch.TechWatchRepository;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.jaalon.exchange.ExportType.FUNCTIONAL;
@@ -26,18 +30,22 @@ public class TechWatchExporter implements DataExporter {
     public DataExchangeFiles file() { return DataExchangeFiles.TECHWATCHES; }
 
     @Override
-    public Object exportData() {
-        List<TechWatchExport> out = new ArrayList<>();
-        for (TechWatch tw : techWatchRepository.listAll()) {
-            Set<String> urls = new LinkedHashSet<>();
-            for (Link l : linkRepository.listAll()) {
-                if (l.techWatches != null && l.techWatches.contains(tw)) {
-                    urls.add(l.url);
-                }
-            }
-            out.add(new TechWatchExport(tw.date, tw.status == null ? null : tw.status.name(), tw.maxArticles, urls));
-        }
-        return out;
+    public void write(JsonGenerator generator, int batchSize, Instant since) throws IOException {
+        ExportBatches.write(generator, batchSize,
+                (afterId, size) -> since == null
+                        ? techWatchRepository.find("id > ?1", Sort.by("id"), afterId).page(0, size).list()
+                        : techWatchRepository.find("id > ?1 and updatedAt > ?2", Sort.by("id"), afterId, since).page(0, size).list(),
+                (List<TechWatch> techWatches) -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (TechWatch tw : techWatches) ids.add(tw.id);
+                    Map<Long, Set<String>> urlsByTechWatch = linkRepository.urlsByTechWatch(ids);
+                    List<TechWatchExport> out = new ArrayList<>();
+                    for (TechWatch tw : techWatches) {
+                        Set<String> urls = urlsByTechWatch.getOrDefault(tw.id, new LinkedHashSet<>());
+                        out.add(new TechWatchExport(tw.date, tw.status == null ? null : tw.status.name(), tw.maxArticles, urls));
+                    }
+                    return out;
+                });
     }
 
     @Override
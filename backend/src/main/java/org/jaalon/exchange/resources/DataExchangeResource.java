@@ -1,23 +1,30 @@
 package org.jaalon.exchange.resources;
 
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.jaalon.exchange.ArchiveFormat;
 import org.jaalon.exchange.ExportType;
 import org.jaalon.exchange.dto.*;
 import org.jaalon.exchange.services.DataExportService;
 import org.jaalon.exchange.services.ImportAnalysisService;
 import org.jaalon.exchange.services.ImportExecutionService;
+import org.jboss.resteasy.reactive.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 import static jakarta.ws.rs.core.Response.ok;
 
@@ -32,8 +39,13 @@ import static jakarta.ws.rs.core.Response.ok;
         TechWatchExport.class,
         TagExport.class,
         AnalyzeReport.class,
+        ImportReport.class,
+        ImportFileReport.class,
         ConflictItem.class,
-        ResolveRequest.class
+        ResolveRequest.class,
+        ResolveResult.class,
+        DeletionExport.class,
+        ExportManifest.class
 })
 public class DataExchangeResource {
     @Inject
@@ -46,24 +58,54 @@ public class DataExchangeResource {
     @GET
     @Path("/export/{type}")
     @Produces("application/zip")
-    public Response exportZip(@PathParam("type") String type) {
-        byte[] content = dataExportService.buildExportZip(ExportType.fromString(type));
+    public Response exportZip(@PathParam("type") String type, @QueryParam("since") String since,
+                              @QueryParam("format") String format) {
+        ExportType exportType = ExportType.fromString(type);
+        Instant sinceInstant = parseSince(since);
+        ArchiveFormat archiveFormat = ArchiveFormat.fromString(format);
+        // Taken before reading: pass it as the next since so that nothing modified during the export is missed
+        Instant exportedAt = Instant.now();
+        // Written to the response as it is produced; nothing is buffered beyond one batch of entities
+        StreamingOutput content = out -> dataExportService.writeExportZip(exportType, sinceInstant, archiveFormat, exportedAt, out);
         String fileName = "export-" + type.toLowerCase(Locale.ROOT) + ".zip";
         String contentDispositionHeader = "attachment; filename=\"" + URLEncoder.encode(fileName, StandardCharsets.UTF_8) + "\"";
         return ok(content)
                 .type("application/zip")
                 .header("Content-Disposition", contentDispositionHeader)
+                .header("X-Export-Time", exportedAt.toString())
                 .build();
     }
 
+    private static Instant parseSince(String since) {
+        if (since == null || since.isBlank()) return null;
+        try {
+            return Instant.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("since must be an ISO-8601 instant, e.g. 2025-01-31T10:15:30Z");
+        }
+    }
+
     @POST
     @Path("/import/analyze")
     @Consumes("application/zip")
-    @Transactional
     public AnalyzeReport analyzeZip(InputStream inputStream) {
         return importAnalysisService.analyzeZip(inputStream);
     }
 
+    /**
+     * Same analysis streamed as NDJSON, one conflict per line, each analyzer's conflicts sent as soon as
+     * it completes. The archive is parsed before the response starts, so an invalid one is still a 400.
+     */
+    @POST
+    @Path("/import/analyze/stream")
+    @Consumes("application/zip")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Blocking
+    public Multi<ConflictItem> analyzeZipStream(InputStream inputStream) {
+        return importAnalysisService.stream(importAnalysisService.read(inputStream));
+    }
+
     /**
      * Resolve a single conflicting item by applying the chosen values.
      */
@@ -76,6 +118,17 @@ public class DataExchangeResource {
         return Response.noContent().build();
     }
 
+    /**
+     * Resolve many conflicting items at once. Not transactional: items are applied in grouped
+     * transactions and the result of each one is reported, in request order.
+     */
+    @POST
+    @Path("/import/resolve-batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public List<ResolveResult> resolveBatch(List<ResolveRequest> items) {
+        return importExecutionService.resolveBatch(items);
+    }
+
     /**
      * Build and return a ZIP containing only the provided resolved items.
      */
@@ -89,12 +142,13 @@ public class DataExchangeResource {
         return ok(zip).type("application/zip").header("Content-Disposition", cd).build();
     }
 
+    /**
+     * Import an archive. Not transactional: the import commits its own batches.
+     */
     @POST
     @Path("/import/execute")
     @Consumes("application/zip")
-    @Transactional
-    public Response executeZip(InputStream in) {
-        importExecutionService.executeZip(in);
-        return ok(Map.of("status", "ok")).build();
+    public ImportReport executeZip(InputStream in) {
+        return importExecutionService.executeZip(in);
     }
 }
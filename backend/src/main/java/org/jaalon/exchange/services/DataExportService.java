@@ -1,15 +1,23 @@
 package org.jaalon.exchange.services;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.enterprise.inject.Instance;
 import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jaalon.exchange.ArchiveFormat;
 import org.jaalon.exchange.ExportType;
 import org.jaalon.exchange.dto.*;
 import org.jaalon.exchange.exporters.DataExporter;
+import org.jaalon.exchange.exporters.LinkContentExporter;
+import org.jaalon.exchange.tombstones.Tombstone;
+import org.jaalon.exchange.tombstones.TombstoneRepository;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.zip.ZipOutputStream;
@@ -22,20 +30,56 @@ public class DataExportService {
     @Inject
     ZipService zipService;
     @Inject Instance<DataExporter> exporters;
+    @Inject LinkContentExporter linkContentExporter;
 
-    public byte[] buildExportZip(ExportType exportType) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        try (ZipOutputStream zos = new ZipOutputStream(byteArrayOutputStream)) {
-            for (DataExporter exporter : exporters) {
-                if (exporter.dataType() == exportType) {
-                    zipService.writeJsonEntry(zos, exporter.file().fileName(), exporter.exportData());
-                }
+    @Inject TombstoneRepository tombstoneRepository;
+
+    // Entities whose deletions are tracked, by the export type that carries them
+    private static final Map<ExportType, List<String>> DELETED_ENTITIES = Map.of(
+            ExportType.FUNCTIONAL, List.of("Link", "TechWatch"),
+            ExportType.TECHNICAL, List.of("AiApiKey"));
+
+    @ConfigProperty(name = "techwatch.exchange.export.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "techwatch.exchange.export.content-batch-size", defaultValue = "50")
+    int contentBatchSize;
+
+    /**
+     * Streams the export ZIP of the given type to {@code out}. Each file is written element by element
+     * while its entities are read in batches, so memory use does not grow with the dataset.
+     * <p>
+     * With {@code since}, only entities modified after it are exported, and the deletions recorded after
+     * it are listed in {@code deletions.json}. The data files are encoded in {@code format}, announced by
+     * the {@code manifest.json} written first. Functional exports also carry the content of the links,
+     * once per distinct content.
+     */
+    public void writeExportZip(ExportType exportType, Instant since, ArchiveFormat format, Instant exportedAt,
+                               OutputStream out) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
+        zipService.writeManifest(zos, new ExportManifest(ExportManifest.CURRENT_VERSION, format.value(),
+                exportType.name().toLowerCase(Locale.ROOT), since, exportedAt));
+        for (DataExporter exporter : exporters) {
+            if (exporter.dataType() == exportType) {
+                zipService.writeJsonArrayEntry(zos, exporter.file().fileName(), format,
+                        generator -> exporter.write(generator, batchSize, since));
             }
-            zos.finish();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create ZIP", e);
         }
-        return byteArrayOutputStream.toByteArray();
+        if (exportType == ExportType.FUNCTIONAL) {
+            linkContentExporter.write(zos, contentBatchSize, since);
+        }
+        if (since != null) {
+            List<DeletionExport> deletions = QuarkusTransaction.requiringNew().call(() -> {
+                List<DeletionExport> rows = new ArrayList<>();
+                for (Tombstone t : tombstoneRepository.listSince(since, DELETED_ENTITIES.get(exportType))) {
+                    rows.add(new DeletionExport(t.entity, t.key, t.deletedAt));
+                }
+                return rows;
+            });
+            zipService.writeJsonEntry(zos, DELETIONS.fileName(), format, deletions);
+        }
+        // Writes the central directory; closing the response stream is left to the caller
+        zos.finish();
     }
 
     public byte[] exportSelectedItemsZip(List<ResolveRequest> items) {
@@ -77,7 +121,7 @@ public class DataExportService {
                     Set<String> t = new LinkedHashSet<>();
                     Object to = it.data() != null ? it.data().get("tags") : null;
                     if (to instanceof Collection<?> col) for (Object o : col) if (o != null) t.add(String.valueOf(o));
-                    links.add(new LinkExport(title, it.key(), desc, sum, t));
+                    links.add(new LinkExport(title, it.key(), desc, sum, t, null));
                 }
                 case "TechWatch" -> {
                     LocalDate d = LocalDate.parse(it.key());
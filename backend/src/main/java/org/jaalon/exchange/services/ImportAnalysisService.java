@@ -1,8 +1,16 @@
 package org.jaalon.exchange.services;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.jaalon.exchange.dto.AnalyzeReport;
 import org.jaalon.exchange.dto.ConflictItem;
 import org.jaalon.exchange.analyzers.ConflictAnalyzer;
@@ -10,23 +18,106 @@ import org.jaalon.exchange.analyzers.ConflictAnalyzer;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Compares an uploaded archive with the database. The archive is parsed once, then every
+ * {@link ConflictAnalyzer} runs concurrently on it, at most {@code techwatch.exchange.analyze.parallelism}
+ * at a time, each in its own read-only transaction.
+ */
 @ApplicationScoped
 public class ImportAnalysisService {
 
     @Inject
     ZipService zipService;
     @Inject Instance<ConflictAnalyzer> analyzers;
+    @Inject EntityManager entityManager;
 
+    @ConfigProperty(name = "techwatch.exchange.analyze.parallelism", defaultValue = "4")
+    int parallelism;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        slots = new Semaphore(Math.max(1, parallelism), true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ImportArchive read(InputStream inputStream) {
+        return zipService.readArchive(inputStream);
+    }
+
+    /** Every conflict of the archive, in analyzer order, once all analyzers are done. */
     public AnalyzeReport analyzeZip(InputStream inputStream) {
-        Map<String, byte[]> files = zipService.readZipToMap(inputStream);
+        return new AnalyzeReport(List.of(), conflicts(read(inputStream)));
+    }
 
+    public List<ConflictItem> conflicts(ImportArchive archive) {
         List<ConflictItem> conflicts = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<ConflictItem>> analysis : start(archive)) {
+                conflicts.addAll(analysis.join());
+            }
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+        return conflicts;
+    }
+
+    /** Conflicts of the archive, each analyzer's results emitted as soon as it completes. */
+    public Multi<ConflictItem> stream(ImportArchive archive) {
+        return Multi.createFrom().emitter(emitter -> {
+            List<CompletableFuture<Void>> emitted = new ArrayList<>();
+            for (CompletableFuture<List<ConflictItem>> analysis : start(archive)) {
+                emitted.add(analysis.thenAccept(items -> {
+                    // Analyzers complete on different threads; emissions must not overlap
+                    synchronized (emitter) {
+                        items.forEach(emitter::emit);
+                    }
+                }));
+            }
+            CompletableFuture.allOf(emitted.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+                if (error != null) emitter.fail(unwrap(error));
+                else emitter.complete();
+            });
+        });
+    }
+
+    private List<CompletableFuture<List<ConflictItem>>> start(ImportArchive archive) {
+        List<CompletableFuture<List<ConflictItem>>> analyses = new ArrayList<>();
         for (ConflictAnalyzer analyzer : analyzers) {
-            conflicts.addAll(analyzer.analyze(files));
+            analyses.add(CompletableFuture.supplyAsync(() -> analyze(analyzer, archive), executor));
         }
+        return analyses;
+    }
+
+    private List<ConflictItem> analyze(ConflictAnalyzer analyzer, ImportArchive archive) {
+        slots.acquireUninterruptibly();
+        try {
+            return QuarkusTransaction.requiringNew().call(() -> {
+                // Nothing is written: skip snapshots and dirty checking of the loaded entities
+                Session session = entityManager.unwrap(Session.class);
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                return analyzer.analyze(archive);
+            });
+        } finally {
+            slots.release();
+        }
+    }
 
-        return new AnalyzeReport(List.of(), conflicts);
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
     }
 }
@@ -0,0 +1,17 @@
+package org.jaalon.exchange.services;
+
+import org.jaalon.exchange.dto.*;
+
+import java.util.List;
+
+/**
+ * Content of an uploaded archive, parsed once and shared by the conflict analyzers, which only read it.
+ * A list is null when the archive has no such file; {@code deletions} is only present in delta exports.
+ */
+public record ImportArchive(List<TagExport> tags,
+                            List<PromptExport> prompts,
+                            List<ApiKeyExport> apiKeys,
+                            List<LinkExport> links,
+                            List<TechWatchExport> techWatches,
+                            List<DeletionExport> deletions) {
+}
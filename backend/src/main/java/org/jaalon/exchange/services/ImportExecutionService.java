@@ -1,25 +1,42 @@
 package org.jaalon.exchange.services;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jaalon.apikey.AiApiKey;
 import org.jaalon.apikey.AiApiKeyRepository;
 import org.jaalon.promptinstruction.PromptInstruction;
 import org.jaalon.promptinstruction.PromptInstructionRepository;
+import org.jaalon.exchange.ArchiveFormat;
+import org.jaalon.exchange.DataExchangeFiles;
 import org.jaalon.exchange.dto.*;
+import org.jaalon.exchange.tombstones.TombstoneRepository;
 import org.jaalon.links.Link;
+import org.jaalon.llm.LlmConfigRepository;
 import org.jaalon.links.LinkRepository;
+import org.jaalon.links.search.LinkIndexEvent;
 import org.jaalon.tags.Tag;
 import org.jaalon.tags.TagRepository;
 import org.jaalon.techwatch.TechWatch;
+import org.jaalon.techwatch.TechWatchChangedEvent;
 import org.jaalon.techwatch.TechWatchRepository;
 import org.jaalon.techwatch.TechWatchStatus;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.zip.ZipFile;
 
 import static org.jaalon.exchange.DataExchangeFiles.*;
 
@@ -33,19 +50,129 @@ public class ImportExecutionService {
     @Inject LinkRepository linkRepository;
     @Inject TechWatchRepository techWatchRepository;
     @Inject TagRepository tagRepository;
+    @Inject Event<LinkIndexEvent> linkIndexEvents;
+    @Inject Event<TechWatchChangedEvent> techWatchChanges;
+    @Inject TombstoneRepository tombstoneRepository;
+    @Inject LlmConfigRepository llmConfigRepository;
+
+    @ConfigProperty(name = "techwatch.exchange.import.batch-size", defaultValue = "500")
+    int batchSize;
 
     public void resolveOne(ResolveRequest req) {
+        resolve(req, preload(Collections.singletonList(req)));
+    }
+
+    /**
+     * Applies many resolutions. Items are applied in groups of {@code techwatch.exchange.import.batch-size},
+     * each group in one transaction with the rows it touches preloaded by one IN query per entity type.
+     * When a group fails, its items are applied again one by one, each in its own transaction, so that
+     * a single invalid item only fails itself. Results are returned in request order.
+     */
+    public List<ResolveResult> resolveBatch(List<ResolveRequest> requests) {
+        if (requests == null) throw new BadRequestException("Missing items");
+        List<ResolveResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<ResolveRequest> group = requests.subList(from, Math.min(from + batchSize, requests.size()));
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    ResolveLookups lookups = preload(group);
+                    for (ResolveRequest req : group) resolve(req, lookups);
+                    linkRepository.getEntityManager().flush();
+                });
+                for (ResolveRequest req : group) results.add(ResolveResult.ok(req));
+            } catch (RuntimeException groupFailure) {
+                Log.debugf(groupFailure, "Resolve batch of %d items failed, applying them one by one", group.size());
+                for (ResolveRequest req : group) results.add(resolveAlone(req));
+            }
+        }
+        return results;
+    }
+
+    private ResolveResult resolveAlone(ResolveRequest req) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                resolveOne(req);
+                linkRepository.getEntityManager().flush();
+            });
+            return ResolveResult.ok(req);
+        } catch (RuntimeException e) {
+            return ResolveResult.failed(req, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /** Existing rows touched by a group of resolutions, keyed like the requests; created rows are added as they are persisted. */
+    private record ResolveLookups(Map<String, PromptInstruction> prompts, Map<String, AiApiKey> apiKeys,
+                                  Map<String, Link> links, Map<String, Tag> tags,
+                                  Map<LocalDate, TechWatch> techWatches, Map<Long, Set<String>> techWatchUrls) {
+
+        Tag tag(String name, TagRepository tagRepository) {
+            return tags.computeIfAbsent(name, n -> {
+                Tag tag = new Tag();
+                tag.name = n;
+                tagRepository.persist(tag);
+                return tag;
+            });
+        }
+    }
+
+    // Keys that cannot be parsed are skipped here; resolve() reports them for the item concerned
+    private ResolveLookups preload(List<ResolveRequest> requests) {
+        Set<String> promptTypes = new HashSet<>();
+        Set<String> apiKeyNames = new HashSet<>();
+        Set<String> urls = new HashSet<>();
+        Set<String> tagNames = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (ResolveRequest req : requests) {
+            if (req == null || req.entity() == null || req.key() == null) continue;
+            switch (req.entity()) {
+                case "PromptInstruction" -> promptTypes.add(req.key());
+                case "AiApiKey" -> {
+                    String[] parts = req.key().split(":", 2);
+                    if (parts.length == 2) apiKeyNames.add(parts[1]);
+                }
+                case "Link" -> {
+                    urls.add(req.key());
+                    tagNames.addAll(valueAsStrings(req.data(), "tags"));
+                }
+                case "TechWatch" -> {
+                    try {
+                        dates.add(LocalDate.parse(req.key()));
+                    } catch (DateTimeParseException ignored) {
+                        // reported when the item is resolved
+                    }
+                    urls.addAll(valueAsStrings(req.data(), "linkUrls"));
+                }
+                case "Tag" -> tagNames.add(req.key());
+                default -> { }
+            }
+        }
+        Map<LocalDate, TechWatch> techWatches = techWatchRepository.findByDates(dates);
+        List<Long> techWatchIds = new ArrayList<>();
+        for (TechWatch tw : techWatches.values()) techWatchIds.add(tw.id);
+        Map<Long, Set<String>> techWatchUrls = linkRepository.urlsByTechWatch(techWatchIds);
+        for (Set<String> current : techWatchUrls.values()) urls.addAll(current);
+        return new ResolveLookups(
+                promptRepository.findByTypes(promptTypes),
+                aiApiKeyRepository.findByNames(apiKeyNames),
+                linkRepository.findByUrls(urls),
+                tagRepository.findByNames(tagNames),
+                techWatches,
+                techWatchUrls);
+    }
+
+    private void resolve(ResolveRequest req, ResolveLookups lookups) {
         if (req == null || req.entity() == null) throw new BadRequestException("Missing entity");
         switch (req.entity()) {
             case "PromptInstruction" -> {
                 if (req.key() == null) throw new BadRequestException("Missing key for PromptInstruction");
                 String content = valueAsString(req.data(), "content");
-                PromptInstruction pi = promptRepository.findById(req.key());
+                PromptInstruction pi = lookups.prompts().get(req.key());
                 if (pi == null) {
                     pi = new PromptInstruction();
                     pi.type = req.key();
                     pi.content = content;
                     promptRepository.persist(pi);
+                    lookups.prompts().put(pi.type, pi);
                 } else {
                     pi.content = content;
                 }
@@ -55,7 +182,7 @@ public class ImportExecutionService {
                 if (parts == null || parts.length != 2) throw new BadRequestException("AiApiKey key must be 'provider:name'");
                 String provider = parts[0];
                 String name = parts[1];
-                AiApiKey existing = aiApiKeyRepository.find("provider = ?1 and name = ?2", provider, name).firstResult();
+                AiApiKey existing = lookups.apiKeys().get(AiApiKeyRepository.key(provider, name));
                 if (existing == null) {
                     AiApiKey n = new AiApiKey();
                     n.provider = provider;
@@ -64,6 +191,7 @@ public class ImportExecutionService {
                     n.organizationId = valueAsString(req.data(), "organizationId");
                     n.projectId = valueAsString(req.data(), "projectId");
                     aiApiKeyRepository.persist(n);
+                    lookups.apiKeys().put(AiApiKeyRepository.key(provider, name), n);
                 } else {
                     existing.baseUrl = valueAsString(req.data(), "baseUrl");
                     existing.organizationId = valueAsString(req.data(), "organizationId");
@@ -73,202 +201,415 @@ public class ImportExecutionService {
             case "Link" -> {
                 String url = req.key();
                 if (url == null) throw new BadRequestException("Missing key (url) for Link");
-                Link link = linkRepository.find("url", url).firstResult();
+                Link link = lookups.links().get(url);
                 if (link == null) {
                     link = new Link();
                     link.url = url;
                     linkRepository.persist(link);
+                    lookups.links().put(url, link);
                 }
                 link.title = valueAsString(req.data(), "title");
                 link.description = valueAsString(req.data(), "description");
                 link.summary = valueAsString(req.data(), "summary");
-                Object tagsObj = req.data() != null ? req.data().get("tags") : null;
-                if (tagsObj instanceof Collection<?> col) {
+                if (req.data() != null && req.data().get("tags") instanceof Collection<?>) {
                     LinkedHashSet<Tag> newTags = new LinkedHashSet<>();
-                    for (Object o : col) {
-                        if (o == null) continue;
-                        String tn = String.valueOf(o);
-                        Tag t = tagRepository.find("name", tn).firstResult();
-                        if (t == null) { t = new Tag(); t.name = tn; tagRepository.persist(t); }
-                        newTags.add(t);
-                    }
+                    for (String tn : valueAsStrings(req.data(), "tags")) newTags.add(lookups.tag(tn, tagRepository));
                     link.tags = newTags;
                 }
+                linkIndexEvents.fire(LinkIndexEvent.indexed(link));
             }
             case "TechWatch" -> {
                 String dateStr = req.key();
                 if (dateStr == null) throw new BadRequestException("Missing key (date) for TechWatch");
-                LocalDate date = LocalDate.parse(dateStr);
-                TechWatch tw = techWatchRepository.find("date", date).firstResult();
-                if (tw == null) { tw = new TechWatch(); tw.date = date; techWatchRepository.persist(tw); }
+                LocalDate date;
+                try {
+                    date = LocalDate.parse(dateStr);
+                } catch (DateTimeParseException e) {
+                    throw new BadRequestException("Invalid TechWatch date: " + dateStr);
+                }
+                TechWatch tw = lookups.techWatches().get(date);
+                if (tw == null) {
+                    tw = new TechWatch();
+                    tw.date = date;
+                    techWatchRepository.persist(tw);
+                    lookups.techWatches().put(date, tw);
+                }
                 String status = valueAsString(req.data(), "status");
                 tw.status = safeStatus(status);
                 tw.maxArticles = valueAsInteger(req.data());
+                techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
 
-                Object linkUrlsObj = req.data() != null ? req.data().get("linkUrls") : null;
-                if (linkUrlsObj instanceof Collection<?> col) {
-                    LinkedHashSet<String> desired = new LinkedHashSet<>();
-                    for (Object o : col) if (o != null) desired.add(String.valueOf(o));
-
-                    LinkedHashSet<String> current = new LinkedHashSet<>();
-                    for (Link l : linkRepository.listAll()) {
-                        if (l.techWatches != null && l.techWatches.contains(tw)) current.add(l.url);
-                    }
+                if (req.data() != null && req.data().get("linkUrls") instanceof Collection<?>) {
+                    LinkedHashSet<String> desired = new LinkedHashSet<>(valueAsStrings(req.data(), "linkUrls"));
+                    // URLs attached to the TechWatch, kept up to date for later items of the same group
+                    Set<String> current = lookups.techWatchUrls().computeIfAbsent(tw.id, id -> new LinkedHashSet<>());
+                    long delta = 0;
 
                     for (String url : desired) {
                         if (!current.contains(url)) {
-                            Link l = linkRepository.find("url", url).firstResult();
+                            Link l = lookups.links().get(url);
                             if (l == null) {
                                 l = new Link();
                                 l.url = url;
                                 l.title = url; // minimal title
                                 linkRepository.persist(l);
+                                lookups.links().put(url, l);
+                                linkIndexEvents.fire(LinkIndexEvent.indexed(l));
                             }
                             if (l.techWatches == null) l.techWatches = new LinkedHashSet<>();
-                            l.techWatches.add(tw);
+                            if (l.techWatches.add(tw)) delta++;
+                            tw.touch();
                         }
                     }
 
                     for (String url : current) {
-                        if (!desired.contains(url)) {
-                            Link l = linkRepository.find("url", url).firstResult();
-                            if (l != null && l.techWatches != null) {
-                                l.techWatches.remove(tw);
-                            }
+                        Link l = lookups.links().get(url);
+                        if (l != null && !desired.contains(url)) {
+                            if (l.techWatches.remove(tw)) delta--;
+                            tw.touch();
                         }
                     }
+                    current.clear();
+                    current.addAll(desired);
+                    techWatchRepository.adjustLinkCounts(Map.of(tw.id, delta));
                 }
             }
             case "Tag" -> {
                 String name = req.key();
                 if (name == null) throw new BadRequestException("Missing key (name) for Tag");
-                Tag t = tagRepository.find("name", name).firstResult();
-                if (t == null) { t = new Tag(); t.name = name; tagRepository.persist(t); }
+                lookups.tag(name, tagRepository);
             }
             default -> throw new BadRequestException("Unsupported entity: " + req.entity());
         }
     }
 
-    public void executeZip(InputStream in) {
-        Map<String, byte[]> files = zipService.readZipToMap(in);
+    /**
+     * Imports an archive produced by the export. The upload is spooled to a temporary file so that
+     * entries can be read in dependency order whatever their order in the archive; each JSON array is
+     * then parsed element by element and upserted in batches of {@code techwatch.exchange.import.batch-size},
+     * each batch in its own transaction with the persistence context cleared afterwards.
+     * <p>
+     * Batches already committed stay imported if a later one fails.
+     */
+    public ImportReport executeZip(InputStream in) {
+        Path spooled = zipService.spool(in);
+        try (ZipFile zip = zipService.open(spooled)) {
+            List<ImportFileReport> files = new ArrayList<>();
+            ArchiveFormat format = zipService.formatOf(zip);
+            importFile(zip, format, TAGS, TagExport.class, all(this::importTags), files);
+            importFile(zip, format, PROMPTS, PromptExport.class, all(this::importPrompts), files);
+            importFile(zip, format, API_KEYS, ApiKeyExport.class, all(this::importApiKeys), files);
+            importFile(zip, format, LINKS, LinkExport.class,
+                    all(batch -> importLinks(batch, hash -> zipService.readContent(zip, hash))), files);
+            importFile(zip, format, TECHWATCHES, TechWatchExport.class,
+                    all(batch -> importTechWatches(batch, false)), files);
+            importFile(zip, format, DELETIONS, DeletionExport.class, this::importDeletions, files);
+            return new ImportReport("ok", files);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid ZIP", e);
+        } finally {
+            zipService.delete(spooled);
+        }
+    }
 
-        // Tags
-        List<TagExport> tags = zipService.readIfPresent(files, TAGS.fileName(), new TypeReference<>(){});
-        Map<String, Tag> tagByName = new HashMap<>();
-        if (tags != null) {
-            for (TagExport t : tags) {
-                Tag existing = tagRepository.find("name", t.name()).firstResult();
-                if (existing == null) {
-                    existing = new Tag();
-                    existing.name = t.name();
-                    tagRepository.persist(existing);
-                }
-                tagByName.put(existing.name, existing);
+    /**
+     * Imports an archive already parsed in memory, such as a delta pulled from a sync peer, in the same
+     * order and with the same batching as {@link #executeZip}. Unlike a file import, the links of an
+     * imported TechWatch are replaced by the archived ones. {@code contents} returns the link content
+     * stored under a hash, or null when it is not available.
+     */
+    public ImportReport importArchive(ImportArchive archive, Function<String, String> contents) {
+        List<ImportFileReport> files = new ArrayList<>();
+        importList(TAGS, archive.tags(), all(this::importTags), files);
+        importList(PROMPTS, archive.prompts(), all(this::importPrompts), files);
+        importList(API_KEYS, archive.apiKeys(), all(this::importApiKeys), files);
+        importList(LINKS, archive.links(), all(batch -> importLinks(batch, contents)), files);
+        importList(TECHWATCHES, archive.techWatches(), all(batch -> importTechWatches(batch, true)), files);
+        importList(DELETIONS, archive.deletions(), this::importDeletions, files);
+        return new ImportReport("ok", files);
+    }
+
+    // Importers return how many records of the batch they skipped as invalid; most never skip any
+    private static <T> ToIntFunction<List<T>> all(Consumer<List<T>> importer) {
+        return batch -> {
+            importer.accept(batch);
+            return 0;
+        };
+    }
+
+    private <T> void importList(DataExchangeFiles file, List<T> records, ToIntFunction<List<T>> importer,
+                                List<ImportFileReport> reports) {
+        if (records == null) return;
+        int batches = 0;
+        long skipped = 0;
+        for (int from = 0; from < records.size(); from += batchSize) {
+            skipped += importBatch(importer, records.subList(from, Math.min(from + batchSize, records.size())));
+            batches++;
+        }
+        reports.add(new ImportFileReport(file.fileName(), records.size() - skipped, batches, skipped));
+    }
+
+    private <T> int importBatch(ToIntFunction<List<T>> importer, List<T> batch) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            int skipped = importer.applyAsInt(batch);
+            EntityManager entityManager = linkRepository.getEntityManager();
+            entityManager.flush();
+            entityManager.clear();
+            return skipped;
+        });
+    }
+
+    private <T> void importFile(ZipFile zip, ArchiveFormat format, DataExchangeFiles file, Class<T> type,
+                                ToIntFunction<List<T>> importer, List<ImportFileReport> reports) {
+        String name = file.fileName();
+        long[] imported = {0};
+        long[] skipped = {0};
+        int[] batches = {0};
+        boolean present = zipService.readArray(zip, format, name, type, batchSize, batch -> {
+            int batchSkipped = importBatch(importer, batch);
+            imported[0] += batch.size() - batchSkipped;
+            skipped[0] += batchSkipped;
+            batches[0]++;
+            Log.infof("Import %s: %d records imported (batch %d)", name, imported[0], batches[0]);
+        });
+        if (present) {
+            reports.add(new ImportFileReport(name, imported[0], batches[0], skipped[0]));
+        }
+    }
+
+    // Each batch preloads its existing rows with IN queries, then decides insert or update in memory
+
+    private void importTags(List<TagExport> tags) {
+        List<String> names = new ArrayList<>();
+        for (TagExport t : tags) names.add(t.name());
+        resolveTags(names);
+    }
+
+    private void importPrompts(List<PromptExport> prompts) {
+        List<String> types = new ArrayList<>();
+        for (PromptExport p : prompts) types.add(p.type());
+        Map<String, PromptInstruction> existing = promptRepository.findByTypes(types);
+        for (PromptExport p : prompts) {
+            PromptInstruction pi = existing.get(p.type());
+            if (pi == null) {
+                pi = new PromptInstruction();
+                pi.type = p.type();
+                pi.content = p.content();
+                promptRepository.persist(pi);
+                existing.put(pi.type, pi);
+            } else {
+                pi.content = p.content();
             }
         }
+    }
 
-        // PromptInstruction
-        List<PromptExport> prompts = zipService.readIfPresent(files, PROMPTS.fileName(), new TypeReference<>(){});
-        if (prompts != null) {
-            for (PromptExport p : prompts) {
-                PromptInstruction pi = promptRepository.findById(p.type());
-                if (pi == null) {
-                    pi = new PromptInstruction();
-                    pi.type = p.type();
-                    pi.content = p.content();
-                    promptRepository.persist(pi);
-                } else {
-                    pi.content = p.content();
+    private void importApiKeys(List<ApiKeyExport> apikeys) {
+        List<String> names = new ArrayList<>();
+        for (ApiKeyExport apiKey : apikeys) names.add(apiKey.name());
+        Map<String, AiApiKey> byKey = aiApiKeyRepository.findByNames(names);
+        for (ApiKeyExport apiKey : apikeys) {
+            AiApiKey existing = byKey.get(AiApiKeyRepository.key(apiKey.provider(), apiKey.name()));
+            boolean keyIsPresent = apiKey.apiKey() != null && !apiKey.apiKey().isBlank();
+            if (existing == null) {
+                AiApiKey n = new AiApiKey();
+                n.provider = apiKey.provider();
+                n.name = apiKey.name();
+                n.baseUrl = apiKey.baseUrl();
+                if (keyIsPresent) {
+                    n.apiKey = apiKey.apiKey();
+                }
+                n.organizationId = apiKey.organizationId();
+                n.projectId = apiKey.projectId();
+                aiApiKeyRepository.persist(n);
+                byKey.put(AiApiKeyRepository.key(n.provider, n.name), n);
+            } else {
+                existing.baseUrl = apiKey.baseUrl();
+                if (keyIsPresent) {
+                    existing.apiKey = apiKey.apiKey();
                 }
+                existing.organizationId = apiKey.organizationId();
+                existing.projectId = apiKey.projectId();
             }
         }
+    }
 
-        // AiApiKey
-        List<ApiKeyExport> apikeys = zipService.readIfPresent(files, API_KEYS.fileName(), new TypeReference<>(){});
-        if (apikeys != null) {
-            for (ApiKeyExport apiKey : apikeys) {
-                AiApiKey existing = aiApiKeyRepository.find("provider = ?1 and name = ?2", apiKey.provider(), apiKey.name()).firstResult();
-                boolean keyIsPresent = apiKey.apiKey() != null && !apiKey.apiKey().isBlank();
-                if (existing == null) {
-                    AiApiKey n = new AiApiKey();
-                    n.provider = apiKey.provider();
-                    n.name = apiKey.name();
-                    n.baseUrl = apiKey.baseUrl();
-                    if (keyIsPresent) {
-                        n.apiKey = apiKey.apiKey();
-                    }
-                    n.organizationId = apiKey.organizationId();
-                    n.projectId = apiKey.projectId();
-                    aiApiKeyRepository.persist(n);
-                } else {
-                    existing.baseUrl = apiKey.baseUrl();
-                    if (keyIsPresent) {
-                        existing.apiKey = apiKey.apiKey();
-                    }
-                    existing.organizationId = apiKey.organizationId();
-                    existing.projectId = apiKey.projectId();
+    // A content is only read from the archive when the link does not already hold the same one
+    private void importLinks(List<LinkExport> links, Function<String, String> contents) {
+        List<String> urls = new ArrayList<>();
+        List<String> tagNames = new ArrayList<>();
+        for (LinkExport le : links) {
+            urls.add(le.url());
+            if (le.tags() != null) tagNames.addAll(le.tags());
+        }
+        Map<String, Link> byUrl = linkRepository.findByUrls(urls);
+        Map<String, Tag> tagByName = resolveTags(tagNames);
+        for (LinkExport le : links) {
+            Link link = byUrl.get(le.url());
+            if (link == null) {
+                link = new Link();
+                link.title = le.title();
+                link.url = le.url();
+                link.description = le.description();
+                link.summary = le.summary();
+                linkRepository.persist(link);
+                byUrl.put(link.url, link);
+            } else {
+                link.title = le.title();
+                link.description = le.description();
+                link.summary = le.summary();
+            }
+            if (le.tags() != null) {
+                LinkedHashSet<Tag> newTags = new LinkedHashSet<>();
+                for (String tn : le.tags()) newTags.add(tagByName.get(tn));
+                link.tags = newTags;
+            }
+            boolean contentUpdated = false;
+            if (le.contentHash() != null && !le.contentHash().equals(link.contentHash)) {
+                String content = contents.apply(le.contentHash());
+                if (content != null) {
+                    link.content = content;
+                    contentUpdated = true;
                 }
             }
+            linkIndexEvents.fire(contentUpdated ? LinkIndexEvent.indexedWithContent(link) : LinkIndexEvent.indexed(link));
         }
+    }
 
-        // Links
-        List<LinkExport> links = zipService.readIfPresent(files, LINKS.fileName(), new TypeReference<>(){});
-        if (links != null) {
-            for (LinkExport le : links) {
-                Link link = linkRepository.find("url", le.url()).firstResult();
-                if (link == null) {
-                    link = new Link();
-                    link.title = le.title();
-                    link.url = le.url();
-                    link.description = le.description();
-                    link.summary = le.summary();
-                    linkRepository.persist(link);
-                } else {
-                    link.title = le.title();
-                    link.description = le.description();
-                    link.summary = le.summary();
+    // A sync import mirrors the peer: the links of an imported TechWatch are replaced by the archived ones.
+    // A file import only adds links. An ACTIVE TechWatch is never demoted, and ACTIVE is never taken from
+    // the archive, so the instance keeps exactly the active TechWatch it had
+    private void importTechWatches(List<TechWatchExport> techwatches, boolean replaceLinks) {
+        List<LocalDate> dates = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        for (TechWatchExport te : techwatches) {
+            dates.add(te.date());
+            if (te.linkUrls() != null) urls.addAll(te.linkUrls());
+        }
+        Map<LocalDate, TechWatch> byDate = techWatchRepository.findByDates(dates);
+        Map<Long, Set<String>> currentUrls = replaceLinks
+                ? linkRepository.urlsByTechWatch(byDate.values().stream().map(tw -> tw.id).toList())
+                : Map.of();
+        currentUrls.values().forEach(urls::addAll);
+        Map<String, Link> linkByUrl = linkRepository.findByUrls(urls);
+        Map<Long, Long> counts = new HashMap<>();
+        for (TechWatchExport te : techwatches) {
+            TechWatch tw = byDate.get(te.date());
+            if (tw == null) {
+                tw = new TechWatch();
+                tw.date = te.date();
+                tw.status = safeStatus(te.status());
+                tw.maxArticles = te.maxArticles();
+                techWatchRepository.persist(tw);
+                byDate.put(tw.date, tw);
+            } else {
+                TechWatchStatus incoming = TechWatchStatus.valueOf(te.status());
+                if (tw.status != TechWatchStatus.ACTIVE && incoming != TechWatchStatus.ACTIVE) {
+                    tw.status = incoming;
                 }
-                if (le.tags() != null) {
-                    LinkedHashSet<Tag> newTags = new LinkedHashSet<>();
-                    for (String tn : le.tags()) {
-                        Tag t = tagByName.computeIfAbsent(tn, n -> {
-                            Tag tt = new Tag();
-                            tt.name = n;
-                            tagRepository.persist(tt);
-                            return tt;
-                        });
-                        newTags.add(t);
-                    }
-                    link.tags = newTags;
+                tw.maxArticles = te.maxArticles();
+            }
+            if (te.linkUrls() == null) continue;
+            for (String url : te.linkUrls()) {
+                Link link = linkByUrl.get(url);
+                if (link != null && link.techWatches.add(tw)) {
+                    tw.touch();
+                    counts.merge(tw.id, 1L, Long::sum);
+                }
+            }
+            for (String url : currentUrls.getOrDefault(tw.id, Set.of())) {
+                Link link = linkByUrl.get(url);
+                if (!te.linkUrls().contains(url) && link != null && link.techWatches.remove(tw)) {
+                    tw.touch();
+                    counts.merge(tw.id, -1L, Long::sum);
                 }
             }
         }
+        techWatchRepository.adjustLinkCounts(counts);
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
+    }
 
-        // TechWatches
-        List<TechWatchExport> techwatches = zipService.readIfPresent(files, TECHWATCHES.fileName(), new TypeReference<>(){});
-        if (techwatches != null) {
-            for (TechWatchExport te : techwatches) {
-                TechWatch tw = techWatchRepository.find("date", te.date()).firstResult();
-                if (tw == null) {
-                    tw = new TechWatch();
-                    tw.date = te.date();
-                    tw.status = safeStatus(te.status());
-                    tw.maxArticles = te.maxArticles();
-                    techWatchRepository.persist(tw);
-                } else {
-                    tw.status = safeStatus(te.status());
-                    tw.maxArticles = te.maxArticles();
+    // Deletions from a delta export. A row modified locally after the remote deletion is kept: the latest
+    // change wins. Applied deletions are recorded with their original time so they propagate further.
+    // Deletions whose key cannot identify a row are skipped and counted in the file report
+    private int importDeletions(List<DeletionExport> deletions) {
+        List<DeletionExport> valid = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        List<LocalDate> dates = new ArrayList<>();
+        List<String> apiKeyNames = new ArrayList<>();
+        for (DeletionExport d : deletions) {
+            if (d == null || d.entity() == null || d.key() == null || d.deletedAt() == null) continue;
+            switch (d.entity()) {
+                case "Link" -> urls.add(d.key());
+                case "TechWatch" -> {
+                    try {
+                        dates.add(LocalDate.parse(d.key()));
+                    } catch (DateTimeParseException e) {
+                        Log.warnf("Import deletions: skipping TechWatch with invalid date key '%s'", d.key());
+                        continue;
+                    }
                 }
-                if (te.linkUrls() != null) {
-                    for (String url : te.linkUrls()) {
-                        Link link = linkRepository.find("url", url).firstResult();
-                        if (link != null) {
-                            link.techWatches.add(tw);
-                        }
+                case "AiApiKey" -> {
+                    String[] parts = d.key().split(":", 2);
+                    if (parts.length != 2) {
+                        Log.warnf("Import deletions: skipping AiApiKey with invalid key '%s'", d.key());
+                        continue;
                     }
+                    apiKeyNames.add(parts[1]);
                 }
+                default -> { }
             }
+            valid.add(d);
+        }
+        Map<String, Link> links = linkRepository.findByUrls(urls);
+        Map<LocalDate, TechWatch> techWatches = techWatchRepository.findByDates(dates);
+        Map<String, AiApiKey> apiKeys = aiApiKeyRepository.findByNames(apiKeyNames);
+        Map<Long, Long> detached = new HashMap<>();
+        for (DeletionExport d : valid) {
+            boolean applied = switch (d.entity()) {
+                case "Link" -> {
+                    Link link = links.remove(d.key());
+                    if (link == null || link.updatedAt.isAfter(d.deletedAt())) yield false;
+                    for (TechWatch tw : link.techWatches) detached.merge(tw.id, -1L, Long::sum);
+                    linkRepository.delete(link);
+                    linkIndexEvents.fire(LinkIndexEvent.removed(link.id));
+                    yield true;
+                }
+                case "TechWatch" -> {
+                    TechWatch tw = techWatches.remove(LocalDate.parse(d.key()));
+                    // The active TechWatch is never replaced by an import, nor removed by one
+                    if (tw == null || tw.status == TechWatchStatus.ACTIVE || tw.updatedAt.isAfter(d.deletedAt())) yield false;
+                    techWatchRepository.delete(tw);
+                    techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
+                    yield true;
+                }
+                case "AiApiKey" -> {
+                    AiApiKey key = apiKeys.remove(d.key());
+                    if (key == null || key.updatedAt.isAfter(d.deletedAt())) yield false;
+                    // Still used by an LLM configuration: keep it rather than break the configuration
+                    if (llmConfigRepository.count("aiApiKey", key) > 0) yield false;
+                    aiApiKeyRepository.delete(key);
+                    yield true;
+                }
+                default -> false;
+            };
+            if (applied) tombstoneRepository.record(d.entity(), d.key(), d.deletedAt());
         }
+        // Rows of TechWatches deleted above are simply no longer there to update
+        techWatchRepository.adjustLinkCounts(detached);
+        return deletions.size() - valid.size();
+    }
+
+    /** Tags with the given names, existing ones loaded in bulk and missing ones created. */
+    private Map<String, Tag> resolveTags(Collection<String> names) {
+        Map<String, Tag> tagByName = tagRepository.findByNames(names);
+        for (String name : names) {
+            if (name == null || tagByName.containsKey(name)) continue;
+            Tag tag = new Tag();
+            tag.name = name;
+            tagRepository.persist(tag);
+            tagByName.put(name, tag);
+        }
+        return tagByName;
     }
 
     private TechWatchStatus safeStatus(String incoming) {
@@ -285,6 +626,13 @@ public class ImportExecutionService {
         return v == null ? null : String.valueOf(v);
     }
 
+    private List<String> valueAsStrings(Map<String, Object> map, String key) {
+        if (map == null || !(map.get(key) instanceof Collection<?> col)) return List.of();
+        List<String> values = new ArrayList<>();
+        for (Object o : col) if (o != null) values.add(String.valueOf(o));
+        return values;
+    }
+
     private Integer valueAsInteger(Map<String, Object> map) {
         if (map == null) return null;
         Object v = map.get("maxArticles");
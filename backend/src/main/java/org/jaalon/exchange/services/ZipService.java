@@ -1,55 +1,227 @@
 package org.jaalon.exchange.services;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
+import org.jaalon.exchange.ArchiveFormat;
+import org.jaalon.exchange.dto.*;
+import org.jaalon.links.Link;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
+import static org.jaalon.exchange.DataExchangeFiles.*;
+
 @ApplicationScoped
 public class ZipService {
 
     @Inject ObjectMapper mapper;
 
+    // Same modules and settings as the JSON mapper, binary Smile encoding
+    ObjectMapper smileMapper;
+
+    @PostConstruct
+    void init() {
+        smileMapper = mapper.copyWith(new SmileFactory());
+    }
+
+    /** Writes the elements of a JSON array; the array itself is opened and closed by the caller. */
+    @FunctionalInterface
+    public interface JsonArrayWriter {
+        void writeElements(JsonGenerator generator) throws IOException;
+    }
+
     public void writeJsonEntry(ZipOutputStream zipOutputStream, String name, Object value) throws IOException {
-        byte[] bytes = mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(value);
-        ZipEntry entry = new ZipEntry(name);
-        zipOutputStream.putNextEntry(entry);
-        zipOutputStream.write(bytes);
+        writeJsonEntry(zipOutputStream, name, ArchiveFormat.JSON, value);
+    }
+
+    public void writeJsonEntry(ZipOutputStream zipOutputStream, String name, ArchiveFormat format, Object value) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        try (JsonGenerator generator = createGenerator(zipOutputStream, format)) {
+            generator.writeObject(value);
+        }
         zipOutputStream.closeEntry();
     }
 
-    public Map<String, byte[]> readZipToMap(InputStream in) {
-        try (ZipInputStream zis = new ZipInputStream(in)) {
-            Map<String, byte[]> map = new HashMap<>();
-            ZipEntry e;
-            while ((e = zis.getNextEntry()) != null) {
-                ByteArrayOutputStream bout = new ByteArrayOutputStream();
-                zis.transferTo(bout);
-                map.put(e.getName(), bout.toByteArray());
-            }
-            return map;
+    /**
+     * Writes a JSON array entry straight into the ZIP stream, element by element, without building
+     * the array (or its serialized bytes) in memory first.
+     */
+    public void writeJsonArrayEntry(ZipOutputStream zipOutputStream, String name, ArchiveFormat format,
+                                    JsonArrayWriter elements) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        try (JsonGenerator generator = createGenerator(zipOutputStream, format)) {
+            generator.writeStartArray();
+            elements.writeElements(generator);
+            generator.writeEndArray();
+        }
+        zipOutputStream.closeEntry();
+    }
+
+    /** Writes the manifest, which announces the format of the other entries; always JSON. */
+    public void writeManifest(ZipOutputStream zipOutputStream, ExportManifest manifest) throws IOException {
+        writeJsonEntry(zipOutputStream, MANIFEST.fileName(), ArchiveFormat.JSON, manifest);
+    }
+
+    // Closing the generator flushes it but leaves the ZIP stream open for the next entry.
+    // JSON is written without indentation: the archive is read by programs, and compresses better
+    private JsonGenerator createGenerator(ZipOutputStream zipOutputStream, ArchiveFormat format) throws IOException {
+        JsonGenerator generator = mapper(format).createGenerator(zipOutputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private ObjectMapper mapper(ArchiveFormat format) {
+        return format == ArchiveFormat.SMILE ? smileMapper : mapper;
+    }
+
+    /** Format announced by the manifest of the archive; JSON for archives without manifest. */
+    public ArchiveFormat formatOf(ZipFile zip) {
+        ZipEntry entry = zip.getEntry(MANIFEST.fileName());
+        if (entry == null) return ArchiveFormat.JSON;
+        ExportManifest manifest;
+        try (InputStream in = zip.getInputStream(entry)) {
+            manifest = mapper.readValue(in, ExportManifest.class);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid JSON in " + MANIFEST.fileName(), e);
+        }
+        if (manifest.version() > ExportManifest.CURRENT_VERSION) {
+            throw new BadRequestException("Unsupported archive version " + manifest.version());
+        }
+        return ArchiveFormat.fromString(manifest.format());
+    }
+
+    /** Copies an uploaded archive to a temporary file, to be read with {@link #open(Path)} then {@link #delete(Path)}. */
+    public Path spool(InputStream in) {
+        try {
+            Path file = Files.createTempFile("techwatch-import-", ".zip");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spool the uploaded archive", e);
+        }
+    }
+
+    public ZipFile open(Path file) {
+        try {
+            return new ZipFile(file.toFile());
         } catch (IOException e) {
             throw new BadRequestException("Invalid ZIP", e);
         }
     }
 
-    public <T> T readIfPresent(Map<String, byte[]> files, String name, TypeReference<T> typeRef) {
-        byte[] data = files.get(name);
-        if (data == null) return null;
+    public void delete(Path file) {
         try {
-            return mapper.readValue(data, typeRef);
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Log.warnf(e, "Could not delete spooled archive %s", file);
+        }
+    }
+
+    /**
+     * Parses the JSON array stored in the named entry element by element and hands the elements to
+     * {@code batchConsumer} in lists of at most {@code batchSize}; at most one batch is held in memory.
+     * The entry is decoded in {@code format}, read once per archive with {@link #formatOf}.
+     *
+     * @return false when the archive has no such entry
+     */
+    public <T> boolean readArray(ZipFile zip, ArchiveFormat format, String name, Class<T> type, int batchSize,
+                                 Consumer<List<T>> batchConsumer) {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) return false;
+        ObjectMapper mapper = mapper(format);
+        try (InputStream in = zip.getInputStream(entry); JsonParser parser = mapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Invalid JSON in " + name + ": array expected");
+            }
+            List<T> batch = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) throw new BadRequestException("Invalid JSON in " + name + ": unterminated array");
+                batch.add(mapper.readValue(parser, type));
+                if (batch.size() == batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) batchConsumer.accept(batch);
+            return true;
         } catch (IOException e) {
             throw new BadRequestException("Invalid JSON in " + name, e);
         }
     }
+
+    /** Parses every known file of an uploaded archive, each one once, into an {@link ImportArchive}. */
+    public ImportArchive readArchive(InputStream in) {
+        Path spooled = spool(in);
+        try {
+            return readArchive(spooled);
+        } finally {
+            delete(spooled);
+        }
+    }
+
+    /** Reads every known file of an archive stored in {@code file}, which is left in place. */
+    public ImportArchive readArchive(Path file) {
+        try (ZipFile zip = open(file)) {
+            return readArchive(zip);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid ZIP", e);
+        }
+    }
+
+    /** Reads every known JSON file of an open archive; link contents are left to {@link #readContent}. */
+    public ImportArchive readArchive(ZipFile zip) {
+        ArchiveFormat format = formatOf(zip);
+        return new ImportArchive(
+                readList(zip, format, TAGS.fileName(), TagExport.class),
+                readList(zip, format, PROMPTS.fileName(), PromptExport.class),
+                readList(zip, format, API_KEYS.fileName(), ApiKeyExport.class),
+                readList(zip, format, LINKS.fileName(), LinkExport.class),
+                readList(zip, format, TECHWATCHES.fileName(), TechWatchExport.class),
+                readList(zip, format, DELETIONS.fileName(), DeletionExport.class));
+    }
+
+    /**
+     * Markdown content stored under the given hash, null when the archive does not carry it.
+     * The content is checked against its hash, so a corrupted entry is rejected rather than imported.
+     */
+    public String readContent(ZipFile zip, String contentHash) {
+        String name = contentFileName(contentHash);
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) return null;
+        String content;
+        try (InputStream in = zip.getInputStream(entry)) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid ZIP entry " + name, e);
+        }
+        if (!contentHash.equals(Link.contentHash(content))) {
+            throw new BadRequestException("Content of " + name + " does not match its hash");
+        }
+        return content;
+    }
+
+    private <T> List<T> readList(ZipFile zip, ArchiveFormat format, String name, Class<T> type) {
+        List<T> elements = new ArrayList<>();
+        return readArray(zip, format, name, type, Integer.MAX_VALUE, elements::addAll) ? elements : null;
+    }
 }
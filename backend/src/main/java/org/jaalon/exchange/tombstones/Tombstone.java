@@ -0,0 +1,31 @@
+package org.jaalon.exchange.tombstones;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * Records the deletion of an exchanged entity so that delta exports can tell other installations to
+ * delete it too. The entity name and key are those of the data exchange ({@code Link} by url,
+ * {@code TechWatch} by date, {@code AiApiKey} by provider:name).
+ */
+@Entity
+@Table(name = "tombstone")
+public class Tombstone extends PanacheEntity {
+
+    @NotNull
+    @Column(name = "entity", length = 50, nullable = false)
+    public String entity;
+
+    @NotNull
+    @Column(name = "entity_key", length = 1000, nullable = false)
+    public String key;
+
+    @NotNull
+    @Column(name = "deleted_at", nullable = false)
+    public Instant deletedAt = Instant.now();
+}
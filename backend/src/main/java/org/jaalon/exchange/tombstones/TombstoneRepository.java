@@ -0,0 +1,32 @@
+package org.jaalon.exchange.tombstones;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@ApplicationScoped
+public class TombstoneRepository implements PanacheRepository<Tombstone> {
+
+    /** Records that the entity was deleted now; must run in the deleting transaction. */
+    public void record(String entity, String key) {
+        record(entity, key, Instant.now());
+    }
+
+    public void record(String entity, String key, Instant deletedAt) {
+        Tombstone tombstone = new Tombstone();
+        tombstone.entity = entity;
+        tombstone.key = key;
+        tombstone.deletedAt = deletedAt;
+        persist(tombstone);
+    }
+
+    /** Deletions of the given entity types recorded after {@code since}, oldest first. */
+    public List<Tombstone> listSince(Instant since, Collection<String> entities) {
+        if (entities.isEmpty()) return List.of();
+        return list("deletedAt > ?1 and entity in ?2", Sort.by("deletedAt").and("id"), since, entities);
+    }
+}
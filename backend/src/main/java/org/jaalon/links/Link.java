@@ -6,11 +6,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
 import org.jaalon.tags.Tag;
 
 @Entity
@@ -31,12 +36,22 @@ public class Link extends PanacheEntity {
     @Size(max = 8000)
     public String summary;
 
-    // Optional Markdown content with no explicit size limit (stored as CLOB)
+    // Optional Markdown content with no explicit size limit (stored as CLOB).
+    // Loaded on access only and never serialized: clients read it from GET /api/links/{id}/content
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "CLOB")
+    @com.fasterxml.jackson.annotation.JsonIgnore
     public String content;
 
-    // Last time we updated the stored content/metadata in DB for this link
+    // SHA-256 (hex) of the UTF-8 content, null without content. Kept in sync by setContent; identifies
+    // the content in export archives (content/<hash>.md), so that it is exported and imported only once
+    @Size(max = 64)
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    public String contentHash;
+
+    // Last time we updated the stored content/metadata in DB for this link, refreshed on every change
+    // of its columns; also read by delta exports (?since=)
     @NotNull
     public Instant updatedAt = Instant.now();
 
@@ -44,8 +59,10 @@ public class Link extends PanacheEntity {
     @Enumerated(EnumType.STRING)
     public LinkStatus status = LinkStatus.TO_PROCESS;
 
-    // Many-to-many association: a link can belong to multiple TechWatch minutes
+    // Many-to-many association: a link can belong to multiple TechWatch minutes.
+    // Batch-initialized like tags, so updating the TechWatches of many links does not load them one by one
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(name = "link_techwatch",
             joinColumns = @JoinColumn(name = "link_id"),
             inverseJoinColumns = @JoinColumn(name = "techwatch_id"))
@@ -56,8 +73,10 @@ public class Link extends PanacheEntity {
     @NotNull
     public Instant date = Instant.now();
 
-    // Tags/categories associated to this link
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Tags/categories associated to this link. Lazy, and initialized for up to 100 links
+    // in a single query when one of them is accessed, so iterating a page or a batch costs one round trip
+    @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(name = "link_tag",
             joinColumns = @JoinColumn(name = "link_id"),
             inverseJoinColumns = @JoinColumn(name = "tag_id"))
@@ -68,4 +87,26 @@ public class Link extends PanacheEntity {
     public Instant getDiscoveredAt() {
         return date;
     }
+
+    // Panache routes every "link.content = ..." through this accessor, so the hash cannot go stale
+    public void setContent(String content) {
+        this.content = content;
+        this.contentHash = contentHash(content);
+    }
+
+    public static String contentHash(String content) {
+        if (content == null) return null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
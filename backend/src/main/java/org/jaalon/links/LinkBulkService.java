@@ -0,0 +1,68 @@
+package org.jaalon.links;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import org.jaalon.links.dto.LinkBulkReport;
+import org.jaalon.links.dto.LinkBulkUpdateDTO;
+import org.jaalon.tags.Tag;
+import org.jaalon.tags.TagRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Status and tag changes applied to many links in one request. The selection is resolved to ids with one
+ * query, then each change is a few set-based statements per chunk of ids, whatever the number of links;
+ * no link entity is loaded.
+ */
+@ApplicationScoped
+public class LinkBulkService {
+
+    @Inject
+    LinkRepository repository;
+
+    @Inject
+    TagRepository tagRepository;
+
+    @Transactional
+    public LinkBulkReport apply(LinkBulkUpdateDTO dto) {
+        if (dto == null) throw new BadRequestException("Request body is required");
+        List<Long> ids = select(dto);
+        if (ids.isEmpty()) return new LinkBulkReport(0, 0, 0, 0);
+
+        int statusChanged = dto.setStatus != null ? repository.updateStatus(ids, dto.setStatus) : 0;
+        int tagsAdded = 0;
+        if (dto.addTags != null && !dto.addTags.isEmpty()) {
+            List<Long> tagIds = new ArrayList<>();
+            for (Tag tag : tagRepository.findOrCreateByNormalizedNames(dto.addTags).values()) tagIds.add(tag.id);
+            // New tags must be inserted before the link_tag rows referencing them
+            tagRepository.flush();
+            tagsAdded = repository.addTags(ids, tagIds);
+        }
+        int tagsRemoved = 0;
+        if (dto.removeTags != null && !dto.removeTags.isEmpty()) {
+            List<Long> tagIds = tagRepository.findIdsByNormalizedNames(dto.removeTags);
+            if (!tagIds.isEmpty()) tagsRemoved = repository.removeTags(ids, tagIds);
+        }
+        return new LinkBulkReport(ids.size(), statusChanged, tagsAdded, tagsRemoved);
+    }
+
+    private List<Long> select(LinkBulkUpdateDTO dto) {
+        if (dto.ids != null && !dto.ids.isEmpty()) {
+            return repository.existingIds(dto.ids);
+        }
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (dto.status != null) {
+            where.add("l.status = :status");
+            params.put("status", dto.status);
+        }
+        if (Boolean.TRUE.equals(dto.withoutTw)) where.add("l.techWatches is empty");
+        if (where.isEmpty()) throw new BadRequestException("ids, status or withoutTw is required");
+        return repository.listIds(String.join(" and ", where), params);
+    }
+}
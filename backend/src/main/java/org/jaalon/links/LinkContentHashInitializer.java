@@ -0,0 +1,40 @@
+package org.jaalon.links;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Computes the content hash of links stored before the hash existed. Uses bulk updates, which skip the
+ * entity callbacks, so that backfilling does not change updatedAt and make every link part of the next
+ * delta export.
+ */
+@ApplicationScoped
+public class LinkContentHashInitializer {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Inject
+    LinkRepository repository;
+
+    void onStart(@Observes StartupEvent ev) {
+        int hashed = 0;
+        while (true) {
+            int count = QuarkusTransaction.requiringNew().call(() -> {
+                List<Object[]> rows = repository.listUnhashedContents(BATCH_SIZE);
+                for (Object[] row : rows) {
+                    repository.update("contentHash = ?1 where id = ?2", Link.contentHash((String) row[1]), row[0]);
+                }
+                return rows.size();
+            });
+            hashed += count;
+            if (count < BATCH_SIZE) break;
+        }
+        if (hashed > 0) Log.infof("Computed the content hash of %d links", hashed);
+    }
+}
@@ -0,0 +1,83 @@
+package org.jaalon.links;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.BadRequestException;
+import org.jaalon.links.dto.LinkListItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a link listing for keyset pagination.
+ * <p>
+ * A cursor remembers the sort key and the (value, id) pair of the last link returned, so the next page
+ * is fetched with an indexed range condition instead of an OFFSET that grows with the page number.
+ * The id is the tie-breaker that makes the order total.
+ */
+record LinkCursor(String sort, Long id, String value) {
+
+    static final String DATE = "date";
+    static final String TITLE = "title";
+    static final String URL = "url";
+
+    /** Normalizes the public sort parameter to the column the cursor is keyed on. */
+    static String sortKey(String sortParam) {
+        if (sortParam == null || sortParam.isBlank() || sortParam.equalsIgnoreCase("date")) return DATE;
+        if (sortParam.equalsIgnoreCase("title")) return TITLE;
+        if (sortParam.equalsIgnoreCase("source") || sortParam.equalsIgnoreCase("url")) return URL;
+        throw new BadRequestException("Cursor pagination supports sort=date, title or url");
+    }
+
+    static Sort sort(String sortKey) {
+        return switch (sortKey) {
+            case DATE -> Sort.by("date", Sort.Direction.Descending).and("id", Sort.Direction.Descending);
+            case TITLE -> Sort.by("title", Sort.Direction.Ascending).and("id", Sort.Direction.Ascending);
+            default -> Sort.by("url", Sort.Direction.Ascending).and("id", Sort.Direction.Ascending);
+        };
+    }
+
+    static LinkCursor after(LinkListItemDTO link, String sortKey) {
+        String value = switch (sortKey) {
+            case DATE -> link.date.toString();
+            case TITLE -> link.title;
+            default -> link.url;
+        };
+        return new LinkCursor(sortKey, link.id, value);
+    }
+
+    static LinkCursor decode(String token, String expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) throw new IllegalArgumentException("malformed cursor");
+            LinkCursor cursor = new LinkCursor(parts[0], Long.parseLong(parts[1]), parts[2]);
+            if (!cursor.sort.equals(expectedSort)) {
+                throw new BadRequestException("Cursor was issued for sort=" + cursor.sort);
+            }
+            cursor.typedValue(); // validate
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sort + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Range condition on alias {@code l} selecting the links after this cursor; binds :cursorValue and :cursorId. */
+    String condition() {
+        return switch (sort) {
+            case DATE -> "(l.date < :cursorValue or (l.date = :cursorValue and l.id < :cursorId))";
+            case TITLE -> "(l.title > :cursorValue or (l.title = :cursorValue and l.id > :cursorId))";
+            default -> "(l.url > :cursorValue or (l.url = :cursorValue and l.id > :cursorId))";
+        };
+    }
+
+    Object typedValue() {
+        return DATE.equals(sort) ? Instant.parse(value) : value;
+    }
+}
@@ -1,8 +1,309 @@
 package org.jaalon.links;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
+import org.jaalon.links.dto.LinkDetailDTO;
+import org.jaalon.links.dto.LinkListItemDTO;
+import org.jaalon.links.dto.LinkTagDTO;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.jaalon.persistence.InClause.countInChunks;
+import static org.jaalon.persistence.InClause.inChunks;
 
 @ApplicationScoped
 public class LinkRepository implements PanacheRepository<Link> {
+
+    // Listing columns on alias "l"; content and summary are reduced to presence flags
+    private static final String ITEM_COLUMNS = "l.id, l.title, l.url, l.description, l.status, l.date, "
+            + "case when l.content is not null then true else false end, "
+            + "case when l.summary is not null then true else false end";
+
+    /**
+     * Listing rows matching an HQL condition written against alias {@code l} (null for all links),
+     * with their tags attached. Never reads the content column.
+     */
+    public List<LinkListItemDTO> listItems(String where, Map<String, Object> params, Sort sort, int first, int max) {
+        String hql = "select new " + LinkListItemDTO.class.getName() + "(" + ITEM_COLUMNS + ") from Link l"
+                + whereClause(where) + orderBy(sort);
+        TypedQuery<LinkListItemDTO> query = getEntityManager().createQuery(hql, LinkListItemDTO.class);
+        params.forEach(query::setParameter);
+        List<LinkListItemDTO> items = query.setFirstResult(first).setMaxResults(max).getResultList();
+        attachTags(items);
+        return items;
+    }
+
+    public long countItems(String where, Map<String, Object> params) {
+        TypedQuery<Long> query = getEntityManager().createQuery("select count(l) from Link l" + whereClause(where), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    public List<Long> listIds(String where, Map<String, Object> params) {
+        TypedQuery<Long> query = getEntityManager().createQuery("select l.id from Link l" + whereClause(where), Long.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    public List<Long> listIds(String where, Map<String, Object> params, Sort sort) {
+        return listIds(where, params, sort, Integer.MAX_VALUE);
+    }
+
+    public List<Long> listIds(String where, Map<String, Object> params, Sort sort, int max) {
+        return listIds(where, params, sort, 0, max);
+    }
+
+    public List<Long> listIds(String where, Map<String, Object> params, Sort sort, int first, int max) {
+        TypedQuery<Long> query = getEntityManager().createQuery(
+                "select l.id from Link l" + whereClause(where) + orderBy(sort), Long.class);
+        params.forEach(query::setParameter);
+        return query.setFirstResult(first).setMaxResults(max).getResultList();
+    }
+
+    public List<LinkListItemDTO> listItemsOfTechWatch(long techwatchId) {
+        List<LinkListItemDTO> items = getEntityManager().createQuery(
+                        "select new " + LinkListItemDTO.class.getName() + "(" + ITEM_COLUMNS + ") "
+                                + "from Link l join l.techWatches t where t.id = :twId order by l.date desc",
+                        LinkListItemDTO.class)
+                .setParameter("twId", techwatchId)
+                .getResultList();
+        attachTags(items);
+        return items;
+    }
+
+    public LinkDetailDTO findDetail(Long id) {
+        List<LinkDetailDTO> found = getEntityManager().createQuery(
+                        "select new " + LinkDetailDTO.class.getName() + "(l.id, l.title, l.url, l.description, l.status, l.date, "
+                                + "case when l.content is not null then true else false end, l.summary, l.updatedAt) "
+                                + "from Link l where l.id = :id",
+                        LinkDetailDTO.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (found.isEmpty()) return null;
+        attachTags(found);
+        return found.get(0);
+    }
+
+    /**
+     * Links whose URL is in the given collection, keyed by URL, with their tags fetched in the same query.
+     * The IN list is split in chunks to stay within the database parameter limits.
+     */
+    public Map<String, Link> findByUrlsWithTags(Collection<String> urls) {
+        return findByUrls("select distinct l from Link l left join fetch l.tags where l.url in :urls", urls);
+    }
+
+    /** Links whose URL is in the given collection, keyed by URL, in chunked IN queries. */
+    public Map<String, Link> findByUrls(Collection<String> urls) {
+        return findByUrls("select l from Link l where l.url in :urls", urls);
+    }
+
+    private Map<String, Link> findByUrls(String hql, Collection<String> urls) {
+        Map<String, Link> byUrl = new HashMap<>();
+        List<Link> found = inChunks(urls, chunk -> getEntityManager().createQuery(hql, Link.class)
+                .setParameter("urls", chunk)
+                .getResultList());
+        for (Link link : found) byUrl.put(link.url, link);
+        return byUrl;
+    }
+
+    /**
+     * URLs of the links attached to each of the given TechWatches, keyed by TechWatch id, read from the
+     * link_techwatch association in one grouped query per chunk of ids. TechWatches without links are absent.
+     */
+    public Map<Long, Set<String>> urlsByTechWatch(Collection<Long> techWatchIds) {
+        Map<Long, Set<String>> urls = new HashMap<>();
+        List<Object[]> rows = inChunks(techWatchIds, chunk -> getEntityManager().createQuery(
+                        "select t.id, l.url from Link l join l.techWatches t where t.id in :ids order by l.id",
+                        Object[].class)
+                .setParameter("ids", chunk)
+                .getResultList());
+        for (Object[] row : rows) {
+            urls.computeIfAbsent((Long) row[0], id -> new LinkedHashSet<>()).add((String) row[1]);
+        }
+        return urls;
+    }
+
+    /** The given ids that belong to an existing link, without duplicates, in chunked IN queries. */
+    public List<Long> existingIds(Collection<Long> ids) {
+        return inChunks(ids, chunk -> getEntityManager().createQuery("select l.id from Link l where l.id in :ids", Long.class)
+                .setParameter("ids", chunk)
+                .getResultList());
+    }
+
+    /** Status of each existing link among the given ids, keyed by id, in chunked IN queries. */
+    public Map<Long, LinkStatus> findStatuses(Collection<Long> ids) {
+        Map<Long, LinkStatus> statuses = new HashMap<>();
+        List<Object[]> rows = inChunks(ids, chunk -> getEntityManager().createQuery(
+                        "select l.id, l.status from Link l where l.id in :ids", Object[].class)
+                .setParameter("ids", chunk)
+                .getResultList());
+        for (Object[] row : rows) statuses.put((Long) row[0], (LinkStatus) row[1]);
+        return statuses;
+    }
+
+    /** Ids of the TechWatches each of the given links is attached to, keyed by link id; links without any are absent. */
+    public Map<Long, Set<Long>> techWatchIdsByLink(Collection<Long> ids) {
+        Map<Long, Set<Long>> techWatchIds = new HashMap<>();
+        List<Object[]> rows = inChunks(ids, chunk -> getEntityManager().createQuery(
+                        "select l.id, t.id from Link l join l.techWatches t where l.id in :ids", Object[].class)
+                .setParameter("ids", chunk)
+                .getResultList());
+        for (Object[] row : rows) techWatchIds.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        return techWatchIds;
+    }
+
+    /**
+     * Moves the given links from NEXT_TECHWATCH or TO_PROCESS to KEEP, as assigning a single link does.
+     * Bulk updates skip the entity callbacks, so updatedAt is set here.
+     */
+    public void keepAssigned(Collection<Long> ids) {
+        Instant now = Instant.now();
+        countInChunks(ids, chunk -> update("status = ?1, updatedAt = ?2 where id in ?3 and status in ?4",
+                LinkStatus.KEEP, now, chunk, List.of(LinkStatus.NEXT_TECHWATCH, LinkStatus.TO_PROCESS)));
+    }
+
+    // Bulk updates of a selection of links, in chunked set-based statements. They skip the entity callbacks,
+    // so updatedAt is set explicitly, and only on the links actually changed
+
+    /** Sets the status of the given links; returns the number of links that were in another status. */
+    public int updateStatus(List<Long> ids, LinkStatus status) {
+        Instant now = Instant.now();
+        return countInChunks(ids, chunk -> update("status = ?1, updatedAt = ?2 where id in ?3 and status <> ?1", status, now, chunk));
+    }
+
+    /** Attaches each tag to the given links that do not carry it yet; returns the number of associations added. */
+    public int addTags(List<Long> ids, Collection<Long> tagIds) {
+        Instant now = Instant.now();
+        String missing = "not exists (select 1 from link_tag lt where lt.link_id = l.id and lt.tag_id = :tagId)";
+        return countInChunks(ids, chunk -> {
+            int added = 0;
+            for (Long tagId : tagIds) {
+                getEntityManager().createNativeQuery(
+                                "update link l set updatedAt = :now where l.id in (:ids) and " + missing)
+                        .setParameter("now", now)
+                        .setParameter("ids", chunk)
+                        .setParameter("tagId", tagId)
+                        .executeUpdate();
+                added += getEntityManager().createNativeQuery(
+                                "insert into link_tag (link_id, tag_id) select l.id, :tagId from link l where l.id in (:ids) and " + missing)
+                        .setParameter("ids", chunk)
+                        .setParameter("tagId", tagId)
+                        .executeUpdate();
+            }
+            return added;
+        });
+    }
+
+    /** Detaches the tags from the given links; returns the number of associations removed. */
+    public int removeTags(List<Long> ids, Collection<Long> tagIds) {
+        Instant now = Instant.now();
+        return countInChunks(ids, chunk -> {
+            getEntityManager().createNativeQuery(
+                            "update link l set updatedAt = :now where l.id in (:ids) and exists "
+                                    + "(select 1 from link_tag lt where lt.link_id = l.id and lt.tag_id in (:tagIds))")
+                    .setParameter("now", now)
+                    .setParameter("ids", chunk)
+                    .setParameter("tagIds", tagIds)
+                    .executeUpdate();
+            return getEntityManager().createNativeQuery(
+                            "delete from link_tag where link_id in (:ids) and tag_id in (:tagIds)")
+                    .setParameter("ids", chunk)
+                    .setParameter("tagIds", tagIds)
+                    .executeUpdate();
+        });
+    }
+
+    /**
+     * Up to {@code size} links with an id greater than {@code afterId}, in id order, with their tags;
+     * only links updated after {@code since} when it is set.
+     * Ids are selected first so that the limit applies to links rather than to fetched tag rows.
+     */
+    public List<Link> listBatchWithTags(long afterId, int size, Instant since) {
+        TypedQuery<Long> idQuery = getEntityManager().createQuery(
+                        "select l.id from Link l where l.id > :afterId"
+                                + (since != null ? " and l.updatedAt > :since" : "") + " order by l.id", Long.class)
+                .setParameter("afterId", afterId);
+        if (since != null) idQuery.setParameter("since", since);
+        List<Long> ids = idQuery.setMaxResults(size).getResultList();
+        if (ids.isEmpty()) return List.of();
+        return getEntityManager().createQuery(
+                        "select distinct l from Link l left join fetch l.tags where l.id in :ids order by l.id", Link.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Up to {@code size} distinct contents with a hash greater than {@code afterHash}, keyed by hash in hash
+     * order; only contents of links updated after {@code since} when it is set. Links sharing a content
+     * yield a single entry, read from one of them.
+     */
+    public Map<String, String> listContentsAfter(String afterHash, int size, Instant since) {
+        TypedQuery<Object[]> hashQuery = getEntityManager().createQuery(
+                        "select l.contentHash, min(l.id) from Link l where l.contentHash > :afterHash"
+                                + (since != null ? " and l.updatedAt > :since" : "")
+                                + " group by l.contentHash order by l.contentHash", Object[].class)
+                .setParameter("afterHash", afterHash);
+        if (since != null) hashQuery.setParameter("since", since);
+        List<Object[]> hashes = hashQuery.setMaxResults(size).getResultList();
+        if (hashes.isEmpty()) return Map.of();
+        Map<Long, String> hashById = new HashMap<>();
+        for (Object[] row : hashes) hashById.put((Long) row[1], (String) row[0]);
+        Map<String, String> contents = new TreeMap<>();
+        List<Object[]> rows = getEntityManager().createQuery(
+                        "select l.id, l.content from Link l where l.id in :ids", Object[].class)
+                .setParameter("ids", hashById.keySet())
+                .getResultList();
+        for (Object[] row : rows) contents.put(hashById.get((Long) row[0]), (String) row[1]);
+        return contents;
+    }
+
+    /** Ids and contents of up to {@code size} links with content but no hash yet, in id order. */
+    public List<Object[]> listUnhashedContents(int size) {
+        return getEntityManager().createQuery(
+                        "select l.id, l.content from Link l where l.content is not null and l.contentHash is null order by l.id",
+                        Object[].class)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /** Markdown content of a link, empty string when none is stored; empty optional when the link does not exist. */
+    public Optional<String> findContent(Long id) {
+        List<String> found = getEntityManager().createQuery("select l.content from Link l where l.id = :id", String.class)
+                .setParameter("id", id)
+                .getResultList();
+        if (found.isEmpty()) return Optional.empty();
+        String content = found.get(0);
+        return Optional.of(content == null ? "" : content);
+    }
+
+    /** Loads the tags of all the given rows in a single query. */
+    public void attachTags(List<? extends LinkListItemDTO> items) {
+        if (items.isEmpty()) return;
+        Map<Long, LinkListItemDTO> byId = new HashMap<>();
+        for (LinkListItemDTO item : items) byId.put(item.id, item);
+        List<Object[]> rows = getEntityManager().createQuery(
+                        "select l.id, t.id, t.name from Link l join l.tags t where l.id in :ids order by t.name",
+                        Object[].class)
+                .setParameter("ids", byId.keySet())
+                .getResultList();
+        for (Object[] row : rows) {
+            byId.get((Long) row[0]).tags.add(new LinkTagDTO((Long) row[1], (String) row[2]));
+        }
+    }
+
+    private static String whereClause(String where) {
+        return where == null || where.isBlank() ? "" : " where " + where;
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort == null || sort.getColumns().isEmpty()) return "";
+        StringJoiner joiner = new StringJoiner(", ", " order by ", "");
+        for (Sort.Column column : sort.getColumns()) {
+            joiner.add("l." + column.getName() + (column.getDirection() == Sort.Direction.Descending ? " desc" : " asc"));
+        }
+        return joiner.toString();
+    }
 }
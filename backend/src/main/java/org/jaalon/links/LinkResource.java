@@ -1,30 +1,57 @@
 package org.jaalon.links;
 
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.logging.Log;
-import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jaalon.exchange.tombstones.TombstoneRepository;
+import org.jaalon.links.dto.LinkBulkReport;
+import org.jaalon.links.dto.LinkBulkUpdateDTO;
 import org.jaalon.links.dto.LinkCreateDTO;
+import org.jaalon.links.dto.LinkDetailDTO;
+import org.jaalon.links.dto.LinkIdsDTO;
+import org.jaalon.links.dto.LinkListItemDTO;
 import org.jaalon.links.dto.LinkUpdateDTO;
 import org.jaalon.links.dto.LinkUpsertContentDTO;
+import org.jaalon.links.search.LinkIndexEvent;
+import org.jaalon.links.search.LinkSearchIndex;
+import org.jaalon.links.search.TextAnalyzer;
+import org.jaalon.links.summary.LinkSummarizer;
+import org.jaalon.persistence.InClause;
 import org.jaalon.tags.Tag;
 import org.jaalon.tags.TagRepository;
+import org.jaalon.techwatch.BatchAssignmentReport;
+import org.jaalon.techwatch.TechWatchCache;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.jaalon.persistence.InClause.countInChunks;
+import static org.jaalon.persistence.InClause.inChunks;
 
 @Path("/api/links")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class LinkResource {
+    // Search hits bound in a single IN clause; broader searches scan the filtered links instead
+    private static final int MAX_BOUND_HITS = InClause.CHUNK_SIZE;
+    // Ids read per query when a broad search scans the filtered links
+    private static final int SCAN_BATCH = 1000;
+
     @Inject
     LinkRepository repository;
 
@@ -35,7 +62,22 @@ public class LinkResource {
     TagRepository tagRepository;
 
     @Inject
-    SummarizationService summarizationService;
+    LinkSummarizer linkSummarizer;
+
+    @Inject
+    LinkSearchIndex searchIndex;
+
+    @Inject
+    Event<LinkIndexEvent> linkIndexEvents;
+
+    @Inject
+    TombstoneRepository tombstoneRepository;
+
+    @Inject
+    LinkBulkService linkBulkService;
+
+    @Inject
+    TechWatchCache techWatchCache;
 
     @GET
     public Response list(@QueryParam("status") String status,
@@ -43,52 +85,196 @@ public class LinkResource {
                          @QueryParam("page") @DefaultValue("0") int page,
                          @QueryParam("size") @DefaultValue("20") int size,
                          @QueryParam("sort") @DefaultValue("date") String sortParam,
-                         @QueryParam("withoutTw") @DefaultValue("false") boolean withoutTw) {
-        PanacheQuery<Link> query;
+                         @QueryParam("withoutTw") @DefaultValue("false") boolean withoutTw,
+                         @QueryParam("cursor") String cursor,
+                         @QueryParam("count") Boolean count) {
         Sort sort = mapSort(sortParam);
+        // Keyset mode is selected by the presence of "cursor" (empty for the first page); it skips the count unless asked
+        boolean cursorMode = cursor != null;
+        boolean withCount = count != null ? count : !cursorMode;
         boolean hasStatus = status != null && !status.isBlank();
         boolean hasQuery = q != null && !q.isBlank();
 
-        if (hasStatus && hasQuery) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (hasStatus) {
             LinkStatus st;
             try {
                 st = LinkStatus.valueOf(status);
             } catch (IllegalArgumentException e) {
                 throw new BadRequestException("Invalid status value");
             }
-            // Case-insensitive search on title or description
-            String like = "%" + q.toLowerCase() + "%";
-            String where = "status = ?1 and (lower(title) like ?2 or lower(description) like ?2)";
-            if (withoutTw) where += " and techWatches is empty";
-            query = repository.find(where, sort, st, like);
-        } else if (hasStatus) {
-            LinkStatus st;
-            try {
-                st = LinkStatus.valueOf(status);
-            } catch (IllegalArgumentException e) {
-                throw new BadRequestException("Invalid status value");
+            where.add("l.status = :status");
+            params.put("status", st);
+        }
+        if (withoutTw) where.add("l.techWatches is empty");
+
+        // Full-text search: the index gives every matching link, the database applies the other filters and the order.
+        // A query made of stop words only has nothing to look up in the index: it falls back to a substring search
+        boolean indexed = hasQuery && !TextAnalyzer.tokens(q).isEmpty();
+        if (hasQuery && !indexed) {
+            where.add("(lower(l.title) like :like or lower(l.description) like :like)");
+            params.put("like", "%" + q.trim().toLowerCase(Locale.ROOT) + "%");
+            if (sort == null) {
+                sortParam = "date";
+                sort = mapSort(sortParam);
             }
-            String where = "status = ?1";
-            if (withoutTw) where += " and techWatches is empty";
-            query = repository.find(where, sort, st);
-        } else if (hasQuery) {
-            String like = "%" + q.toLowerCase() + "%";
-            String where = "(lower(title) like ?1 or lower(description) like ?1)";
-            if (withoutTw) where += " and techWatches is empty";
-            query = repository.find(where, sort, like);
+        }
+        List<LinkSearchIndex.Hit> hits = indexed ? searchIndex.search(q) : List.of();
+        if (indexed && hits.isEmpty()) {
+            Response.ResponseBuilder empty = Response.ok(List.of());
+            return withCount ? empty.header("X-Total-Count", 0).build() : empty.build();
+        }
+
+        if (sort == null) {
+            if (!indexed) throw new BadRequestException("sort=relevance requires a search query");
+            if (cursorMode) throw new BadRequestException("Cursor pagination is not available with sort=relevance");
+            return listByRelevance(hits, where, params, page, size, withCount);
+        }
+        if (indexed) {
+            List<Long> hitIds = hits.stream().map(LinkSearchIndex.Hit::id).toList();
+            if (hitIds.size() > MAX_BOUND_HITS) {
+                return listSearchHits(hitIds, where, params, sortParam, cursor, page, size, withCount);
+            }
+            // Few enough hits for one IN clause: the database filters, sorts and pages them like any other list
+            where.add("l.id in :hitIds");
+            params.put("hitIds", hitIds);
+        }
+        if (cursorMode) {
+            return listByCursor(where, params, LinkCursor.sortKey(sortParam), cursor, size, withCount);
+        }
+        String condition = String.join(" and ", where);
+        List<LinkListItemDTO> list = repository.listItems(condition, params, sort, page * size, size);
+        Response.ResponseBuilder response = Response.ok(list);
+        if (withCount) response.header("X-Total-Count", repository.countItems(condition, params));
+        return response.build();
+    }
+
+    /**
+     * Results of a broad search in a column order, offset or keyset paginated. The ids of the filtered links are
+     * read in order by batches (after the cursor in keyset mode) and intersected with the index matches until the
+     * page is complete; the total is counted over the hits, so neither reads the whole table.
+     */
+    private Response listSearchHits(List<Long> hitIds, List<String> where, Map<String, Object> params,
+                                    String sortParam, String cursorToken, int page, int size, boolean withCount) {
+        Set<Long> matches = new HashSet<>(hitIds);
+        String sortKey = LinkCursor.sortKey(sortParam);
+        Response.ResponseBuilder response;
+        if (cursorToken == null) {
+            List<Long> ordered = scanMatches(String.join(" and ", where), params, LinkCursor.sort(sortKey), matches,
+                    (page + 1) * size);
+            response = Response.ok(itemsInOrder(ordered.subList(Math.min(page * size, ordered.size()), ordered.size())));
         } else {
-            if (withoutTw) {
-                query = repository.find("techWatches is empty", sort);
-            } else {
-                query = repository.findAll(sort);
+            List<String> keysetWhere = new ArrayList<>(where);
+            Map<String, Object> keysetParams = new HashMap<>(params);
+            if (!cursorToken.isBlank()) {
+                LinkCursor after = LinkCursor.decode(cursorToken, sortKey);
+                keysetWhere.add(after.condition());
+                keysetParams.put("cursorValue", after.typedValue());
+                keysetParams.put("cursorId", after.id());
             }
+            // One extra match tells whether another page exists
+            List<Long> ordered = scanMatches(String.join(" and ", keysetWhere), keysetParams, LinkCursor.sort(sortKey),
+                    matches, size + 1);
+            List<LinkListItemDTO> list = itemsInOrder(ordered.subList(0, Math.min(size, ordered.size())));
+            response = Response.ok(list);
+            if (ordered.size() > size && !list.isEmpty()) {
+                response.header("X-Next-Cursor", LinkCursor.after(list.get(list.size() - 1), sortKey).encode());
+            }
+        }
+        if (withCount) {
+            String condition = hitCondition(where);
+            response.header("X-Total-Count", countInChunks(hitIds,
+                    chunk -> (int) repository.countItems(condition, hitParams(params, chunk))));
+        }
+        return response.build();
+    }
+
+    // The first matches in the order of the filtered links, whose ids are read by batches until enough are found
+    private List<Long> scanMatches(String where, Map<String, Object> params, Sort sort, Set<Long> matches, int wanted) {
+        List<Long> found = new ArrayList<>();
+        for (int first = 0; found.size() < wanted; first += SCAN_BATCH) {
+            List<Long> ids = repository.listIds(where, params, sort, first, SCAN_BATCH);
+            for (Long id : ids) {
+                if (found.size() < wanted && matches.contains(id)) found.add(id);
+            }
+            if (ids.size() < SCAN_BATCH) break;
+        }
+        return found;
+    }
+
+    // The filters plus the hits of one IN chunk
+    private static String hitCondition(List<String> where) {
+        List<String> all = new ArrayList<>(where);
+        all.add("l.id in :hitIds");
+        return String.join(" and ", all);
+    }
+
+    private static Map<String, Object> hitParams(Map<String, Object> params, List<Long> hitIds) {
+        Map<String, Object> all = new HashMap<>(params);
+        all.put("hitIds", hitIds);
+        return all;
+    }
+
+    // List items of the given links, in the order of the ids
+    private List<LinkListItemDTO> itemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, LinkListItemDTO> byId = new HashMap<>();
+        for (LinkListItemDTO item : repository.listItems("l.id in :ids", Map.of("ids", ids), null, 0, ids.size())) {
+            byId.put(item.id, item);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Keyset pagination: fetches the links after the cursor with a range condition on (sort column, id)
+     * and returns the position of the last one in X-Next-Cursor, absent on the last page.
+     */
+    private Response listByCursor(List<String> where, Map<String, Object> params, String sortKey,
+                                  String cursorToken, int size, boolean withCount) {
+        List<String> keysetWhere = new ArrayList<>(where);
+        Map<String, Object> keysetParams = new HashMap<>(params);
+        if (!cursorToken.isBlank()) {
+            LinkCursor after = LinkCursor.decode(cursorToken, sortKey);
+            keysetWhere.add(after.condition());
+            keysetParams.put("cursorValue", after.typedValue());
+            keysetParams.put("cursorId", after.id());
         }
-        query.page(Page.of(page, size));
-        List<Link> list = query.list();
-        return Response.ok(list).header("X-Total-Count", query.count()).build();
+        // One extra row tells whether another page exists
+        List<LinkListItemDTO> list = repository.listItems(String.join(" and ", keysetWhere), keysetParams,
+                LinkCursor.sort(sortKey), 0, size + 1);
+        boolean hasMore = list.size() > size;
+        if (hasMore) list = list.subList(0, size);
+
+        Response.ResponseBuilder response = Response.ok(list);
+        if (hasMore) {
+            response.header("X-Next-Cursor", LinkCursor.after(list.get(list.size() - 1), sortKey).encode());
+        }
+        if (withCount) {
+            response.header("X-Total-Count", repository.countItems(String.join(" and ", where), params));
+        }
+        return response.build();
+    }
+
+    // The hits passing the filters are read in chunked IN queries, so the work is bounded by the hits, not the table
+    private Response listByRelevance(List<LinkSearchIndex.Hit> hits, List<String> where, Map<String, Object> params,
+                                     int page, int size, boolean withCount) {
+        String condition = hitCondition(where);
+        Set<Long> filtered = new HashSet<>(inChunks(hits.stream().map(LinkSearchIndex.Hit::id).toList(),
+                chunk -> repository.listIds(condition, hitParams(params, chunk))));
+        List<Long> ranked = hits.stream().map(LinkSearchIndex.Hit::id).filter(filtered::contains).toList();
+        int from = Math.min(page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        Response.ResponseBuilder response = Response.ok(itemsInOrder(ranked.subList(from, to)));
+        if (withCount) response.header("X-Total-Count", ranked.size());
+        return response.build();
     }
 
+    // Returns null for relevance ordering, which only the search index can provide
     private Sort mapSort(String sortParam) {
+        if (sortParam != null && sortParam.equalsIgnoreCase("relevance")) {
+            return null;
+        }
         if (sortParam == null || sortParam.isBlank() || sortParam.equalsIgnoreCase("date")) {
             return Sort.by("date").descending();
         }
@@ -103,8 +289,8 @@ public class LinkResource {
 
     @GET
     @Path("/{id}")
-    public Link get(@PathParam("id") Long id) {
-        Link link = repository.findById(id);
+    public LinkDetailDTO get(@PathParam("id") Long id) {
+        LinkDetailDTO link = repository.findDetail(id);
         if (link == null) throw new NotFoundException();
         return link;
     }
@@ -112,21 +298,14 @@ public class LinkResource {
     /**
      * Returns whether the given link already belongs to any ACTIVE TechWatch.
      * This avoids ambiguous client-side flags like inActiveTw/inActive/etc.
+     * Answered from the link ids of the active TechWatch held by {@link TechWatchCache}.
      */
     @GET
     @Path("/{id}/in-active-techwatch")
     public java.util.Map<String, Object> isInActiveTechWatch(@PathParam("id") Long id) {
-        Link link = repository.findById(id);
-        if (link == null) throw new NotFoundException();
-        var em = repository.getEntityManager();
-        Long count = em.createQuery(
-                "select count(l) from Link l join l.techWatches t where l.id = :id and t.status = :status",
-                Long.class)
-            .setParameter("id", id)
-            .setParameter("status", org.jaalon.techwatch.TechWatchStatus.ACTIVE)
-            .getSingleResult();
-        boolean inActive = count != null && count > 0L;
-        return java.util.Map.of("inActiveTechWatch", inActive);
+        if (techWatchCache.isInActive(id)) return java.util.Map.of("inActiveTechWatch", true);
+        if (repository.findById(id) == null) throw new NotFoundException();
+        return java.util.Map.of("inActiveTechWatch", false);
     }
 
     /** Returns whether the given link belongs to any TechWatch (regardless of status). */
@@ -163,7 +342,8 @@ public class LinkResource {
         link.status = LinkStatus.TO_PROCESS;
         link.date = Instant.now();
         repository.persist(link);
-        return Response.created(URI.create("/api/links/" + link.id)).entity(link).build();
+        linkIndexEvents.fire(LinkIndexEvent.indexed(link));
+        return Response.created(URI.create("/api/links/" + link.id)).entity(repository.findDetail(link.id)).build();
     }
 
     // Upsert by URL and optional content with lastModified comparison
@@ -205,9 +385,10 @@ public class LinkResource {
                 link.date = Instant.now();
                 link.updatedAt = Instant.now();
                 repository.persist(link);
-                return Response.created(URI.create("/api/links/" + link.id)).entity(link).build();
+                linkIndexEvents.fire(LinkIndexEvent.indexed(link));
+                return Response.created(URI.create("/api/links/" + link.id)).entity(repository.findDetail(link.id)).build();
             }
-            return Response.ok(link).build();
+            return Response.ok(repository.findDetail(link.id)).build();
         }
 
         Link link = repository.find("url = ?1", dto.url).firstResult();
@@ -228,69 +409,78 @@ public class LinkResource {
         boolean shouldUpdateContent = isNew || dto.lastModified == null || link.updatedAt == null || dto.lastModified.isAfter(link.updatedAt);
         Log.infof("Should update content: %s", shouldUpdateContent);
         // If client provides no content, we won't touch existing content
-        if (shouldUpdateContent && dto.content != null) {
+        boolean contentUpdated = shouldUpdateContent && dto.content != null;
+        if (contentUpdated) {
             link.content = dto.content;
             link.updatedAt = Instant.now();
         }
 
+        // Content is loaded lazily: only log what was actually written
         Log.infof("Will save link: %s",
-                String.format("url='%s', title='%s', description='%s', content=%s, lastModified=%s",
+                String.format("url='%s', title='%s', description='%s', contentUpdated=%s, lastModified=%s",
                         link.url, link.title, link.description,
-                        link.content,
+                        contentUpdated,
                         link.updatedAt));
 
         if (isNew) {
             repository.persist(link);
-            return Response.created(URI.create("/api/links/" + link.id)).entity(link).build();
+            linkIndexEvents.fire(contentUpdated ? LinkIndexEvent.indexedWithContent(link) : LinkIndexEvent.indexed(link));
+            return Response.created(URI.create("/api/links/" + link.id)).entity(repository.findDetail(link.id)).build();
         }
-        return Response.ok(link).build();
+        linkIndexEvents.fire(contentUpdated ? LinkIndexEvent.indexedWithContent(link) : LinkIndexEvent.indexed(link));
+        return Response.ok(repository.findDetail(link.id)).build();
     }
 
     @PUT
     @Path("/{id}")
     @Transactional
-    public Link update(@PathParam("id") Long id, @Valid LinkUpdateDTO dto) {
+    public LinkDetailDTO update(@PathParam("id") Long id, @Valid LinkUpdateDTO dto) {
         Link link = repository.findById(id);
         if (link == null) throw new NotFoundException();
         if (dto.title != null) link.title = dto.title;
-        if (dto.url != null) link.url = dto.url;
+        if (dto.url != null && !dto.url.equals(link.url)) {
+            // Other installations know the link by its former URL
+            tombstoneRepository.record("Link", link.url);
+            link.url = dto.url;
+        }
         if (dto.description != null) link.description = dto.description;
         if (dto.status != null) link.status = dto.status;
-        return link;
+        linkIndexEvents.fire(LinkIndexEvent.indexed(link));
+        return repository.findDetail(id);
     }
 
     @DELETE
     @Path("/{id}")
     @Transactional
     public Response delete(@PathParam("id") Long id) {
-        boolean deleted = repository.deleteById(id);
-        if (!deleted) throw new NotFoundException();
+        Link link = repository.findById(id);
+        if (link == null) throw new NotFoundException();
+        tombstoneRepository.record("Link", link.url);
+        techWatchService.releaseLink(link);
+        repository.delete(link);
+        linkIndexEvents.fire(LinkIndexEvent.removed(id));
         return Response.noContent().build();
     }
 
+    // Not transactional: the LLM call runs between two short transactions (see LinkSummarizer)
     @POST
     @Path("/{id}/summarize")
     @Consumes(MediaType.WILDCARD)
-    @Transactional
-    public Link summarize(@PathParam("id") Long id) {
-        Link link = repository.findById(id);
-        if (link == null) throw new NotFoundException();
-        // Use stored content instead of URL; error if content missing
-        if (link.content == null || link.content.isBlank()) {
-            throw new BadRequestException("Le contenu de ce lien n'est pas disponible en base. Veuillez d'abord enregistrer le contenu.");
-        }
-        link.summary = summarizationService.summarize(link.content);
-        return link;
+    public LinkDetailDTO summarize(@PathParam("id") Long id, @QueryParam("refresh") boolean refresh) {
+        // refresh=true bypasses the summary cache and asks the LLM again
+        linkSummarizer.summarize(id, refresh);
+        return repository.findDetail(id);
     }
 
     @DELETE
     @Path("/{id}/summary")
     @Transactional
-    public Link invalidateSummary(@PathParam("id") Long id) {
+    public LinkDetailDTO invalidateSummary(@PathParam("id") Long id) {
         Link link = repository.findById(id);
         if (link == null) throw new NotFoundException();
         link.summary = null;
-        return link;
+        linkIndexEvents.fire(LinkIndexEvent.indexed(link));
+        return repository.findDetail(id);
     }
 
     // --- Content management (Markdown) ---
@@ -298,20 +488,19 @@ public class LinkResource {
     @Path("/{id}/content")
     @Consumes(MediaType.TEXT_PLAIN)
     @Transactional
-    public Link setContent(@PathParam("id") Long id, String markdown) {
+    public LinkDetailDTO setContent(@PathParam("id") Long id, String markdown) {
         Link link = repository.findById(id);
         if (link == null) throw new NotFoundException();
         link.content = markdown; // may be null or large; stored as CLOB
-        return link;
+        linkIndexEvents.fire(LinkIndexEvent.indexedWithContent(link));
+        return repository.findDetail(id);
     }
 
     @GET
     @Path("/{id}/content")
     @Produces(MediaType.TEXT_PLAIN)
     public Response getContent(@PathParam("id") Long id) {
-        Link link = repository.findById(id);
-        if (link == null) throw new NotFoundException();
-        String body = link.content == null ? "" : link.content;
+        String body = repository.findContent(id).orElseThrow(NotFoundException::new);
         return Response.ok(body).type(MediaType.TEXT_PLAIN).build();
     }
 
@@ -324,40 +513,55 @@ public class LinkResource {
         return Response.ok(tw).build();
     }
 
+    /** Assigns many links at once; the report says which TechWatch each link landed in. */
+    @POST
+    @Path("/assign-next-batch")
+    @Transactional
+    public BatchAssignmentReport assignBatchToNext(@Valid LinkIdsDTO dto) {
+        return techWatchService.assignBatchToNext(dto != null ? dto.ids : null);
+    }
+
+    /** Changes the status and/or tags of many links, selected by ids or by a filter, in one request. */
+    @POST
+    @Path("/bulk")
+    public LinkBulkReport bulkUpdate(@Valid LinkBulkUpdateDTO dto) {
+        return linkBulkService.apply(dto);
+    }
+
     // --- Tag management on links ---
     public static class TagNameDTO { public String name; }
 
     @POST
     @Path("/{id}/tags")
     @Transactional
-    public Link addTag(@PathParam("id") Long id, TagNameDTO dto) {
+    public LinkDetailDTO addTag(@PathParam("id") Long id, TagNameDTO dto) {
         if (dto == null || dto.name == null || dto.name.isBlank()) {
             throw new BadRequestException("Tag name is required");
         }
         String name = dto.name.trim();
         Link link = repository.findById(id);
         if (link == null) throw new NotFoundException();
-        Tag tag = tagRepository.find("lower(name) = ?1", name.toLowerCase()).firstResult();
+        Tag tag = tagRepository.findByNormalizedName(name);
         if (tag == null) {
             tag = new Tag();
             tag.name = name;
             tagRepository.persist(tag);
         }
         link.tags.add(tag);
-        return link;
+        return repository.findDetail(id);
     }
 
     @DELETE
     @Path("/{id}/tags/{name}")
     @Transactional
-    public Link removeTag(@PathParam("id") Long id, @PathParam("name") String name) {
+    public LinkDetailDTO removeTag(@PathParam("id") Long id, @PathParam("name") String name) {
         if (name == null || name.isBlank()) throw new BadRequestException("Tag name is required");
         Link link = repository.findById(id);
         if (link == null) throw new NotFoundException();
-        Tag tag = tagRepository.find("lower(name) = ?1", name.toLowerCase()).firstResult();
+        Tag tag = tagRepository.findByNormalizedName(name);
         if (tag != null) {
             link.tags.remove(tag);
         }
-        return link;
+        return repository.findDetail(id);
     }
 }
@@ -1,20 +1,56 @@
 package org.jaalon.links;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jaalon.promptinstruction.PromptInstruction;
 import org.jaalon.promptinstruction.PromptInstructionRepository;
 import org.jaalon.llm.LlmClient;
 import org.jaalon.llm.LlmConfig;
 import org.jaalon.llm.LlmConfigRepository;
+import org.jaalon.llm.ProviderCallLimiter;
+import org.jaalon.links.summary.MarkdownChunker;
+import org.jaalon.links.summary.SummaryCache;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
+/**
+ * Builds summarization prompts and calls the LLM.
+ * <p>
+ * Content above {@code techwatch.summarize.chunking.max-prompt-tokens} is summarized with a map-reduce:
+ * it is split into Markdown chunks ({@link MarkdownChunker}), each chunk is summarized in parallel
+ * (map), then the partial summaries are merged into the final summary with the instruction (reduce).
+ * When the partial summaries together still exceed the prompt budget, consecutive ones are first
+ * merged by groups that fit, as many rounds as needed. Partial summaries are cached by content, so
+ * summarizing an edited article again only sends the chunks that changed.
+ * <p>
+ * Every completion call goes through {@link ProviderCallLimiter}, so chunk and streamed calls count against the
+ * same per-provider limit as batch and queued summaries.
+ */
 @ApplicationScoped
 public class SummarizationService {
 
     public static final String TYPE_SUMMARIZE = "summarize";
 
+    static final String MAP_PREAMBLE = "\n\nLe texte suivant est un extrait d'un article plus long : "
+            + "résume uniquement cet extrait, il sera fusionné avec les résumés des autres extraits.\n\n";
+    static final String REDUCE_PREAMBLE = "\n\nL'article étant trop long pour être traité d'un seul tenant, "
+            + "voici les résumés successifs de ses parties. Fusionne-les en un seul résumé de l'article.\n\n";
+    static final String MERGE_PREAMBLE = "\n\nVoici les résumés successifs de plusieurs parties consécutives d'un article "
+            + "plus long. Fusionne-les en un seul résumé de ces parties, il sera fusionné avec les résumés des autres parties.\n\n";
+    private static final String PARTIAL_SEPARATOR = "\n\n---\n\n";
+
     @Inject
     LlmConfigRepository llmConfigRepository;
 
@@ -24,7 +60,63 @@ public class SummarizationService {
     @Inject
     LlmClient llmClient;
 
+    @Inject
+    SummaryCache summaryCache;
+
+    @Inject
+    ProviderCallLimiter providerCallLimiter;
+
+    @ConfigProperty(name = "techwatch.summarize.chunking.max-prompt-tokens", defaultValue = "6000")
+    int maxPromptTokens;
+
+    @ConfigProperty(name = "techwatch.summarize.chunking.chunk-tokens", defaultValue = "3000")
+    int chunkTokens;
+
+    @ConfigProperty(name = "techwatch.summarize.chunking.parallelism", defaultValue = "4")
+    int chunkParallelism;
+
+    /**
+     * Everything needed to call the LLM for one summary, resolved from the database beforehand so
+     * that the (slow) call itself can run outside of any transaction. {@code chunks} is only set
+     * for content summarized with a map-reduce; {@code prompt} is then null.
+     */
+    public record SummarizationRequest(String baseUrl, String apiKey, String model, String instruction,
+                                       String prompt, List<String> chunks, String cacheKey) {
+        public boolean chunked() {
+            return chunks != null && !chunks.isEmpty();
+        }
+    }
+
     public String summarize(String content) {
+        return summarize(content, false);
+    }
+
+    /**
+     * Summarizes the content, reusing a cached summary of the same content, instruction and model
+     * unless {@code refresh} is set.
+     */
+    public String summarize(String content, boolean refresh) {
+        SummarizationRequest request = prepare(content);
+        if (!refresh) {
+            Optional<String> cached = cached(request);
+            if (cached.isPresent()) return cached.get();
+        }
+        String summary = execute(request);
+        remember(request, summary);
+        return summary;
+    }
+
+    /** Summary previously produced for the same request, if any. */
+    public Optional<String> cached(SummarizationRequest request) {
+        return summaryCache.get(request.cacheKey());
+    }
+
+    public void remember(SummarizationRequest request, String summary) {
+        summaryCache.put(request.cacheKey(), summary, request.model());
+    }
+
+    /** Reads the default LLM configuration and the summarize instruction and builds the prompt. */
+    public SummarizationRequest prepare(String content) {
         if (content == null || content.isBlank()) {
             throw new IllegalArgumentException("content is required");
         }
@@ -38,14 +130,134 @@ public class SummarizationService {
             throw new IllegalStateException("Summarize instruction not found");
         }
 
-        String prompt = promptInstruction.content.trim() + "\n\n" + content.trim();
-
         if (llmConfig.aiApiKey == null) {
             throw new IllegalStateException("LLM configuration has no associated API key");
         }
 
-        String summarizationResult = llmClient.generate(llmConfig.aiApiKey.baseUrl, llmConfig.aiApiKey.apiKey, llmConfig.model, prompt);
+        String instruction = promptInstruction.content.trim();
+        String text = content.trim();
+        List<String> chunks = MarkdownChunker.estimateTokens(text) > maxPromptTokens
+                ? MarkdownChunker.chunk(text, chunkTokens)
+                : List.of();
+        if (chunks.size() == 1) chunks = List.of();
+        String prompt = chunks.isEmpty() ? instruction + "\n\n" + text : null;
+
+        String cacheKey = SummaryCache.key(content, promptInstruction.content, llmConfig.model, llmConfig.aiApiKey.baseUrl);
+        return new SummarizationRequest(llmConfig.aiApiKey.baseUrl, llmConfig.aiApiKey.apiKey, llmConfig.model,
+                instruction, prompt, chunks, cacheKey);
+    }
+
+    /** Calls the LLM (map then reduce for chunked content); holds no transaction. */
+    public String execute(SummarizationRequest request) {
+        String prompt = request.chunked() ? reducePrompt(request) : request.prompt();
+        return normalize(generate(request, prompt));
+    }
+
+    /**
+     * Calls the LLM and emits the summary tokens as they arrive; holds no transaction. For chunked
+     * content the map step runs first on a worker thread and only the reduce step is streamed. The streamed
+     * call holds a provider permit until it ends, like any other completion call.
+     */
+    public Multi<String> stream(SummarizationRequest request) {
+        if (!request.chunked()) {
+            return streamPrompt(request, request.prompt());
+        }
+        return Uni.createFrom().item(() -> reducePrompt(request))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .onItem().transformToMulti(prompt -> streamPrompt(request, prompt));
+    }
+
+    private Multi<String> streamPrompt(SummarizationRequest request, String prompt) {
+        return providerCallLimiter.stream(request.baseUrl(),
+                () -> llmClient.stream(request.baseUrl(), request.apiKey(), request.model(), prompt));
+    }
+
+    /** Final summary of a completed stream, stored in the summary cache. */
+    public String complete(SummarizationRequest request, String generated) {
+        String summary = normalize(generated);
+        remember(request, summary);
+        return summary;
+    }
+
+    private String reducePrompt(SummarizationRequest request) {
+        List<String> partials = inParallel(request.chunks(), chunk -> summarizePart(request, MAP_PREAMBLE, chunk));
+        // Reduce hierarchically: merge groups of consecutive partials until they all fit in one prompt
+        int budget = maxPromptTokens - MarkdownChunker.estimateTokens(request.instruction() + REDUCE_PREAMBLE);
+        while (partials.size() > 1 && MarkdownChunker.estimateTokens(String.join(PARTIAL_SEPARATOR, partials)) > budget) {
+            partials = inParallel(groupPartials(partials, budget), group -> group.size() == 1
+                    ? group.getFirst()
+                    : summarizePart(request, MERGE_PREAMBLE, String.join(PARTIAL_SEPARATOR, group)));
+        }
+        return request.instruction() + REDUCE_PREAMBLE + String.join(PARTIAL_SEPARATOR, partials);
+    }
+
+    /**
+     * Consecutive partials packed into groups that fit in the budget. A group always takes at least two
+     * partials when there are two left, so each round shrinks the list even when single partials are large.
+     */
+    static List<List<String>> groupPartials(List<String> partials, int budget) {
+        int separatorTokens = MarkdownChunker.estimateTokens(PARTIAL_SEPARATOR);
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int groupTokens = 0;
+        for (String partial : partials) {
+            int tokens = MarkdownChunker.estimateTokens(partial);
+            if (group.size() >= 2 && groupTokens + separatorTokens + tokens > budget) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupTokens = 0;
+            }
+            groupTokens += (group.isEmpty() ? 0 : separatorTokens) + tokens;
+            group.add(partial);
+        }
+        if (!group.isEmpty()) groups.add(group);
+        return groups;
+    }
+
+    // One task per input, at most chunkParallelism at a time for this summary; results in input order
+    private <T> List<String> inParallel(List<T> inputs, Function<T, String> task) {
+        Semaphore permits = new Semaphore(Math.max(1, chunkParallelism));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (T input : inputs) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(input);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<String> results = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) results.add(future.get());
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Chunk summarization failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chunk summarization interrupted", e);
+        }
+    }
+
+    // Map step (a chunk) or intermediate merge (a group of partials), cached by text
+    private String summarizePart(SummarizationRequest request, String preamble, String text) {
+        // The key ignores the position so an unchanged chunk is found again after edits elsewhere
+        String key = SummaryCache.key(text, preamble + request.instruction(), request.model(), request.baseUrl());
+        Optional<String> cached = summaryCache.get(key);
+        if (cached.isPresent()) return cached.get();
+        String partial = normalize(generate(request, request.instruction() + preamble + text));
+        summaryCache.put(key, partial, request.model());
+        return partial;
+    }
+
+    private String generate(SummarizationRequest request, String prompt) {
+        return providerCallLimiter.call(request.baseUrl(),
+                () -> llmClient.generate(request.baseUrl(), request.apiKey(), request.model(), prompt));
+    }
 
+    private String normalize(String summarizationResult) {
         if (summarizationResult == null || summarizationResult.isBlank()) {
             throw new IllegalStateException("Empty response from LLM");
         }
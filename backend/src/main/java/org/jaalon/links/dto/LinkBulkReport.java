@@ -0,0 +1,5 @@
+package org.jaalon.links.dto;
+
+/** Outcome of a bulk update: selected links, links whose status changed, link/tag associations added and removed. */
+public record LinkBulkReport(int matched, int statusChanged, int tagsAdded, int tagsRemoved) {
+}
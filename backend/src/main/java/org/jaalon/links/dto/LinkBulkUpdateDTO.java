@@ -0,0 +1,30 @@
+package org.jaalon.links.dto;
+
+import jakarta.validation.constraints.Size;
+import org.jaalon.links.LinkStatus;
+
+import java.util.List;
+
+/**
+ * Changes applied at once to a selection of links: either an explicit id list, or a filter
+ * (current status, links in no TechWatch). At least one selection criterion is required.
+ */
+public class LinkBulkUpdateDTO {
+    // Explicit selection; when present the filter fields are ignored
+    @Size(max = 10000)
+    public List<Long> ids;
+
+    // Filter selection, same meaning as the query parameters of GET /api/links
+    public LinkStatus status;
+    public Boolean withoutTw;
+
+    // New status of the selected links; unchanged when null
+    public LinkStatus setStatus;
+
+    // Tags matched whatever their case; missing ones are created
+    @Size(max = 100)
+    public List<String> addTags;
+
+    @Size(max = 100)
+    public List<String> removeTags;
+}
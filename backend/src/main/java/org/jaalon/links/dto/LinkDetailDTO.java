@@ -0,0 +1,23 @@
+package org.jaalon.links.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.jaalon.links.LinkStatus;
+
+import java.time.Instant;
+
+/**
+ * Single link view: the listing fields plus the summary. The Markdown content is only served by
+ * GET /api/links/{id}/content.
+ */
+@RegisterForReflection
+public class LinkDetailDTO extends LinkListItemDTO {
+    public String summary;
+    public Instant updatedAt;
+
+    public LinkDetailDTO(Long id, String title, String url, String description, LinkStatus status,
+                         Instant date, Boolean hasContent, String summary, Instant updatedAt) {
+        super(id, title, url, description, status, date, hasContent, summary != null);
+        this.summary = summary;
+        this.updatedAt = updatedAt;
+    }
+}
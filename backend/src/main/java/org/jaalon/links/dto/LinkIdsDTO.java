@@ -0,0 +1,13 @@
+package org.jaalon.links.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** Selection of links for a bulk operation; duplicates are ignored. */
+public class LinkIdsDTO {
+    @NotEmpty
+    @Size(max = 10000)
+    public List<Long> ids;
+}
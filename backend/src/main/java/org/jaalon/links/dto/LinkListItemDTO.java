@@ -0,0 +1,44 @@
+package org.jaalon.links.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.jaalon.links.LinkStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight view of a link used by listings. Built by a constructor query so the CLOB content
+ * and the summary are never read; only their presence is reported.
+ */
+@RegisterForReflection
+public class LinkListItemDTO {
+    public Long id;
+    public String title;
+    public String url;
+    public String description;
+    public LinkStatus status;
+    public Instant date;
+    public boolean hasContent;
+    public boolean hasSummary;
+    public List<LinkTagDTO> tags = new ArrayList<>();
+
+    public LinkListItemDTO(Long id, String title, String url, String description, LinkStatus status,
+                           Instant date, Boolean hasContent, Boolean hasSummary) {
+        this.id = id;
+        this.title = title;
+        this.url = url;
+        this.description = description;
+        this.status = status;
+        this.date = date;
+        this.hasContent = Boolean.TRUE.equals(hasContent);
+        this.hasSummary = Boolean.TRUE.equals(hasSummary);
+    }
+
+    // Same JSON shape as the Link entity: discoveredAt mirrors the persisted 'date'
+    @JsonProperty("discoveredAt")
+    public Instant getDiscoveredAt() {
+        return date;
+    }
+}
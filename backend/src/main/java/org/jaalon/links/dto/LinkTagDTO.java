@@ -0,0 +1,3 @@
+package org.jaalon.links.dto;
+
+public record LinkTagDTO(Long id, String name) {}
@@ -0,0 +1,29 @@
+package org.jaalon.links.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.jaalon.links.LinkStatus;
+
+import java.util.List;
+
+/**
+ * Selection of the links to summarize in a batch: either an explicit id list, or a filter
+ * (status, only links without summary) applied to the links that have stored content.
+ */
+public class SummarizeBatchDTO {
+    // Explicit selection; when present the filter fields are ignored
+    public List<Long> ids;
+
+    public LinkStatus status;
+
+    // Skip links that already have a summary (default: false for an id list, true for a filter)
+    public Boolean onlyMissing;
+
+    // Ask the LLM again even when a cached summary of the same content exists
+    public Boolean refresh;
+
+    // Maximum number of links taken by a filter, newest first
+    @Min(1)
+    @Max(10000)
+    public Integer limit;
+}
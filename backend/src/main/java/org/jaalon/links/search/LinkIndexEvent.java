@@ -0,0 +1,29 @@
+package org.jaalon.links.search;
+
+import org.jaalon.links.Link;
+
+/**
+ * Fired whenever a link is created, modified or deleted so that {@link LinkSearchIndex} can follow.
+ * The searchable fields are copied at fire time: the index is only updated once the transaction
+ * commits, when the entity may already be detached.
+ * <p>
+ * Content is lazily loaded, so it is only carried when it was written ({@code contentChanged});
+ * otherwise the index keeps the content terms it already holds for the link.
+ */
+public record LinkIndexEvent(Long id, boolean removed, String title, String description,
+                             String summary, boolean contentChanged, String content) {
+
+    /** Metadata change (title, description, summary): does not touch the content column. */
+    public static LinkIndexEvent indexed(Link link) {
+        return new LinkIndexEvent(link.id, false, link.title, link.description, link.summary, false, null);
+    }
+
+    /** Change that wrote the content column. */
+    public static LinkIndexEvent indexedWithContent(Link link) {
+        return new LinkIndexEvent(link.id, false, link.title, link.description, link.summary, true, link.content);
+    }
+
+    public static LinkIndexEvent removed(Long id) {
+        return new LinkIndexEvent(id, true, null, null, null, false, null);
+    }
+}
@@ -0,0 +1,274 @@
+package org.jaalon.links.search;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jaalon.links.LinkRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over link title, description, summary and content.
+ * <p>
+ * Built from the database at startup, then kept up to date through {@link LinkIndexEvent}s which are
+ * applied once the writing transaction has committed. Results are ranked with BM25 using per-field
+ * weights; every query word must match (AND semantics) and words are also matched as prefixes so that
+ * search-as-you-type works on partial words.
+ * <p>
+ * The index is only a candidate generator: callers still filter the returned ids against the database,
+ * so a stale entry can never surface a deleted link.
+ */
+@ApplicationScoped
+public class LinkSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 2f;
+    private static final float SUMMARY_WEIGHT = 1.5f;
+    private static final float CONTENT_WEIGHT = 1f;
+    private static final double PREFIX_MATCH_FACTOR = 0.7;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    public record Hit(Long id, double score) {}
+
+    @Inject
+    LinkRepository linkRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (link id -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // link id -> (term -> weighted term frequency), used to unindex a document
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    // link id -> content terms alone, reused when only the metadata of a link changes
+    private final Map<Long, Map<String, Float>> contentTerms = new HashMap<>();
+    private final Map<Long, Float> lengths = new HashMap<>();
+    private double totalLength;
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        rebuild();
+    }
+
+    void onLinkChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) LinkIndexEvent event) {
+        if (event.id() == null) return;
+        if (event.removed()) {
+            remove(event.id());
+        } else if (event.contentChanged()) {
+            index(event.id(), event.title(), event.description(), event.summary(), event.content());
+        } else {
+            reindexMetadata(event.id(), event.title(), event.description(), event.summary());
+        }
+    }
+
+    /**
+     * Drops the whole index and reloads it from the database, one batch of links at a time.
+     * Must be called within a transaction.
+     */
+    public void rebuild() {
+        clear();
+        var em = linkRepository.getEntityManager();
+        long lastId = Long.MIN_VALUE;
+        int count = 0;
+        while (true) {
+            List<Object[]> rows = em.createQuery(
+                            "select l.id, l.title, l.description, l.summary, l.content from Link l where l.id > :lastId order by l.id",
+                            Object[].class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(REBUILD_BATCH_SIZE)
+                    .getResultList();
+            if (rows.isEmpty()) break;
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                index(lastId, (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            }
+            count += rows.size();
+            em.clear();
+        }
+        Log.infof("Search index built: %d links, %d terms", count, termCount());
+    }
+
+    public void index(Long id, String title, String description, String summary, String content) {
+        Map<String, Float> contentOnly = new HashMap<>();
+        addTerms(contentOnly, content, CONTENT_WEIGHT);
+        Map<String, Float> metadata = metadataTerms(title, description, summary);
+
+        lock.writeLock().lock();
+        try {
+            put(id, metadata, contentOnly);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Re-indexes the metadata of a link, keeping the content terms already indexed for it. */
+    public void reindexMetadata(Long id, String title, String description, String summary) {
+        Map<String, Float> metadata = metadataTerms(title, description, summary);
+
+        lock.writeLock().lock();
+        try {
+            put(id, metadata, contentTerms.getOrDefault(id, Map.of()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            contentTerms.clear();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns all the links matching every word of the query, best match first. Empty when the query
+     * only holds stop words: callers fall back to another search ({@link TextAnalyzer#tokens}).
+     */
+    public List<Hit> search(String query) {
+        List<String> tokens = TextAnalyzer.tokens(query);
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) return List.of();
+            double avgLength = totalLength / docCount;
+
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token, docCount, avgLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        e.setValue(e.getValue() + tokenScores.get(e.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                hits.add(new Hit(e.getKey(), e.getValue()));
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best BM25 score per document among the terms the token expands to (exact stem, then prefixes).
+    private Map<Long, Double> scoreToken(String token, int docCount, double avgLength) {
+        String stem = TextAnalyzer.stem(token);
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(stem)) expansions.put(stem, 1.0);
+        for (String prefix : new LinkedHashSet<>(List.of(stem, token))) {
+            for (String term : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_PREFIX_EXPANSIONS) break;
+                expansions.putIfAbsent(term, PREFIX_MATCH_FACTOR);
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+            Map<Long, Float> docs = postings.get(expansion.getKey());
+            double df = docs.size();
+            double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            for (Map.Entry<Long, Float> d : docs.entrySet()) {
+                double tf = d.getValue();
+                double norm = K1 * (1 - B + B * lengths.getOrDefault(d.getKey(), 0f) / avgLength);
+                double score = expansion.getValue() * idf * (tf * (K1 + 1)) / (tf + norm);
+                scores.merge(d.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // Caller holds the write lock
+    private void put(Long id, Map<String, Float> metadata, Map<String, Float> content) {
+        Map<String, Float> terms = new HashMap<>(metadata);
+        content.forEach((term, weight) -> terms.merge(term, weight, Float::sum));
+        float length = 0f;
+        for (float w : terms.values()) length += w;
+
+        unindex(id);
+        for (Map.Entry<String, Float> e : terms.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(id, e.getValue());
+        }
+        documents.put(id, terms);
+        if (!content.isEmpty()) contentTerms.put(id, content);
+        lengths.put(id, length);
+        totalLength += length;
+    }
+
+    private void unindex(Long id) {
+        contentTerms.remove(id);
+        Map<String, Float> previous = documents.remove(id);
+        if (previous == null) return;
+        for (String term : previous.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) postings.remove(term);
+            }
+        }
+        Float length = lengths.remove(id);
+        if (length != null) totalLength -= length;
+    }
+
+    private static Map<String, Float> metadataTerms(String title, String description, String summary) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, summary, SUMMARY_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.jaalon.links.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into index terms: lowercase, accent folding, stop words removal
+ * and a light French/English stemming so that "articles", "article" and "Articles"
+ * end up on the same term.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with",
+            // French (accents already folded)
+            "au", "aux", "ce", "ces", "d", "dans", "de", "des", "du", "en", "et", "est", "l", "la", "le",
+            "les", "mais", "ou", "par", "pour", "qu", "que", "qui", "sur", "un", "une"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /** Tokens of the given text after normalization, stop words removed but not stemmed. */
+    public static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        for (String raw : TOKEN_SEPARATOR.split(fold(text))) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw)) continue;
+            out.add(raw);
+        }
+        return out;
+    }
+
+    /** Index terms of the given text (normalized then stemmed). */
+    public static List<String> terms(String text) {
+        List<String> tokens = tokens(text);
+        List<String> out = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            out.add(stem(token));
+        }
+        return out;
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase();
+    }
+
+    /**
+     * Light stemmer covering the most frequent French and English inflections (plural, gender,
+     * adverbs, gerunds). It is deliberately conservative: a wrong merge costs more than a missed one.
+     */
+    static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH || !Character.isLetter(token.charAt(0))) {
+            return token;
+        }
+        String s = token;
+        // French
+        s = replaceSuffix(s, "issements", "");
+        s = replaceSuffix(s, "issement", "");
+        s = replaceSuffix(s, "ements", "");
+        s = replaceSuffix(s, "ement", "");
+        s = replaceSuffix(s, "euses", "eux");
+        s = replaceSuffix(s, "euse", "eux");
+        s = replaceSuffix(s, "eaux", "eau");
+        s = replaceSuffix(s, "aux", "al");
+        s = replaceSuffix(s, "ives", "if");
+        s = replaceSuffix(s, "ive", "if");
+        s = replaceSuffix(s, "elles", "el");
+        s = replaceSuffix(s, "elle", "el");
+        // English
+        s = replaceSuffix(s, "ies", "y");
+        s = replaceSuffix(s, "ing", "");
+        s = replaceSuffix(s, "edly", "");
+        s = replaceSuffix(s, "ed", "");
+        s = replaceSuffix(s, "ly", "");
+        // Plural marks shared by both languages
+        if (s.length() > MIN_STEM_LENGTH && (s.endsWith("s") || s.endsWith("x")) && !s.endsWith("ss")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        // Feminine/silent trailing 'e' (donnee/donne, cache/cach)
+        if (s.length() > MIN_STEM_LENGTH && s.endsWith("e")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s;
+    }
+
+    private static String replaceSuffix(String s, String suffix, String replacement) {
+        if (s.endsWith(suffix) && s.length() - suffix.length() + replacement.length() >= MIN_STEM_LENGTH) {
+            return s.substring(0, s.length() - suffix.length()) + replacement;
+        }
+        return s;
+    }
+}
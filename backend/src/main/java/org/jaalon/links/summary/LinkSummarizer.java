@@ -0,0 +1,78 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.jaalon.links.Link;
+import org.jaalon.links.LinkRepository;
+import org.jaalon.links.SummarizationService;
+import org.jaalon.links.SummarizationService.SummarizationRequest;
+import org.jaalon.links.search.LinkIndexEvent;
+
+/**
+ * Summarizes one stored link without holding a transaction during the LLM call: the content and
+ * prompt are read in a first short transaction, the model is called outside of any transaction,
+ * and the summary is written in a second short transaction.
+ * <p>
+ * Must not be called from within a transaction.
+ */
+@ApplicationScoped
+public class LinkSummarizer {
+
+    static final String NO_CONTENT_MESSAGE =
+            "Le contenu de ce lien n'est pas disponible en base. Veuillez d'abord enregistrer le contenu.";
+
+    /** Request for one link, with the cached summary when the same content was already summarized. */
+    public record Prepared(SummarizationRequest request, String cachedSummary) {}
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    SummarizationService summarizationService;
+
+    @Inject
+    Event<LinkIndexEvent> linkIndexEvents;
+
+    public String summarize(Long linkId, boolean refresh) {
+        String summary = generate(prepare(linkId, refresh));
+        save(linkId, summary);
+        return summary;
+    }
+
+    /**
+     * Reads the content of the link and builds the LLM request.
+     * Throws {@link NotFoundException} for an unknown link and {@link BadRequestException} when no content is stored.
+     */
+    public Prepared prepare(Long linkId, boolean refresh) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            String content = linkRepository.findContent(linkId).orElseThrow(NotFoundException::new);
+            if (content.isBlank()) throw new BadRequestException(NO_CONTENT_MESSAGE);
+            SummarizationRequest request = summarizationService.prepare(content);
+            String cached = refresh ? null : summarizationService.cached(request).orElse(null);
+            return new Prepared(request, cached);
+        });
+    }
+
+    /** Cached summary, or a new one from the LLM (then cached). */
+    public String generate(Prepared prepared) {
+        if (prepared.cachedSummary() != null) return prepared.cachedSummary();
+        String summary = summarizationService.execute(prepared.request());
+        summarizationService.remember(prepared.request(), summary);
+        return summary;
+    }
+
+    /** Stores the summary on the link; a link deleted meanwhile is ignored. Returns whether it was stored. */
+    public boolean save(Long linkId, String summary) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Link link = linkRepository.findById(linkId);
+            if (link == null) return false;
+            link.summary = summary;
+            linkIndexEvents.fire(LinkIndexEvent.indexed(link));
+            return true;
+        });
+    }
+}
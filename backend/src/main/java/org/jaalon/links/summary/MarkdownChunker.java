@@ -0,0 +1,112 @@
+package org.jaalon.links.summary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits Markdown into chunks that fit a token budget, cutting preferably at headings, then at
+ * paragraphs, then at sentence ends. Fenced code blocks are never split at their blank lines.
+ * <p>
+ * Tokens are estimated at four characters each, which is close enough for OpenAI-style tokenizers
+ * on English and French prose and needs no tokenizer dependency.
+ */
+public final class MarkdownChunker {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final Pattern HEADING = Pattern.compile("^#{1,6}\\s.*");
+    private static final String SEPARATOR = "\n\n";
+
+    private MarkdownChunker() {
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /** Chunks of at most {@code maxTokens} (estimated), in document order. */
+    public static List<String> chunk(String markdown, int maxTokens) {
+        if (markdown == null || markdown.isBlank()) return List.of();
+        int maxChars = Math.max(1, maxTokens) * CHARS_PER_TOKEN;
+        List<String> pieces = new ArrayList<>();
+        for (String section : splitBlocks(markdown, true)) {
+            if (section.length() <= maxChars) {
+                pieces.add(section);
+                continue;
+            }
+            for (String paragraph : splitBlocks(section, false)) {
+                if (paragraph.length() <= maxChars) {
+                    pieces.add(paragraph);
+                } else {
+                    pieces.addAll(splitSentences(paragraph, maxChars));
+                }
+            }
+        }
+        return pack(pieces, maxChars);
+    }
+
+    // Sections start at headings (byHeading) or paragraphs at blank lines, outside code fences
+    private static List<String> splitBlocks(String text, boolean byHeading) {
+        List<String> blocks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inFence = false;
+        for (String line : text.split("\n", -1)) {
+            boolean fence = line.strip().startsWith("```");
+            boolean boundary = !inFence && (byHeading ? HEADING.matcher(line).matches() : line.isBlank());
+            if (boundary) {
+                add(blocks, current);
+                if (byHeading) current.append(line).append('\n');
+            } else {
+                current.append(line).append('\n');
+            }
+            if (fence) inFence = !inFence;
+        }
+        add(blocks, current);
+        return blocks;
+    }
+
+    private static List<String> splitSentences(String paragraph, int maxChars) {
+        List<String> parts = new ArrayList<>();
+        String rest = paragraph;
+        while (rest.length() > maxChars) {
+            int cut = lastSentenceEnd(rest, maxChars);
+            parts.add(rest.substring(0, cut).strip());
+            rest = rest.substring(cut).strip();
+        }
+        if (!rest.isEmpty()) parts.add(rest);
+        return parts;
+    }
+
+    // Position right after the last ". ", "! ", "? " or newline within the limit, or the limit itself
+    private static int lastSentenceEnd(String text, int maxChars) {
+        for (int i = maxChars - 1; i > maxChars / 2; i--) {
+            char c = text.charAt(i);
+            if (c == '\n' || ((c == '.' || c == '!' || c == '?') && Character.isWhitespace(text.charAt(i + 1)))) {
+                return i + 1;
+            }
+        }
+        return maxChars;
+    }
+
+    // Greedily merges consecutive pieces while they fit the budget
+    private static List<String> pack(List<String> pieces, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String piece : pieces) {
+            if (current.length() > 0 && current.length() + SEPARATOR.length() + piece.length() > maxChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) current.append(SEPARATOR);
+            current.append(piece);
+        }
+        if (current.length() > 0) chunks.add(current.toString());
+        return chunks;
+    }
+
+    private static void add(List<String> blocks, StringBuilder current) {
+        String block = current.toString().strip();
+        if (!block.isEmpty()) blocks.add(block);
+        current.setLength(0);
+    }
+}
@@ -0,0 +1,49 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * A queued summarization of one link. Rows survive restarts: jobs left RUNNING by a stopped
+ * instance are put back to PENDING at startup.
+ */
+@Entity
+@Table(name = "summarization_job")
+public class SummarizationJob extends PanacheEntity {
+
+    @NotNull
+    @Column(name = "link_id", nullable = false)
+    public Long linkId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    public SummarizationJobStatus status = SummarizationJobStatus.PENDING;
+
+    // Bypass the summary cache
+    @Column(name = "refresh", nullable = false)
+    public boolean refresh;
+
+    @Column(name = "attempts", nullable = false)
+    public int attempts;
+
+    @Column(name = "error", length = 2000)
+    public String error;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    public Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    public Instant startedAt;
+
+    @Column(name = "finished_at")
+    public Instant finishedAt;
+
+    // A PENDING job retried after a failure is not picked up before this instant
+    @Column(name = "not_before")
+    public Instant notBefore;
+}
@@ -0,0 +1,42 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class SummarizationJobRepository implements PanacheRepository<SummarizationJob> {
+
+    /** Oldest pending jobs due by {@code now}, first candidates for a worker. */
+    public List<Long> nextPendingIds(int max, Instant now) {
+        return getEntityManager().createQuery(
+                        "select j.id from SummarizationJob j where j.status = :pending"
+                                + " and (j.notBefore is null or j.notBefore <= :now) order by j.id", Long.class)
+                .setParameter("pending", SummarizationJobStatus.PENDING)
+                .setParameter("now", now)
+                .setMaxResults(max)
+                .getResultList();
+    }
+
+    /**
+     * Atomically moves a job from PENDING to RUNNING. Returns false when another worker claimed it first.
+     */
+    public boolean claim(Long id) {
+        return update("status = ?1, startedAt = ?2, attempts = attempts + 1 where id = ?3 and status = ?4",
+                SummarizationJobStatus.RUNNING, Instant.now(), id, SummarizationJobStatus.PENDING) == 1;
+    }
+
+    /** Job of the link still waiting or running, if any. */
+    public Optional<SummarizationJob> findActive(Long linkId) {
+        return find("linkId = ?1 and status in ?2", linkId,
+                List.of(SummarizationJobStatus.PENDING, SummarizationJobStatus.RUNNING)).firstResultOptional();
+    }
+
+    /** Puts back the jobs interrupted by a shutdown; returns how many were requeued. */
+    public int requeueRunning() {
+        return update("status = ?1 where status = ?2", SummarizationJobStatus.PENDING, SummarizationJobStatus.RUNNING);
+    }
+}
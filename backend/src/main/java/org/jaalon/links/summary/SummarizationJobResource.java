@@ -0,0 +1,52 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.net.URI;
+import java.util.List;
+
+@Path("/api/summarization-jobs")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class SummarizationJobResource {
+
+    public static class SubmitDTO {
+        public Long linkId;
+        public boolean refresh;
+    }
+
+    @Inject
+    SummarizationQueue summarizationQueue;
+
+    @Inject
+    SummarizationJobRepository jobRepository;
+
+    /** Queues the summarization of a link; poll the returned job until it is DONE or FAILED. */
+    @POST
+    public Response submit(SubmitDTO dto) {
+        if (dto == null || dto.linkId == null) throw new BadRequestException("linkId is required");
+        SummarizationJob job = summarizationQueue.submit(dto.linkId, dto.refresh);
+        return Response.accepted(job).location(URI.create("/api/summarization-jobs/" + job.id)).build();
+    }
+
+    @GET
+    @Path("/{jobId}")
+    public SummarizationJob get(@PathParam("jobId") Long jobId) {
+        SummarizationJob job = jobRepository.findById(jobId);
+        if (job == null) throw new NotFoundException();
+        return job;
+    }
+
+    /** Jobs of a link (newest first), or the jobs with the given status. */
+    @GET
+    public List<SummarizationJob> list(@QueryParam("linkId") Long linkId, @QueryParam("status") SummarizationJobStatus status) {
+        Sort sort = Sort.by("id", Sort.Direction.Descending);
+        if (linkId != null) return jobRepository.find("linkId", sort, linkId).page(0, 50).list();
+        if (status != null) return jobRepository.find("status", sort, status).page(0, 50).list();
+        return jobRepository.findAll(sort).page(0, 50).list();
+    }
+}
@@ -0,0 +1,8 @@
+package org.jaalon.links.summary;
+
+public enum SummarizationJobStatus {
+    PENDING,   // Waiting for a worker
+    RUNNING,   // Claimed by a worker
+    DONE,      // Summary stored on the link
+    FAILED     // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,169 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jaalon.links.LinkRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent summarization queue backed by the {@code summarization_job} table.
+ * <p>
+ * Workers are virtual threads started with the application. Each one claims the oldest PENDING job
+ * with a conditional update, summarizes the link through {@link LinkSummarizer} (no transaction is
+ * held during the LLM call) and records the outcome. Failed jobs are retried up to
+ * {@code techwatch.summarize.queue.max-attempts} times, each retry waiting twice as long as the previous one
+ * (from {@code retry-delay} up to {@code retry-max-delay}) so a failing provider is not hammered. Submitting a job wakes the workers; otherwise
+ * they poll the table every {@code techwatch.summarize.queue.poll-interval}.
+ */
+@ApplicationScoped
+public class SummarizationQueue {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Inject
+    SummarizationJobRepository jobRepository;
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    LinkSummarizer linkSummarizer;
+
+    @ConfigProperty(name = "techwatch.summarize.queue.workers", defaultValue = "2")
+    int workerCount;
+
+    @ConfigProperty(name = "techwatch.summarize.queue.max-attempts", defaultValue = "3")
+    int maxAttempts;
+
+    @ConfigProperty(name = "techwatch.summarize.queue.poll-interval", defaultValue = "2s")
+    Duration pollInterval;
+
+    @ConfigProperty(name = "techwatch.summarize.queue.retry-delay", defaultValue = "30s")
+    Duration retryDelay;
+
+    @ConfigProperty(name = "techwatch.summarize.queue.retry-max-delay", defaultValue = "10m")
+    Duration retryMaxDelay;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent ev) {
+        int requeued = QuarkusTransaction.requiringNew().call(() -> jobRepository.requeueRunning());
+        if (requeued > 0) Log.infof("Requeued %d summarization jobs interrupted by the last shutdown", requeued);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("summarization-worker-" + i).start(this::work));
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues the summarization of a link. A link already waiting or being summarized is not queued twice:
+     * its current job is returned.
+     */
+    public SummarizationJob submit(Long linkId, boolean refresh) {
+        SummarizationJob job = QuarkusTransaction.requiringNew().call(() -> {
+            String content = linkRepository.findContent(linkId).orElseThrow(NotFoundException::new);
+            if (content.isBlank()) throw new BadRequestException(LinkSummarizer.NO_CONTENT_MESSAGE);
+            return jobRepository.findActive(linkId).orElseGet(() -> {
+                SummarizationJob created = new SummarizationJob();
+                created.linkId = linkId;
+                created.refresh = refresh;
+                jobRepository.persist(created);
+                return created;
+            });
+        });
+        wakeUp.release(workerCount);
+        return job;
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                if (!processNext()) {
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Database unavailable or similar: keep the worker alive and try again later
+                Log.warn("Summarization worker error", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Claims and runs one job; returns false when the queue is empty. */
+    boolean processNext() {
+        List<Long> candidates = QuarkusTransaction.requiringNew().call(() -> jobRepository.nextPendingIds(workerCount, Instant.now()));
+        for (Long jobId : candidates) {
+            if (QuarkusTransaction.requiringNew().call(() -> jobRepository.claim(jobId))) {
+                run(jobId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run(Long jobId) {
+        SummarizationJob job = QuarkusTransaction.requiringNew().call(() -> jobRepository.findById(jobId));
+        try {
+            String summary = linkSummarizer.generate(linkSummarizer.prepare(job.linkId, job.refresh));
+            boolean stored = linkSummarizer.save(job.linkId, summary);
+            finish(jobId, stored ? SummarizationJobStatus.DONE : SummarizationJobStatus.FAILED, stored ? null : "Link was deleted", null);
+        } catch (NotFoundException | BadRequestException e) {
+            // Link deleted or content removed since submission: retrying cannot help
+            finish(jobId, SummarizationJobStatus.FAILED, e.getMessage(), null);
+        } catch (Exception e) {
+            Log.warnf(e, "Summarization job %d (link %d) failed, attempt %d/%d", jobId, job.linkId, job.attempts, maxAttempts);
+            if (job.attempts >= maxAttempts) {
+                finish(jobId, SummarizationJobStatus.FAILED, e.getMessage(), null);
+            } else {
+                finish(jobId, SummarizationJobStatus.PENDING, e.getMessage(), Instant.now().plus(retryDelay(job.attempts)));
+            }
+        }
+    }
+
+    /** Delay before the next attempt: {@code retry-delay} doubled after each failure, capped at {@code retry-max-delay}. */
+    Duration retryDelay(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = retryDelay.multipliedBy(1L << doublings);
+        return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+    }
+
+    private void finish(Long jobId, SummarizationJobStatus status, String error, Instant notBefore) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            SummarizationJob job = jobRepository.findById(jobId);
+            if (job == null) return;
+            job.status = status;
+            job.error = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            job.notBefore = notBefore;
+            if (status != SummarizationJobStatus.PENDING) job.finishedAt = Instant.now();
+        });
+    }
+}
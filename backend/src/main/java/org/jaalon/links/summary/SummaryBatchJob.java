@@ -0,0 +1,103 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one batch summarization. Counters are updated concurrently by the worker threads;
+ * clients only ever see an immutable {@link Progress} snapshot.
+ */
+public class SummaryBatchJob {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum State { RUNNING, COMPLETED, CANCELLED }
+
+    @RegisterForReflection
+    public record Progress(String id, State state, int total, int succeeded, int failed, int skipped,
+                           Instant startedAt, Instant finishedAt, Map<Long, String> errors) {}
+
+    final String id;
+    final int total;
+    final Instant startedAt = Instant.now();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final Map<Long, String> errors = new LinkedHashMap<>();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile List<Future<?>> tasks = List.of();
+
+    SummaryBatchJob(String id, int total) {
+        this.id = id;
+        this.total = total;
+        this.remaining = new AtomicInteger(total);
+        if (total == 0) finish(State.COMPLETED);
+    }
+
+    void tasks(List<Future<?>> tasks) {
+        this.tasks = tasks;
+    }
+
+    boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void succeeded() {
+        succeeded.incrementAndGet();
+    }
+
+    void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    void failed(Long linkId, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.put(linkId, message);
+        }
+    }
+
+    /** Called by every task when it ends, whatever the outcome. */
+    void taskDone() {
+        if (remaining.decrementAndGet() == 0) finish(State.COMPLETED);
+    }
+
+    /** Stops the job: queued tasks never start, running LLM calls are interrupted and their result dropped. */
+    void cancel() {
+        if (finish(State.CANCELLED)) {
+            for (Future<?> task : tasks) task.cancel(true);
+        }
+    }
+
+    private synchronized boolean finish(State finalState) {
+        if (finishedAt != null) return false;
+        state = finalState;
+        finishedAt = Instant.now();
+        return true;
+    }
+
+    Progress snapshot() {
+        Map<Long, String> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = new LinkedHashMap<>(errors);
+        }
+        return new Progress(id, state, total, succeeded.get(), failed.get(), skipped.get(),
+                startedAt, finishedAt, errorsCopy);
+    }
+}
@@ -0,0 +1,44 @@
+package org.jaalon.links.summary;
+
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jaalon.links.dto.SummarizeBatchDTO;
+
+import java.net.URI;
+import java.util.List;
+
+@Path("/api/links/summarize-batch")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class SummaryBatchResource {
+
+    @Inject
+    SummaryBatchService summaryBatchService;
+
+    /** Starts summarizing the selected links in the background; poll the returned job for progress. */
+    @POST
+    public Response start(@Valid SummarizeBatchDTO dto) {
+        SummaryBatchJob.Progress job = summaryBatchService.start(dto != null ? dto : new SummarizeBatchDTO());
+        return Response.accepted(job).location(URI.create("/api/links/summarize-batch/" + job.id())).build();
+    }
+
+    @GET
+    public List<SummaryBatchJob.Progress> list() {
+        return summaryBatchService.list();
+    }
+
+    @GET
+    @Path("/{jobId}")
+    public SummaryBatchJob.Progress get(@PathParam("jobId") String jobId) {
+        return summaryBatchService.progress(jobId).orElseThrow(NotFoundException::new);
+    }
+
+    @DELETE
+    @Path("/{jobId}")
+    public SummaryBatchJob.Progress cancel(@PathParam("jobId") String jobId) {
+        return summaryBatchService.cancel(jobId).orElseThrow(NotFoundException::new);
+    }
+}
@@ -0,0 +1,164 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jaalon.links.LinkRepository;
+import org.jaalon.links.dto.SummarizeBatchDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Summarizes many links in the background.
+ * <p>
+ * Each link is a task on its own virtual thread. A global semaphore bounds how many tasks work at
+ * the same time; the calls to each provider are bounded by {@link org.jaalon.llm.ProviderCallLimiter},
+ * shared with every other summarization path. Each link goes through {@link LinkSummarizer}, so no
+ * connection or lock is held while waiting for the model.
+ * <p>
+ * Jobs live in memory; finished jobs are forgotten after an hour.
+ */
+@ApplicationScoped
+public class SummaryBatchService {
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    LinkSummarizer linkSummarizer;
+
+    @ConfigProperty(name = "techwatch.summarize.batch.max-concurrency", defaultValue = "8")
+    int maxConcurrency;
+
+    @ConfigProperty(name = "techwatch.summarize.batch.max-links", defaultValue = "1000")
+    int maxLinks;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, SummaryBatchJob> jobs = new ConcurrentHashMap<>();
+    private Semaphore slots;
+
+    @PostConstruct
+    void init() {
+        slots = new Semaphore(maxConcurrency, true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public SummaryBatchJob.Progress start(SummarizeBatchDTO dto) {
+        List<Long> ids = QuarkusTransaction.requiringNew().call(() -> selectLinks(dto));
+        evictFinishedJobs();
+
+        boolean refresh = Boolean.TRUE.equals(dto.refresh);
+        SummaryBatchJob job = new SummaryBatchJob(UUID.randomUUID().toString(), ids.size());
+        jobs.put(job.id, job);
+        List<Future<?>> tasks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            tasks.add(executor.submit(() -> summarizeOne(job, id, refresh)));
+        }
+        job.tasks(tasks);
+        Log.infof("Summary batch %s started for %d links", job.id, ids.size());
+        return job.snapshot();
+    }
+
+    public Optional<SummaryBatchJob.Progress> progress(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(SummaryBatchJob::snapshot);
+    }
+
+    public List<SummaryBatchJob.Progress> list() {
+        return jobs.values().stream()
+                .map(SummaryBatchJob::snapshot)
+                .sorted(Comparator.comparing(SummaryBatchJob.Progress::startedAt).reversed())
+                .toList();
+    }
+
+    public Optional<SummaryBatchJob.Progress> cancel(String jobId) {
+        SummaryBatchJob job = jobs.get(jobId);
+        if (job == null) return Optional.empty();
+        job.cancel();
+        Log.infof("Summary batch %s cancelled", jobId);
+        return Optional.of(job.snapshot());
+    }
+
+    private List<Long> selectLinks(SummarizeBatchDTO dto) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        where.add("l.content is not null");
+        boolean explicit = dto.ids != null && !dto.ids.isEmpty();
+        if (explicit) {
+            if (dto.ids.size() > maxLinks) {
+                throw new BadRequestException("At most " + maxLinks + " links can be summarized in one batch");
+            }
+            where.add("l.id in :ids");
+            params.put("ids", dto.ids);
+        } else if (dto.status != null) {
+            where.add("l.status = :status");
+            params.put("status", dto.status);
+        }
+        boolean onlyMissing = dto.onlyMissing != null ? dto.onlyMissing : !explicit;
+        if (onlyMissing) where.add("l.summary is null");
+
+        int max = dto.limit != null ? Math.min(dto.limit, maxLinks) : maxLinks;
+        return linkRepository.listIds(String.join(" and ", where), params,
+                Sort.by("date", Sort.Direction.Descending).and("id", Sort.Direction.Descending), max);
+    }
+
+    private void summarizeOne(SummaryBatchJob job, Long linkId, boolean refresh) {
+        try {
+            if (job.isCancelled()) return;
+            slots.acquire();
+            try {
+                LinkSummarizer.Prepared prepared;
+                try {
+                    prepared = linkSummarizer.prepare(linkId, refresh);
+                } catch (NotFoundException | BadRequestException e) {
+                    // Deleted meanwhile or content removed
+                    job.skipped();
+                    return;
+                }
+
+                String summary = prepared.cachedSummary();
+                if (summary == null) {
+                    // Each LLM call waits for a permit of its provider
+                    summary = linkSummarizer.generate(prepared);
+                    if (job.isCancelled()) return;
+                }
+                linkSummarizer.save(linkId, summary);
+                job.succeeded();
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (job.isCancelled()) return;
+            Log.warnf(e, "Summary batch %s: link %d failed", job.id, linkId);
+            job.failed(linkId, e.getMessage());
+        } finally {
+            job.taskDone();
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Instant limit = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt().isBefore(limit));
+    }
+}
@@ -0,0 +1,183 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Summaries already produced by the LLM, so that identical content summarized with the same
+ * instruction, model and provider is never sent twice.
+ * <p>
+ * Entries are persisted in {@code summary_cache} (bounded to {@code techwatch.summarize.cache.max-entries},
+ * least recently used evicted first) with a small in-memory LRU in front of it: a memory hit costs a
+ * hash computation and a map lookup.
+ */
+@ApplicationScoped
+public class SummaryCache {
+
+    private static final Pattern TRAILING_SPACES = Pattern.compile("[ \\t]+\\n");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    @RegisterForReflection
+    public record Stats(long hits, long memoryHits, long misses, double hitRatio, long evictions,
+                        int memoryEntries, long storedEntries, int maxEntries) {}
+
+    @Inject
+    SummaryCacheRepository repository;
+
+    @ConfigProperty(name = "techwatch.summarize.cache.max-entries", defaultValue = "10000")
+    int maxEntries;
+
+    @ConfigProperty(name = "techwatch.summarize.cache.memory-entries", defaultValue = "1000")
+    int memoryEntries;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private Map<String, String> memory;
+
+    @PostConstruct
+    void init() {
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /** Cache key of a summarization: SHA-256 of the normalized content, the instruction, the model and the base URL. */
+    public static String key(String content, String instruction, String model, String baseUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{normalize(content), normalize(instruction), model, baseUrl}) {
+                digest.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Whitespace-only differences (line endings, trailing spaces, blank lines) must not change the key
+    static String normalize(String text) {
+        if (text == null) return "";
+        String s = text.replaceAll("\\r\\n?", "\n");
+        s = TRAILING_SPACES.matcher(s).replaceAll("\n");
+        s = BLANK_LINES.matcher(s).replaceAll("\n\n");
+        return s.strip();
+    }
+
+    /**
+     * Cached summary for the key, looked up in memory then in the database. A database hit records
+     * its usage for eviction, in the current transaction or in a new one when none is active.
+     */
+    public Optional<String> get(String key) {
+        String summary;
+        synchronized (memory) {
+            summary = memory.get(key);
+        }
+        if (summary != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(summary);
+        }
+        String stored = QuarkusTransaction.joiningExisting().call(() -> {
+            SummaryCacheEntry entry = repository.findById(key);
+            if (entry == null) return null;
+            entry.hitCount++;
+            entry.lastUsedAt = Instant.now();
+            return entry.summary;
+        });
+        if (stored == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        synchronized (memory) {
+            memory.put(key, stored);
+        }
+        storeHits.incrementAndGet();
+        return Optional.of(stored);
+    }
+
+    /**
+     * Stores a summary in its own transaction. Caching is best effort: a failure (e.g. the same
+     * content stored concurrently by another thread) is logged and never reaches the caller.
+     */
+    public void put(String key, String summary, String model) {
+        synchronized (memory) {
+            memory.put(key, summary);
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                SummaryCacheEntry entry = repository.findById(key);
+                if (entry == null) {
+                    entry = new SummaryCacheEntry();
+                    entry.hash = key;
+                    entry.model = model;
+                    entry.summary = summary;
+                    repository.persist(entry);
+                } else {
+                    entry.summary = summary;
+                    entry.lastUsedAt = Instant.now();
+                }
+                evictIfNeeded();
+            });
+        } catch (RuntimeException e) {
+            Log.warnf(e, "Could not store summary %s in cache", key);
+        }
+    }
+
+    public void clear() {
+        repository.deleteAll();
+        synchronized (memory) {
+            memory.clear();
+        }
+        memoryHits.set(0);
+        storeHits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public Stats stats() {
+        long hits = memoryHits.get() + storeHits.get();
+        long lookups = hits + misses.get();
+        int inMemory;
+        synchronized (memory) {
+            inMemory = memory.size();
+        }
+        return new Stats(hits, memoryHits.get(), misses.get(), lookups == 0 ? 0d : (double) hits / lookups,
+                evictions.get(), inMemory, repository.count(), maxEntries);
+    }
+
+    private void evictIfNeeded() {
+        long excess = repository.count() - maxEntries;
+        if (excess <= 0) return;
+        List<String> oldest = repository.getEntityManager()
+                .createQuery("select e.hash from SummaryCacheEntry e order by e.lastUsedAt", String.class)
+                .setMaxResults((int) excess)
+                .getResultList();
+        repository.delete("hash in ?1", oldest);
+        synchronized (memory) {
+            oldest.forEach(memory::remove);
+        }
+        evictions.addAndGet(oldest.size());
+    }
+}
@@ -0,0 +1,37 @@
+package org.jaalon.links.summary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * A summary already produced by the LLM, keyed by the SHA-256 of everything that determines it
+ * (normalized content, instruction, model and provider base URL).
+ */
+@Entity
+@Table(name = "summary_cache")
+public class SummaryCacheEntry {
+
+    @Id
+    @Column(name = "hash", length = 64, nullable = false)
+    public String hash;
+
+    @Column(name = "summary", length = 8000, nullable = false)
+    public String summary;
+
+    @Column(name = "model", length = 200)
+    public String model;
+
+    @Column(name = "created_at", nullable = false)
+    public Instant createdAt = Instant.now();
+
+    // Drives the size-bounded eviction: least recently used entries go first
+    @Column(name = "last_used_at", nullable = false)
+    public Instant lastUsedAt = Instant.now();
+
+    @Column(name = "hit_count", nullable = false)
+    public long hitCount;
+}
@@ -0,0 +1,8 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class SummaryCacheRepository implements PanacheRepositoryBase<SummaryCacheEntry, String> {
+}
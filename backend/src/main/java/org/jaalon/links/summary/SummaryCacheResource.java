@@ -0,0 +1,29 @@
+package org.jaalon.links.summary;
+
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("/api/links/summary-cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class SummaryCacheResource {
+
+    @Inject
+    SummaryCache summaryCache;
+
+    /** Hit/miss counters since startup (or the last clear) and current sizes. */
+    @GET
+    @Path("/stats")
+    public SummaryCache.Stats stats() {
+        return summaryCache.stats();
+    }
+
+    @DELETE
+    @Transactional
+    public Response clear() {
+        summaryCache.clear();
+        return Response.noContent().build();
+    }
+}
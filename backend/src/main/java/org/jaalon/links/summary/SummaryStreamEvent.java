@@ -0,0 +1,19 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * One Server-Sent Event of a streamed summary: a chunk of generated text, then a final event
+ * carrying the complete (normalized, persisted) summary.
+ */
+@RegisterForReflection
+public record SummaryStreamEvent(String delta, String summary, boolean done) {
+
+    static SummaryStreamEvent delta(String text) {
+        return new SummaryStreamEvent(text, null, false);
+    }
+
+    static SummaryStreamEvent done(String summary) {
+        return new SummaryStreamEvent(null, summary, true);
+    }
+}
@@ -0,0 +1,57 @@
+package org.jaalon.links.summary;
+
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.jaalon.links.SummarizationService;
+import org.jaalon.links.SummarizationService.SummarizationRequest;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+/**
+ * Summarizes a link and streams the generated text as Server-Sent Events, so the first words show up
+ * as soon as the provider emits them. The summary is persisted once the generation completes, so the
+ * endpoint is a POST (read it with fetch: EventSource only issues GET requests).
+ * <p>
+ * No transaction is open while the model generates: the content and prompt are read in a short
+ * transaction before streaming, and the summary is written in another one on a worker thread.
+ */
+@Path("/api/links/{id}/summarize/stream")
+@Consumes(MediaType.WILDCARD)
+public class SummaryStreamResource {
+
+    @Inject
+    LinkSummarizer linkSummarizer;
+
+    @Inject
+    SummarizationService summarizationService;
+
+    @POST
+    @Blocking
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<SummaryStreamEvent> stream(@PathParam("id") Long id, @QueryParam("refresh") boolean refresh) {
+        LinkSummarizer.Prepared prepared = linkSummarizer.prepare(id, refresh);
+        if (prepared.cachedSummary() != null) {
+            linkSummarizer.save(id, prepared.cachedSummary());
+            return Multi.createFrom().item(SummaryStreamEvent.done(prepared.cachedSummary()));
+        }
+
+        SummarizationRequest request = prepared.request();
+        StringBuilder generated = new StringBuilder();
+        return summarizationService.stream(request)
+                .onItem().invoke(generated::append)
+                .map(SummaryStreamEvent::delta)
+                .onCompletion().switchTo(() -> Uni.createFrom()
+                        .item(() -> {
+                            String summary = summarizationService.complete(request, generated.toString());
+                            linkSummarizer.save(id, summary);
+                            return SummaryStreamEvent.done(summary);
+                        })
+                        .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                        .toMulti());
+    }
+}
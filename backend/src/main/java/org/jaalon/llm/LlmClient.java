@@ -5,9 +5,12 @@ import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 import dev.langchain4j.model.openai.OpenAiChatRequestParameters;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.time.Duration;
@@ -25,6 +28,7 @@ public class LlmClient {
 
     // Cache pour réutiliser les modèles
     private final Map<String, OpenAiChatModel> modelCache = new ConcurrentHashMap<>();
+    private final Map<String, OpenAiStreamingChatModel> streamingModelCache = new ConcurrentHashMap<>();
 
     /**
      * Generate text from a simple prompt
@@ -99,6 +103,51 @@ public class LlmClient {
         }
     }
 
+    /**
+     * Generate text from a simple prompt, emitting the tokens as the provider produces them.
+     * The returned stream completes when the generation is over.
+     */
+    public Multi<String> stream(String baseUrl, String apiKey, String model, String prompt) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            throw new IllegalArgumentException("baseUrl is required");
+        }
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalArgumentException("apiKey is required");
+        }
+        if (model == null || model.isBlank()) {
+            throw new IllegalArgumentException("model is required");
+        }
+        if (prompt == null || prompt.isBlank()) {
+            throw new IllegalArgumentException("prompt is required");
+        }
+
+        Log.infof("Streaming LLM - Model: %s, Base URL: %s", model, baseUrl);
+
+        ChatRequest chatRequest = ChatRequest.builder()
+                .messages(List.of(UserMessage.from(prompt)))
+                .parameters(OpenAiChatRequestParameters.builder().modelName(model).build())
+                .build();
+
+        return Multi.createFrom().emitter(emitter ->
+                getOrCreateStreamingModel(baseUrl, apiKey, model).chat(chatRequest, new StreamingChatResponseHandler() {
+                    @Override
+                    public void onPartialResponse(String partialResponse) {
+                        if (partialResponse != null && !partialResponse.isEmpty()) emitter.emit(partialResponse);
+                    }
+
+                    @Override
+                    public void onCompleteResponse(ChatResponse response) {
+                        emitter.complete();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        Log.errorf(error, "LLM stream failed for model: %s at %s", model, baseUrl);
+                        emitter.fail(new RuntimeException("LLM call failed: " + error.getMessage(), error));
+                    }
+                }));
+    }
+
     /**
      * Get or create a cached OpenAiChatModel
      */
@@ -121,12 +170,31 @@ public class LlmClient {
         });
     }
 
+    private OpenAiStreamingChatModel getOrCreateStreamingModel(String baseUrl, String apiKey, String model) {
+        String cacheKey = buildCacheKey(baseUrl, model);
+
+        return streamingModelCache.computeIfAbsent(cacheKey, key -> {
+            Log.infof("Creating new StreamingChatModel for: %s @ %s", model, baseUrl);
+
+            return OpenAiStreamingChatModel.builder()
+                .apiKey(apiKey)
+                .baseUrl(baseUrl)
+                .modelName(model)
+                .timeout(Duration.ofSeconds(60))
+                .temperature(0.7)
+                .logRequests(Log.isDebugEnabled())
+                .logResponses(Log.isDebugEnabled())
+                .build();
+        });
+    }
+
     /**
      * Invalidate cache for a specific configuration
      */
     public void invalidateCache(String baseUrl, String model) {
         String cacheKey = buildCacheKey(baseUrl, model);
         modelCache.remove(cacheKey);
+        streamingModelCache.remove(cacheKey);
         Log.infof("Cache invalidated for: %s @ %s", model, baseUrl);
     }
 
@@ -135,6 +203,7 @@ public class LlmClient {
      */
     public void clearCache() {
         modelCache.clear();
+        streamingModelCache.clear();
         Log.info("All LLM model cache cleared");
     }
 
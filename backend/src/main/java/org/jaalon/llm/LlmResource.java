@@ -14,11 +14,9 @@ import org.jaalon.llm.dto.MistralModelsRequest;
 import org.jaalon.llm.dto.llmConfigCreateDto;
 import org.jaalon.llm.dto.llmConfigViewDto;
 
+import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +35,15 @@ public class LlmResource {
     @Inject
     AiApiKeyRepository aiApiKeyRepository;
 
+    @Inject
+    ProviderHttpClient providerHttpClient;
+
+    @Inject
+    ModelListCache modelListCache;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     @GET
     @Path("/configs")
     public List<llmConfigViewDto> listConfigs() {
@@ -112,7 +119,7 @@ public class LlmResource {
 
     @POST
     @Path("/mistral/models")
-    public Response mistralModels(MistralModelsRequest mistralModelsRequest) {
+    public Response mistralModels(MistralModelsRequest mistralModelsRequest, @QueryParam("refresh") boolean refresh) {
         Long aiApiKeyId = (mistralModelsRequest == null) ? null : mistralModelsRequest.aiApiKeyId;
         if (aiApiKeyId == null) {
             throw new BadRequestException("aiApiKeyId is required");
@@ -124,20 +131,10 @@ public class LlmResource {
         }
 
         try {
-            String baseUrl = aiApiKey.baseUrl;
-            String apiKey = aiApiKey.apiKey;
-            String url = (baseUrl.endsWith("/")) ? (baseUrl + "v1/models") : (baseUrl + "/v1/models");
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(java.net.URI.create(url))
-                    .header("Authorization", "Bearer " + apiKey)
-                    .GET()
-                    .build();
-            HttpClient httpClient = HttpClient.newHttpClient();
-            HttpResponse<String> httpResponse = httpClient.send(httpRequest, BodyHandlers.ofString(java.nio.charset.StandardCharsets.UTF_8));
-            int code = httpResponse.statusCode();
-            String body = httpResponse.body();
+            ModelListCache.Models models = fetchModels(aiApiKey, refresh);
+            int code = models.status();
             if (code == 200 || code == 422) {
-                return status(code).entity(body).build();
+                return status(code).entity(models.body()).build();
             }
             return status(502).entity("Upstream error: HTTP " + code).build();
         } catch (Exception e) {
@@ -147,7 +144,7 @@ public class LlmResource {
 
     @GET
     @Path("/models")
-    public Response listModels(@QueryParam("aiApiKeyId") Long aiApiKeyId) {
+    public Response listModels(@QueryParam("aiApiKeyId") Long aiApiKeyId, @QueryParam("refresh") boolean refresh) {
         if (aiApiKeyId == null) {
             throw new BadRequestException("aiApiKeyId is required");
         }
@@ -160,7 +157,6 @@ public class LlmResource {
         // Fallback: try to query the upstream /v1/models and normalize to { models: [...] }
         try {
             String baseUrl = aiApiKey.baseUrl;
-            String apiKey = aiApiKey.apiKey;
             // If baseUrl is missing or not an HTTP(S) URL, do not attempt a network call
             if (baseUrl == null || baseUrl.isBlank()) {
                 return ok(Map.of("models", List.of())).build();
@@ -169,24 +165,14 @@ public class LlmResource {
             if (!(lower.startsWith("http://") || lower.startsWith("https://"))) {
                 return ok(Map.of("models", List.of())).build();
             }
-            String url = (baseUrl.endsWith("/")) ? (baseUrl + "v1/models") : (baseUrl + "/v1/models");
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                    .uri(java.net.URI.create(url))
-                    .header("Authorization", "Bearer " + (apiKey == null ? "" : apiKey))
-                    .GET()
-                    .build();
-            HttpClient httpClient = HttpClient.newHttpClient();
-            HttpResponse<String> httpResponse = httpClient.send(httpRequest, BodyHandlers.ofString(java.nio.charset.StandardCharsets.UTF_8));
-            int code = httpResponse.statusCode();
-            String body = httpResponse.body();
-            if (code != 200) {
+            ModelListCache.Models models = fetchModels(aiApiKey, refresh);
+            if (models.status() != 200) {
                 return status(502).entity(Map.of("models", List.of())).build();
             }
 
             // Try to parse common shapes
             try {
-                ObjectMapper om = new ObjectMapper();
-                JsonNode root = om.readTree(body);
+                JsonNode root = objectMapper.readTree(models.body());
                 List<String> names = new ArrayList<>();
                 if (root.has("data") && root.get("data").isArray()) {
                     for (JsonNode n : root.get("data")) {
@@ -207,4 +193,20 @@ public class LlmResource {
             return status(502).entity(Map.of("models", List.of())).build();
         }
     }
+
+    // Upstream /v1/models answer, from the cache unless refresh is set; only successful answers are cached
+    private ModelListCache.Models fetchModels(AiApiKey aiApiKey, boolean refresh) throws IOException, InterruptedException {
+        if (!refresh) {
+            ModelListCache.Models cached = modelListCache.get(aiApiKey);
+            if (cached != null) return cached;
+        }
+        String baseUrl = aiApiKey.baseUrl;
+        String url = (baseUrl.endsWith("/")) ? (baseUrl + "v1/models") : (baseUrl + "/v1/models");
+        HttpResponse<String> httpResponse = providerHttpClient.get(url, aiApiKey.apiKey);
+        ModelListCache.Models models = new ModelListCache.Models(httpResponse.statusCode(), httpResponse.body());
+        if (models.status() == 200) {
+            modelListCache.put(aiApiKey, models);
+        }
+        return models;
+    }
 }
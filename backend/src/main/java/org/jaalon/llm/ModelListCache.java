@@ -0,0 +1,59 @@
+package org.jaalon.llm;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jaalon.apikey.AiApiKey;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Upstream {@code /v1/models} responses per API key, kept for {@code techwatch.llm.models-cache.ttl}.
+ * <p>
+ * An entry is tied to the base URL and secret it was fetched with: editing the key makes it stale
+ * even before the key is explicitly invalidated.
+ */
+@ApplicationScoped
+public class ModelListCache {
+
+    /** Raw upstream answer: HTTP status and body. */
+    public record Models(int status, String body) {
+    }
+
+    private record Entry(String fingerprint, Models models, Instant expiresAt) {
+    }
+
+    @ConfigProperty(name = "techwatch.llm.models-cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public Models get(AiApiKey aiApiKey) {
+        Entry entry = entries.get(aiApiKey.id);
+        if (entry == null) return null;
+        if (!entry.fingerprint.equals(fingerprint(aiApiKey)) || entry.expiresAt.isBefore(Instant.now())) {
+            entries.remove(aiApiKey.id, entry);
+            return null;
+        }
+        return entry.models;
+    }
+
+    public void put(AiApiKey aiApiKey, Models models) {
+        entries.put(aiApiKey.id, new Entry(fingerprint(aiApiKey), models, Instant.now().plus(ttl)));
+    }
+
+    public void invalidate(Long aiApiKeyId) {
+        if (aiApiKeyId != null) entries.remove(aiApiKeyId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String fingerprint(AiApiKey aiApiKey) {
+        return aiApiKey.baseUrl + "|" + Objects.hashCode(aiApiKey.apiKey);
+    }
+}
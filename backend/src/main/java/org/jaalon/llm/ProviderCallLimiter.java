@@ -0,0 +1,71 @@
+package org.jaalon.llm;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the concurrent completion calls made to one provider (API base URL), whoever makes them:
+ * batch summaries, queued jobs, streamed summaries and the chunks of a long article all share the same permits.
+ * <p>
+ * A permit is only held for the duration of a single call, never while waiting for another one,
+ * so callers nesting several calls cannot deadlock.
+ */
+@ApplicationScoped
+public class ProviderCallLimiter {
+
+    @ConfigProperty(name = "techwatch.summarize.batch.per-provider-concurrency", defaultValue = "4")
+    int perProviderConcurrency;
+
+    private final Map<String, Semaphore> providerSlots = new ConcurrentHashMap<>();
+
+    /** Runs the call once a permit of the provider is free. */
+    public <T> T call(String baseUrl, Supplier<T> call) {
+        Semaphore provider = acquire(baseUrl);
+        try {
+            return call.get();
+        } finally {
+            provider.release();
+        }
+    }
+
+    /**
+     * Subscribes to the stream once a permit of the provider is free, waiting on a worker thread rather than
+     * the event loop. The permit is held until the stream completes, fails or is cancelled.
+     */
+    public <T> Multi<T> stream(String baseUrl, Supplier<Multi<T>> call) {
+        return Uni.createFrom().item(() -> acquire(baseUrl))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .onItem().transformToMulti(provider -> {
+                    AtomicBoolean released = new AtomicBoolean();
+                    Runnable release = () -> {
+                        if (released.compareAndSet(false, true)) provider.release();
+                    };
+                    try {
+                        return call.get().onTermination().invoke(release);
+                    } catch (RuntimeException e) {
+                        release.run();
+                        throw e;
+                    }
+                });
+    }
+
+    private Semaphore acquire(String baseUrl) {
+        Semaphore provider = providerSlots.computeIfAbsent(baseUrl, k -> new Semaphore(perProviderConcurrency, true));
+        try {
+            provider.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a call slot of " + baseUrl, e);
+        }
+        return provider;
+    }
+}
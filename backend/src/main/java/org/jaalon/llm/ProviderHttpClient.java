@@ -0,0 +1,53 @@
+package org.jaalon.llm;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Single HTTP client for the direct calls made to AI providers (model listing).
+ * <p>
+ * {@link HttpClient} keeps a connection pool and negotiates HTTP/2 when the provider supports it, so
+ * sharing one instance lets consecutive calls reuse open connections instead of paying a new TCP and
+ * TLS handshake each time. Completion calls go through LangChain4j, which manages its own client.
+ */
+@ApplicationScoped
+public class ProviderHttpClient {
+
+    @ConfigProperty(name = "techwatch.llm.http.connect-timeout", defaultValue = "5s")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "techwatch.llm.http.request-timeout", defaultValue = "20s")
+    Duration requestTimeout;
+
+    HttpClient httpClient;
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /** GET with a bearer token, body decoded as UTF-8. */
+    public HttpResponse<String> get(String url, String bearerToken) throws IOException, InterruptedException {
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + (bearerToken == null ? "" : bearerToken))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package org.jaalon.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs a query once per chunk of values bound in its IN (...) clause, so that large collections stay
+ * within the database parameter limits. Values are deduplicated and nulls dropped first: they can never
+ * match and would only make the chunks larger.
+ */
+public final class InClause {
+
+    // Maximum number of values bound in a single IN (...) clause
+    public static final int CHUNK_SIZE = 500;
+
+    private InClause() {
+    }
+
+    /** Results of the query run on each chunk, concatenated in chunk order. */
+    public static <T, R> List<R> inChunks(Collection<T> values, Function<List<T>, List<R>> query) {
+        List<R> results = new ArrayList<>();
+        for (List<T> chunk : chunks(values)) results.addAll(query.apply(chunk));
+        return results;
+    }
+
+    /** Sum of the row counts returned by the statement run on each chunk, for bulk updates and deletes. */
+    public static <T> int countInChunks(Collection<T> values, ToIntFunction<List<T>> statement) {
+        int count = 0;
+        for (List<T> chunk : chunks(values)) count += statement.applyAsInt(chunk);
+        return count;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        distinct.remove(null);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+}
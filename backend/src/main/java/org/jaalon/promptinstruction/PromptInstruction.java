@@ -3,7 +3,12 @@ package org.jaalon.promptinstruction;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "prompt_instruction")
@@ -15,4 +20,14 @@ public class PromptInstruction {
 
     @Column(name = "content", length = 4000, nullable = false)
     public String content;
+
+    // Last modification, read by delta exports (GET /api/data-exchange/export/{type}?since=)
+    @NotNull
+    public Instant updatedAt = Instant.now();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -3,6 +3,19 @@ package org.jaalon.promptinstruction;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
 @ApplicationScoped
 public class PromptInstructionRepository implements PanacheRepositoryBase<PromptInstruction, String> {
+
+    /** Instructions of the given types, keyed by type. There is one instruction per type, a handful at most. */
+    public Map<String, PromptInstruction> findByTypes(Collection<String> types) {
+        Map<String, PromptInstruction> byType = new HashMap<>();
+        if (types.isEmpty()) return byType;
+        for (PromptInstruction pi : list("type in ?1", new LinkedHashSet<>(types))) byType.put(pi.type, pi);
+        return byType;
+    }
 }
@@ -0,0 +1,3 @@
+package org.jaalon.sync;
+
+public record CreateSyncPeerDTO(String name, String baseUrl) {}
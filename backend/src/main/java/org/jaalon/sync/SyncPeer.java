@@ -0,0 +1,41 @@
+package org.jaalon.sync;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+/**
+ * Another TechWatch instance this one pulls changes from, with the high-water marks of the last
+ * successful pull.
+ */
+@Entity
+@Table(name = "sync_peer")
+public class SyncPeer extends PanacheEntity {
+
+    @NotBlank
+    @Size(max = 150)
+    @Column(name = "name", length = 150, nullable = false, unique = true)
+    public String name;
+
+    // Root URL of the peer, e.g. http://laptop.local:8080
+    @NotBlank
+    @Size(max = 500)
+    @Column(name = "base_url", length = 500, nullable = false)
+    public String baseUrl;
+
+    // On the peer's clock: export time of the last successful pull, sent as since on the next one
+    @Column(name = "remote_since")
+    public Instant remoteSince;
+
+    // On the local clock: end of the last successful pull; local rows updated later are local changes
+    @Column(name = "last_synced_at")
+    public Instant lastSyncedAt;
+
+    @Column(name = "last_error", length = 2000)
+    public String lastError;
+}
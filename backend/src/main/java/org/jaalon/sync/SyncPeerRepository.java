@@ -0,0 +1,8 @@
+package org.jaalon.sync;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class SyncPeerRepository implements PanacheRepository<SyncPeer> {
+}
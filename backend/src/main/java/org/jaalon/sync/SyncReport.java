@@ -0,0 +1,14 @@
+package org.jaalon.sync;
+
+import org.jaalon.exchange.dto.ConflictItem;
+import org.jaalon.exchange.dto.ImportFileReport;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of a pull: what was imported per file, and the rows changed on both sides since the previous
+ * pull, left untouched for the user to resolve through {@code /api/data-exchange/import/resolve-batch}.
+ */
+public record SyncReport(String peer, Instant since, Instant remoteSince, List<ImportFileReport> imported,
+                         List<ConflictItem> conflicts) {}
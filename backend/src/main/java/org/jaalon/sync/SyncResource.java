@@ -0,0 +1,65 @@
+package org.jaalon.sync;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.net.URI;
+import java.util.List;
+
+@Path("/api/sync")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class SyncResource {
+
+    @Inject
+    SyncPeerRepository peerRepository;
+
+    @Inject
+    SyncService syncService;
+
+    @GET
+    @Path("/peers")
+    public List<SyncPeer> listPeers() {
+        return peerRepository.listAll(Sort.by("name"));
+    }
+
+    @POST
+    @Path("/peers")
+    @Transactional
+    public Response createPeer(CreateSyncPeerDTO dto) {
+        if (dto == null || dto.name() == null || dto.name().isBlank()) throw new BadRequestException("name is required");
+        if (dto.baseUrl() == null || !dto.baseUrl().matches("https?://.+")) {
+            throw new BadRequestException("baseUrl must be an http(s) URL");
+        }
+        if (peerRepository.count("name", dto.name().trim()) > 0) {
+            throw new ClientErrorException("A peer with this name already exists", 409);
+        }
+        SyncPeer peer = new SyncPeer();
+        peer.name = dto.name().trim();
+        peer.baseUrl = dto.baseUrl().trim();
+        peerRepository.persist(peer);
+        return Response.created(URI.create("/api/sync/peers/" + peer.id)).entity(peer).build();
+    }
+
+    @DELETE
+    @Path("/peers/{id}")
+    @Transactional
+    public Response deletePeer(@PathParam("id") Long id) {
+        if (!peerRepository.deleteById(id)) throw new NotFoundException();
+        return Response.noContent().build();
+    }
+
+    /**
+     * Pulls and imports what changed on the peer since the previous pull. Not transactional: the
+     * transfer happens outside of any transaction and the import commits its own batches.
+     */
+    @POST
+    @Path("/peers/{id}/pull")
+    public SyncReport pull(@PathParam("id") Long id) {
+        return syncService.pull(id);
+    }
+}
@@ -0,0 +1,219 @@
+package org.jaalon.sync;
+
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServerErrorException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jaalon.apikey.AiApiKeyRepository;
+import org.jaalon.exchange.ExportType;
+import org.jaalon.exchange.dto.ConflictItem;
+import org.jaalon.exchange.dto.ImportFileReport;
+import org.jaalon.exchange.services.ImportAnalysisService;
+import org.jaalon.exchange.services.ImportArchive;
+import org.jaalon.exchange.services.ImportExecutionService;
+import org.jaalon.exchange.services.ZipService;
+import org.jaalon.links.LinkRepository;
+import org.jaalon.promptinstruction.PromptInstructionRepository;
+import org.jaalon.tags.TagRepository;
+import org.jaalon.techwatch.TechWatchRepository;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.ZipFile;
+
+/**
+ * Pulls the changes of a peer instance through its data-exchange delta export.
+ * <p>
+ * Each pull asks the peer for the rows modified since the peer's export time of the previous pull
+ * ({@code ?since=}), so the transfer and the work done here grow with the change set, not with the size
+ * of either database. The delta is analyzed with the regular conflict analyzers: a differing row that was
+ * not modified locally since the previous pull simply takes the peer's values, while a row modified on
+ * both sides is reported as a {@link ConflictItem} and left as is. The first pull of a peer has no
+ * baseline, so every differing row is reported.
+ */
+@ApplicationScoped
+public class SyncService {
+
+    @Inject SyncPeerRepository peerRepository;
+    @Inject ZipService zipService;
+    @Inject ImportAnalysisService importAnalysisService;
+    @Inject ImportExecutionService importExecutionService;
+    @Inject LinkRepository linkRepository;
+    @Inject TagRepository tagRepository;
+    @Inject TechWatchRepository techWatchRepository;
+    @Inject PromptInstructionRepository promptRepository;
+    @Inject AiApiKeyRepository aiApiKeyRepository;
+
+    @ConfigProperty(name = "techwatch.sync.http.connect-timeout", defaultValue = "5s")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "techwatch.sync.http.request-timeout", defaultValue = "5m")
+    Duration requestTimeout;
+
+    HttpClient httpClient;
+
+    // Peer state read before the pull, so that no transaction stays open during the transfer
+    private record PeerState(String name, String baseUrl, Instant remoteSince, Instant lastSyncedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public SyncReport pull(long peerId) {
+        PeerState peer = QuarkusTransaction.requiringNew().call(() -> {
+            SyncPeer p = peerRepository.findById(peerId);
+            if (p == null) throw new NotFoundException();
+            return new PeerState(p.name, p.baseUrl, p.remoteSince, p.lastSyncedAt);
+        });
+        // Taken before the peer exports anything: a local change made while the pull runs is then newer than
+        // the next lastSyncedAt and is reported as a conflict rather than overwritten by the next pull. Rows
+        // imported by this pull are newer too, so a peer change to one of them is also reported next time
+        Instant syncedAt = Instant.now();
+        List<ImportFileReport> imported = new ArrayList<>();
+        List<ConflictItem> conflicts = new ArrayList<>();
+        Instant remoteSince = null;
+        try {
+            for (ExportType type : ExportType.values()) {
+                Path file = Files.createTempFile("techwatch-sync-", ".zip");
+                try {
+                    Instant exportedAt = download(peer, type, file);
+                    // Both exports start before anything is read: the earliest is a safe next since
+                    if (remoteSince == null || exportedAt.isBefore(remoteSince)) remoteSince = exportedAt;
+                    try (ZipFile zip = zipService.open(file)) {
+                        apply(zipService.readArchive(zip), peer.lastSyncedAt(), imported, conflicts,
+                                hash -> zipService.readContent(zip, hash));
+                    }
+                } finally {
+                    zipService.delete(file);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            QuarkusTransaction.requiringNew().run(() -> peerRepository.findByIdOptional(peerId)
+                    .ifPresent(p -> p.lastError = error.length() > 2000 ? error.substring(0, 2000) : error));
+            if (e instanceof RuntimeException runtime) throw runtime;
+            throw new ServerErrorException("Sync with " + peer.name() + " failed: " + error, 502, e);
+        }
+
+        Instant nextSince = remoteSince;
+        QuarkusTransaction.requiringNew().run(() -> peerRepository.findByIdOptional(peerId).ifPresent(p -> {
+            p.remoteSince = nextSince;
+            p.lastSyncedAt = syncedAt;
+            p.lastError = null;
+        }));
+        Log.infof("Sync with %s: %d files imported, %d conflicts", peer.name(), imported.size(), conflicts.size());
+        return new SyncReport(peer.name(), peer.remoteSince(), nextSince, imported, conflicts);
+    }
+
+    /** Downloads the delta export of the peer into {@code file}; returns the peer's export time. */
+    private Instant download(PeerState peer, ExportType type, Path file) throws IOException {
+        // Smile is smaller and faster to parse; a peer without format support ignores it and sends JSON
+        String url = peer.baseUrl().replaceAll("/+$", "") + "/api/data-exchange/export/" + type.name().toLowerCase(Locale.ROOT)
+                + "?format=smile";
+        if (peer.remoteSince() != null) {
+            url += "&since=" + URLEncoder.encode(peer.remoteSince().toString(), StandardCharsets.UTF_8);
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/zip")
+                .GET()
+                .build();
+        HttpResponse<Path> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(file));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading from " + peer.name(), e);
+        }
+        if (response.statusCode() != 200) {
+            throw new ServerErrorException("Peer " + peer.name() + " answered HTTP " + response.statusCode(), 502);
+        }
+        try {
+            return response.headers().firstValue("X-Export-Time").map(Instant::parse)
+                    .orElseThrow(() -> new ServerErrorException("Peer " + peer.name() + " does not support delta exports", 502));
+        } catch (DateTimeParseException e) {
+            throw new ServerErrorException("Peer " + peer.name() + " sent an invalid X-Export-Time", 502, e);
+        }
+    }
+
+    private void apply(ImportArchive archive, Instant lastSyncedAt, List<ImportFileReport> imported,
+                       List<ConflictItem> conflicts, Function<String, String> contents) {
+        List<ConflictItem> differing = importAnalysisService.conflicts(archive);
+        Set<String> modifiedHere = QuarkusTransaction.requiringNew().call(() -> modifiedLocally(differing, lastSyncedAt));
+        for (ConflictItem item : differing) {
+            if (modifiedHere.contains(item.entity() + ":" + item.key())) conflicts.add(item);
+        }
+        imported.addAll(importExecutionService.importArchive(without(archive, modifiedHere), contents).files());
+    }
+
+    // "entity:key" of the differing rows updated locally after the previous pull (all of them on the first pull)
+    private Set<String> modifiedLocally(List<ConflictItem> differing, Instant lastSyncedAt) {
+        Map<String, List<String>> keysByEntity = new HashMap<>();
+        for (ConflictItem item : differing) {
+            keysByEntity.computeIfAbsent(item.entity(), e -> new ArrayList<>()).add(item.key());
+        }
+        Map<String, Instant> updatedAt = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : keysByEntity.entrySet()) {
+            List<String> keys = entry.getValue();
+            switch (entry.getKey()) {
+                case "Link" -> linkRepository.findByUrls(keys)
+                        .forEach((url, link) -> updatedAt.put("Link:" + url, link.updatedAt));
+                case "Tag" -> tagRepository.findByNames(keys)
+                        .forEach((name, tag) -> updatedAt.put("Tag:" + name, tag.updatedAt));
+                case "PromptInstruction" -> promptRepository.findByTypes(keys)
+                        .forEach((type, pi) -> updatedAt.put("PromptInstruction:" + type, pi.updatedAt));
+                case "TechWatch" -> techWatchRepository.findByDates(keys.stream().map(LocalDate::parse).toList())
+                        .forEach((date, tw) -> updatedAt.put("TechWatch:" + date, tw.updatedAt));
+                case "AiApiKey" -> aiApiKeyRepository.findByNames(keys.stream().map(k -> k.substring(k.indexOf(':') + 1)).toList())
+                        .forEach((key, apiKey) -> updatedAt.put("AiApiKey:" + key, apiKey.updatedAt));
+                default -> { }
+            }
+        }
+        Set<String> modified = new HashSet<>();
+        for (ConflictItem item : differing) {
+            String key = item.entity() + ":" + item.key();
+            Instant local = updatedAt.get(key);
+            if (lastSyncedAt == null || local == null || local.isAfter(lastSyncedAt)) modified.add(key);
+        }
+        return modified;
+    }
+
+    private static ImportArchive without(ImportArchive archive, Set<String> excluded) {
+        if (excluded.isEmpty()) return archive;
+        return new ImportArchive(
+                filter(archive.tags(), t -> "Tag:" + t.name(), excluded),
+                filter(archive.prompts(), p -> "PromptInstruction:" + p.type(), excluded),
+                filter(archive.apiKeys(), k -> "AiApiKey:" + AiApiKeyRepository.key(k.provider(), k.name()), excluded),
+                filter(archive.links(), l -> "Link:" + l.url(), excluded),
+                filter(archive.techWatches(), tw -> "TechWatch:" + tw.date(), excluded),
+                archive.deletions());
+    }
+
+    private static <T> List<T> filter(List<T> records, Function<T, String> key, Set<String> excluded) {
+        if (records == null) return null;
+        return records.stream().filter(r -> !excluded.contains(key.apply(r))).toList();
+    }
+}
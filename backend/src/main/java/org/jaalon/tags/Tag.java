@@ -1,12 +1,19 @@
 package org.jaalon.tags;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+import java.util.Locale;
+
 @Entity
 @Table(name = "tag")
 public class Tag extends PanacheEntity {
@@ -15,4 +22,24 @@ public class Tag extends PanacheEntity {
     @Size(max = 100)
     @Column(unique = true, nullable = false, length = 100)
     public String name;
+
+    // Trimmed, lower-cased name, set on every write: indexed lookup for case-insensitive matching
+    @Column(nullable = false, length = 100)
+    @JsonIgnore
+    public String nameNormalized;
+
+    // Last modification, read by delta exports (GET /api/data-exchange/export/{type}?since=)
+    @NotNull
+    public Instant updatedAt = Instant.now();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        nameNormalized = normalize(name);
+        updatedAt = Instant.now();
+    }
+
+    public static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 }
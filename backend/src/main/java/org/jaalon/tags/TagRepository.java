@@ -3,6 +3,59 @@ package org.jaalon.tags;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jaalon.persistence.InClause.inChunks;
+
 @ApplicationScoped
 public class TagRepository implements PanacheRepository<Tag> {
+
+    /** Existing tags whose name is in the given collection, keyed by name. */
+    public Map<String, Tag> findByNames(Collection<String> names) {
+        Map<String, Tag> byName = new HashMap<>();
+        for (Tag tag : inChunks(names, chunk -> list("name in ?1", chunk))) byName.put(tag.name, tag);
+        return byName;
+    }
+
+    /** Tag matching the name whatever its case, through the indexed normalized name; the oldest one if several. */
+    public Tag findByNormalizedName(String name) {
+        return find("nameNormalized = ?1 order by id", Tag.normalize(name)).firstResult();
+    }
+
+    /**
+     * Tags matching the given names whatever their case, keyed by normalized name, in chunked IN queries.
+     * Creates the missing ones with the name as given (first spelling wins).
+     */
+    public Map<String, Tag> findOrCreateByNormalizedNames(Collection<String> names) {
+        Map<String, String> spellings = new LinkedHashMap<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) spellings.putIfAbsent(Tag.normalize(name), name.trim());
+        }
+        Map<String, Tag> byNormalized = new HashMap<>();
+        for (Tag tag : inChunks(spellings.keySet(), chunk -> list("nameNormalized in ?1 order by id", chunk))) {
+            byNormalized.putIfAbsent(tag.nameNormalized, tag);
+        }
+        for (Map.Entry<String, String> spelling : spellings.entrySet()) {
+            if (byNormalized.containsKey(spelling.getKey())) continue;
+            Tag tag = new Tag();
+            tag.name = spelling.getValue();
+            persist(tag);
+            byNormalized.put(spelling.getKey(), tag);
+        }
+        return byNormalized;
+    }
+
+    /** Ids of the tags matching the given names whatever their case. */
+    public List<Long> findIdsByNormalizedNames(Collection<String> names) {
+        List<String> normalized = names.stream()
+                .filter(name -> name != null && !name.isBlank()).map(Tag::normalize).toList();
+        return inChunks(normalized, chunk -> getEntityManager()
+                .createQuery("select t.id from Tag t where t.nameNormalized in :names", Long.class)
+                .setParameter("names", chunk)
+                .getResultList());
+    }
 }
@@ -18,8 +18,8 @@ public class TagResource {
     public List<Tag> list(@QueryParam("q") String q,
                           @QueryParam("limit") @DefaultValue("20") int limit) {
         if (q != null && !q.isBlank()) {
-            String like = "%" + q.toLowerCase() + "%";
-            return repository.find("lower(name) like ?1", Sort.by("name").ascending(), like)
+            String like = "%" + Tag.normalize(q) + "%";
+            return repository.find("nameNormalized like ?1", Sort.by("name").ascending(), like)
                     .page(0, Math.max(1, Math.min(100, limit)))
                     .list();
         }
@@ -0,0 +1,7 @@
+package org.jaalon.techwatch;
+
+import java.util.List;
+
+/** Outcome of a distribution of links over the TechWatches, per TechWatch in date order. */
+public record AssignmentReport(int assigned, List<TechWatchAssignment> techWatches) {
+}
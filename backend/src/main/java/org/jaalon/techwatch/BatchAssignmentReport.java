@@ -0,0 +1,7 @@
+package org.jaalon.techwatch;
+
+import java.util.List;
+
+/** Outcome of a bulk assignment: one entry per requested link, in request order, and per TechWatch. */
+public record BatchAssignmentReport(int assigned, List<LinkAssignment> links, List<TechWatchAssignment> techWatches) {
+}
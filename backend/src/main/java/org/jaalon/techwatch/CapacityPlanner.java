@@ -0,0 +1,86 @@
+package org.jaalon.techwatch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remaining capacity of the open (ACTIVE or PLANNED) TechWatches, in date order, read once for a whole
+ * distribution from their maintained link counts. Capacity only decreases while links are assigned, so the
+ * first TechWatch with room is found by moving a cursor forward instead of counting the links of every
+ * TechWatch for every link.
+ */
+final class CapacityPlanner {
+
+    private static final class Slot {
+        final TechWatch techWatch;
+        final boolean created;
+        long linkCount;
+        int assigned;
+
+        Slot(TechWatch techWatch, boolean created) {
+            this.techWatch = techWatch;
+            this.linkCount = techWatch.linkCount;
+            this.created = created;
+        }
+
+        boolean hasRoom() {
+            return linkCount < techWatch.maxArticles;
+        }
+    }
+
+    private final List<Slot> slots = new ArrayList<>();
+    private int cursor;
+
+    /** @param open open TechWatches in date order, as loaded before any link is attached */
+    CapacityPlanner(List<TechWatch> open) {
+        for (TechWatch tw : open) slots.add(new Slot(tw, false));
+    }
+
+    /** Earliest TechWatch with room left, null when all are full. */
+    TechWatch next() {
+        while (cursor < slots.size() && !slots.get(cursor).hasRoom()) cursor++;
+        return cursor < slots.size() ? slots.get(cursor).techWatch : null;
+    }
+
+    /** Latest date among the planned TechWatches, including the ones created during the distribution. */
+    LocalDate latestDate() {
+        return slots.isEmpty() ? null : slots.get(slots.size() - 1).techWatch.date;
+    }
+
+    /** Adds a TechWatch created because all the others were full; it comes after all of them. */
+    void created(TechWatch techWatch) {
+        slots.add(new Slot(techWatch, true));
+    }
+
+    /** Records a link attached to the TechWatch last returned by {@link #next()}. */
+    void assigned() {
+        Slot slot = slots.get(cursor);
+        slot.linkCount++;
+        slot.assigned++;
+    }
+
+    /** Number of links attached to each TechWatch during the distribution, by id, for the stored link counts. */
+    Map<Long, Long> assignedCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Slot slot : slots) {
+            if (slot.assigned > 0) counts.put(slot.techWatch.id, (long) slot.assigned);
+        }
+        return counts;
+    }
+
+    /** TechWatches that received links or were created, with their resulting link count. */
+    AssignmentReport report() {
+        List<TechWatchAssignment> techWatches = new ArrayList<>();
+        int total = 0;
+        for (Slot slot : slots) {
+            if (slot.assigned == 0 && !slot.created) continue;
+            TechWatch tw = slot.techWatch;
+            techWatches.add(new TechWatchAssignment(tw.id, tw.date, tw.maxArticles, slot.linkCount, slot.assigned, slot.created));
+            total += slot.assigned;
+        }
+        return new AssignmentReport(total, techWatches);
+    }
+}
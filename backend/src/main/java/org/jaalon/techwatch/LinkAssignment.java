@@ -0,0 +1,25 @@
+package org.jaalon.techwatch;
+
+import java.time.LocalDate;
+
+/** Where one link of a bulk assignment landed; the TechWatch is null when the link was not assigned. */
+public record LinkAssignment(Long linkId, Long techWatchId, LocalDate date, Outcome outcome) {
+
+    public enum Outcome {
+        ASSIGNED,
+        // Already attached to the TechWatch it would have been assigned to
+        ALREADY_ASSIGNED,
+        NOT_FOUND,
+        REJECTED,
+        // The requested TechWatch has no room left
+        FULL
+    }
+
+    static LinkAssignment to(Long linkId, TechWatch techWatch, Outcome outcome) {
+        return new LinkAssignment(linkId, techWatch.id, techWatch.date, outcome);
+    }
+
+    static LinkAssignment skipped(Long linkId, Outcome outcome) {
+        return new LinkAssignment(linkId, null, null, outcome);
+    }
+}
@@ -0,0 +1,7 @@
+package org.jaalon.techwatch;
+
+import java.time.LocalDate;
+
+/** A TechWatch whose stored link count ({@code stored}) differs from its number of attached links ({@code actual}). */
+public record LinkCountDrift(long techWatchId, LocalDate date, long stored, long actual) {
+}
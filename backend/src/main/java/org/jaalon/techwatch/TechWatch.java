@@ -5,7 +5,10 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -22,4 +25,26 @@ public class TechWatch extends PanacheEntity {
     @NotNull
     @Column(name = "maxArticles")
     public Integer maxArticles = 10; // Capacity per TechWatch, default 10
+
+    // Number of attached links, read by the capacity planner and the TechWatch list. Only changed by relative
+    // updates in the database (TechWatchRepository.adjustLinkCounts), never written back from the entity, so
+    // that concurrent transactions do not overwrite each other's changes; the value loaded in a session that
+    // attached or detached links is therefore stale until the next read
+    @NotNull
+    @Column(name = "linkCount", updatable = false)
+    public Integer linkCount = 0;
+
+    // Last modification, read by delta exports (GET /api/data-exchange/export/{type}?since=)
+    @NotNull
+    public Instant updatedAt = Instant.now();
+
+    /**
+     * Refreshes {@link #updatedAt}. Called by JPA on every change of the columns, and explicitly when links
+     * are attached or detached since the association is owned by {@code Link}.
+     */
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Instant.now();
+    }
 }
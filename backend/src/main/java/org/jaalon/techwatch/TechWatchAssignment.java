@@ -0,0 +1,8 @@
+package org.jaalon.techwatch;
+
+import java.time.LocalDate;
+
+/** Links given to one TechWatch by a distribution; {@code linkCount} is its count afterwards. */
+public record TechWatchAssignment(Long techWatchId, LocalDate date, int maxArticles, long linkCount,
+                                  int assigned, boolean created) {
+}
@@ -0,0 +1,79 @@
+package org.jaalon.techwatch;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through snapshot of the TechWatches, the active one and the ids of its links, served to the pages
+ * that read them on every load.
+ * <p>
+ * The snapshot is loaded on first use and dropped by each {@link TechWatchChangedEvent}, once the writing
+ * transaction has committed. A snapshot loaded while a write was committing carries the generation read
+ * before its load, so it is used by that caller only and reloaded by the next one.
+ * <p>
+ * The TechWatches are detached entities shared by all callers: they must not be modified.
+ */
+@ApplicationScoped
+public class TechWatchCache {
+
+    private record Snapshot(long generation, List<TechWatch> techWatches, TechWatch active, Set<Long> activeLinkIds) {
+    }
+
+    @Inject
+    TechWatchRepository techWatchRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /** All the TechWatches, latest date first. */
+    public List<TechWatch> list() {
+        return snapshot().techWatches();
+    }
+
+    public Optional<TechWatch> active() {
+        return Optional.ofNullable(snapshot().active());
+    }
+
+    /** Whether the link is attached to the ACTIVE TechWatch; does not check that the link exists. */
+    public boolean isInActive(long linkId) {
+        return snapshot().activeLinkIds().contains(linkId);
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    void onTechWatchChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TechWatchChangedEvent event) {
+        invalidate();
+    }
+
+    private Snapshot snapshot() {
+        long current = generation.get();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.generation() == current) return cached;
+        // In its own transaction, so that the entities are detached and only committed changes are seen
+        Snapshot loaded = QuarkusTransaction.requiringNew().call(() -> load(current));
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private Snapshot load(long generation) {
+        List<TechWatch> techWatches = techWatchRepository.listAll(Sort.by("date").descending());
+        TechWatch active = techWatches.stream()
+                .filter(tw -> tw.status == TechWatchStatus.ACTIVE)
+                .findFirst()
+                .orElse(null);
+        Set<Long> activeLinkIds = active != null ? Set.copyOf(techWatchRepository.linkIdsOfActive()) : Set.of();
+        return new Snapshot(generation, List.copyOf(techWatches), active, activeLinkIds);
+    }
+}
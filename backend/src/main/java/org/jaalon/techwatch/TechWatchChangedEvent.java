@@ -0,0 +1,10 @@
+package org.jaalon.techwatch;
+
+/**
+ * Fired by every write to TechWatches or to the links attached to them, so that {@link TechWatchCache}
+ * drops its snapshot once the writing transaction has committed.
+ */
+public record TechWatchChangedEvent() {
+
+    public static final TechWatchChangedEvent INSTANCE = new TechWatchChangedEvent();
+}
@@ -1,8 +1,133 @@
 package org.jaalon.techwatch;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jaalon.persistence.InClause.inChunks;
 
 @ApplicationScoped
 public class TechWatchRepository implements PanacheRepository<TechWatch> {
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "50")
+    int statementBatchSize;
+
+    @Inject
+    Event<TechWatchChangedEvent> techWatchChanges;
+
+    /** TechWatches scheduled on one of the given dates, keyed by date. */
+    public Map<LocalDate, TechWatch> findByDates(Collection<LocalDate> dates) {
+        Map<LocalDate, TechWatch> byDate = new HashMap<>();
+        for (TechWatch techWatch : inChunks(dates, chunk -> list("date in ?1", chunk))) {
+            byDate.putIfAbsent(techWatch.date, techWatch);
+        }
+        return byDate;
+    }
+
+    /** ACTIVE and PLANNED TechWatches, in date order. */
+    public List<TechWatch> listOpen() {
+        return list("status <> ?1", Sort.by("date").ascending(), TechWatchStatus.COMPLETED);
+    }
+
+    /** Ids of the links attached to the ACTIVE TechWatch. */
+    public List<Long> linkIdsOfActive() {
+        return getEntityManager().createQuery(
+                        "select distinct l.id from Link l join l.techWatches t where t.status = :active", Long.class)
+                .setParameter("active", TechWatchStatus.ACTIVE)
+                .getResultList();
+    }
+
+    /**
+     * Inserts the link_techwatch rows attaching each link to its TechWatch, in JDBC batches. The rows are
+     * written behind the {@code Link.techWatches} collections, which must not be loaded for these links
+     * in the current session; pending changes are flushed first so that new TechWatches exist.
+     */
+    public void attachLinks(Map<Long, Long> techWatchIdByLinkId) {
+        if (techWatchIdByLinkId.isEmpty()) return;
+        flush();
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into link_techwatch (link_id, techwatch_id) values (?, ?)")) {
+                int pending = 0;
+                for (Map.Entry<Long, Long> row : techWatchIdByLinkId.entrySet()) {
+                    insert.setLong(1, row.getKey());
+                    insert.setLong(2, row.getValue());
+                    insert.addBatch();
+                    if (++pending == statementBatchSize) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Adds each delta to the link count of its TechWatch, in JDBC batches. The updates are relative, so
+     * concurrent transactions attaching links to the same TechWatch add up instead of overwriting each other.
+     * Pending changes are flushed first so that new TechWatches exist. Fires a {@link TechWatchChangedEvent}.
+     */
+    public void adjustLinkCounts(Map<Long, Long> deltaByTechWatchId) {
+        if (deltaByTechWatchId.values().stream().allMatch(delta -> delta == 0)) return;
+        flush();
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update techwatch set linkCount = linkCount + ? where id = ?")) {
+                int pending = 0;
+                for (Map.Entry<Long, Long> row : deltaByTechWatchId.entrySet()) {
+                    if (row.getValue() == 0) continue;
+                    update.setLong(1, row.getValue());
+                    update.setLong(2, row.getKey());
+                    update.addBatch();
+                    if (++pending == statementBatchSize) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) update.executeBatch();
+            }
+        });
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
+    }
+
+    /** TechWatches whose stored link count differs from their number of link_techwatch rows, by date. */
+    public List<LinkCountDrift> findLinkCountDrifts() {
+        flush();
+        List<Object[]> rows = getEntityManager().createQuery(
+                        "select t.id, t.date, t.linkCount, (select count(l) from Link l join l.techWatches lt where lt.id = t.id) "
+                                + "from TechWatch t order by t.date", Object[].class)
+                .getResultList();
+        List<LinkCountDrift> drifts = new ArrayList<>();
+        for (Object[] row : rows) {
+            long stored = ((Integer) row[2]).longValue();
+            long actual = (Long) row[3];
+            if (stored != actual) drifts.add(new LinkCountDrift((Long) row[0], (LocalDate) row[1], stored, actual));
+        }
+        return drifts;
+    }
+
+    /** Recomputes the link count of every TechWatch from link_techwatch in one statement; returns the rows fixed. */
+    public int rebuildLinkCounts() {
+        flush();
+        int fixed = getEntityManager().createNativeQuery(
+                        "update techwatch set linkCount = (select count(*) from link_techwatch lt where lt.techwatch_id = techwatch.id) "
+                                + "where linkCount <> (select count(*) from link_techwatch lt where lt.techwatch_id = techwatch.id)")
+                .executeUpdate();
+        if (fixed > 0) techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
+        return fixed;
+    }
 }
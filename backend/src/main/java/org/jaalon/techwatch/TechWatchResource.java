@@ -1,13 +1,15 @@
 package org.jaalon.techwatch;
 
-import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.jaalon.links.Link;
+import org.jaalon.exchange.tombstones.TombstoneRepository;
+import org.jaalon.links.dto.LinkIdsDTO;
+import org.jaalon.links.dto.LinkListItemDTO;
 
 import java.net.URI;
 import java.util.List;
@@ -23,9 +25,18 @@ public class TechWatchResource {
     @Inject
     TechWatchService techWatchService;
 
+    @Inject
+    TombstoneRepository tombstoneRepository;
+
+    @Inject
+    TechWatchCache techWatchCache;
+
+    @Inject
+    Event<TechWatchChangedEvent> techWatchChanges;
+
     @GET
     public List<TechWatch> list() {
-        return techWatchRepository.listAll(Sort.by("date").descending());
+        return techWatchCache.list();
     }
 
     @GET
@@ -58,15 +69,31 @@ public class TechWatchResource {
             m.status = TechWatchStatus.ACTIVE;
         }
         techWatchRepository.persist(m);
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
         return Response.created(URI.create("/api/techwatch/" + m.id)).entity(m).build();
     }
 
     @GET
     @Path("/active")
     public Response getActive() {
-        TechWatch active = techWatchRepository.find("status = ?1", TechWatchStatus.ACTIVE).firstResult();
-        if (active == null) return Response.status(204).build();
-        return Response.ok(active).build();
+        return techWatchCache.active()
+                .map(active -> Response.ok(active).build())
+                .orElseGet(() -> Response.status(204).build());
+    }
+
+    /** TechWatches whose stored link count differs from their attached links; empty when all are consistent. */
+    @GET
+    @Path("/link-counts")
+    public List<LinkCountDrift> checkLinkCounts() {
+        return techWatchService.checkLinkCounts(false);
+    }
+
+    /** Recomputes the stored link counts from the attached links; returns the TechWatches that were fixed. */
+    @POST
+    @Path("/link-counts/rebuild")
+    @Consumes(MediaType.WILDCARD)
+    public List<LinkCountDrift> rebuildLinkCounts() {
+        return techWatchService.checkLinkCounts(true);
     }
 
     @POST
@@ -80,6 +107,7 @@ public class TechWatchResource {
         if (active > 0) throw new ClientErrorException("An active TechWatch already exists", 409);
         if (m.date == null) throw new BadRequestException("date is required to activate");
         m.status = TechWatchStatus.ACTIVE;
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
         return m;
     }
 
@@ -92,6 +120,7 @@ public class TechWatchResource {
         if (m == null) throw new NotFoundException();
         m.status = TechWatchStatus.COMPLETED;
         promoteNextOrCreate(m);
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
         return m;
     }
 
@@ -103,18 +132,26 @@ public class TechWatchResource {
         TechWatch m = techWatchRepository.findById(id);
         if (m == null) throw new NotFoundException();
         if (m.status != TechWatchStatus.ACTIVE) throw new BadRequestException("TechWatch must be ACTIVE to collect links");
-        int assigned = techWatchService.distributeNextLinks();
-        return Response.ok().entity(assigned).build();
+        AssignmentReport report = techWatchService.distributeNextLinks();
+        return Response.ok().entity(report).build();
     }
 
     @GET
     @Path("/{id}/links")
-    public List<Link> listLinks(@PathParam("id") Long id) {
+    public List<LinkListItemDTO> listLinks(@PathParam("id") Long id) {
         TechWatch m = techWatchRepository.findById(id);
         if (m == null) throw new NotFoundException();
         return techWatchService.listLinks(id);
     }
 
+    /** Attaches many links to this TechWatch, up to its capacity; the report gives the outcome per link. */
+    @POST
+    @Path("/{id}/links:batch")
+    @Transactional
+    public BatchAssignmentReport addLinks(@PathParam("id") Long id, @Valid LinkIdsDTO dto) {
+        return techWatchService.addLinksToTechWatch(id, dto != null ? dto.ids : null);
+    }
+
     @DELETE
     @Path("/{id}/links/{linkId}")
     @Transactional
@@ -141,6 +178,8 @@ public class TechWatchResource {
             if (existing != null && !existing.id.equals(m.id)) {
                 throw new ClientErrorException("A TechWatch already exists for the selected date", 409);
             }
+            // Other installations know the TechWatch by its former date
+            tombstoneRepository.record("TechWatch", m.date.toString());
             m.date = dto.date();
         }
 
@@ -168,6 +207,7 @@ public class TechWatchResource {
         if (prevStatus == TechWatchStatus.ACTIVE && m.status != TechWatchStatus.ACTIVE) {
             promoteNextOrCreate(m);
         }
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
         return m;
     }
 
@@ -179,10 +219,12 @@ public class TechWatchResource {
         if (reference == null) throw new NotFoundException();
         boolean wasActive = reference.status == TechWatchStatus.ACTIVE;
         // Keep reference data (date) before deletion for creation logic
+        tombstoneRepository.record("TechWatch", reference.date.toString());
         techWatchRepository.delete(reference);
         if (wasActive) {
             promoteNextOrCreate(reference);
         }
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
         return Response.noContent().build();
     }
 
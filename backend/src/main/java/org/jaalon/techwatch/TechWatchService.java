@@ -1,19 +1,25 @@
 package org.jaalon.techwatch;
 
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotFoundException;
 import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
 import org.jaalon.links.LinkStatus;
+import org.jaalon.links.dto.LinkListItemDTO;
 
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @ApplicationScoped
 public class TechWatchService {
@@ -24,22 +30,11 @@ public class TechWatchService {
     @Inject
     LinkRepository linkRepository;
 
-    public long countLinks(long techwatchId) {
-        var em = linkRepository.getEntityManager();
-        Long count = em.createQuery(
-                "select count(l) from Link l join l.techWatches t where t.id = :twId", Long.class)
-                .setParameter("twId", techwatchId)
-                .getSingleResult();
-        return count != null ? count : 0L;
-    }
+    @Inject
+    Event<TechWatchChangedEvent> techWatchChanges;
 
-    public List<Link> listLinks(long techwatchId) {
-        var em = linkRepository.getEntityManager();
-        return em.createQuery(
-                        "select l from Link l join l.techWatches t where t.id = :twId order by l.date desc",
-                        Link.class)
-                .setParameter("twId", techwatchId)
-                .getResultList();
+    public List<LinkListItemDTO> listLinks(long techwatchId) {
+        return linkRepository.listItemsOfTechWatch(techwatchId);
     }
 
     /**
@@ -55,32 +50,25 @@ public class TechWatchService {
         if (!removed) {
             throw new NotFoundException();
         }
+        tw.touch();
+        techWatchRepository.adjustLinkCounts(Map.of(tw.id, -1L));
         // Do not change link.status automatically.
     }
 
+    /** Decrements the link counts of the TechWatches a link is attached to; called before the link is deleted. */
+    public void releaseLink(Link link) {
+        Map<Long, Long> detached = new HashMap<>();
+        for (TechWatch tw : link.techWatches) detached.put(tw.id, -1L);
+        techWatchRepository.adjustLinkCounts(detached);
+    }
+
     /**
      * Finds the earliest by date TechWatch (ACTIVE or PLANNED) that still has capacity.
      * If none exists, creates one dated +7 days after the latest PLANNED (or ACTIVE if none PLANNED) and returns it.
      */
     @Transactional
     public TechWatch findOrCreateNextAvailable() {
-        List<TechWatch> all = techWatchRepository.listAll(Sort.by("date").ascending());
-        // Prefer ACTIVE/PLANNED only
-        all.removeIf(tw -> tw.status == TechWatchStatus.COMPLETED);
-        for (TechWatch tw : all) {
-            if (countLinks(tw.id) < tw.maxArticles) {
-                return tw;
-            }
-        }
-        // None has capacity or none exists: create new +7 days after latest date
-        Optional<LocalDate> latest = all.stream().map(t -> t.date).max(Comparator.naturalOrder());
-        LocalDate base = latest.orElse(LocalDate.now());
-        TechWatch created = new TechWatch();
-        created.date = base.plusDays(7);
-        created.status = TechWatchStatus.PLANNED;
-        created.maxArticles = 10; // default
-        techWatchRepository.persist(created);
-        return created;
+        return nextAvailable(planner());
     }
 
     /** Assign a single link to the next available TechWatch with capacity. */
@@ -89,36 +77,132 @@ public class TechWatchService {
         Link link = linkRepository.findById(linkId);
         if (link == null) throw new NotFoundException();
         if (link.status == LinkStatus.REJECT) throw new BadRequestException("Cannot assign a rejected link");
-        TechWatch target = findOrCreateNextAvailable();
-        // Add association without removing previous ones
-        if (!link.techWatches.contains(target)) {
-            link.techWatches.add(target);
-        }
-        // Consider KEEP when assigned to any TechWatch
-        if (link.status == LinkStatus.NEXT_TECHWATCH || link.status == LinkStatus.TO_PROCESS) {
-            link.status = LinkStatus.KEEP;
-        }
+        CapacityPlanner planner = planner();
+        TechWatch target = nextAvailable(planner);
+        assign(link, target, planner);
+        techWatchRepository.adjustLinkCounts(planner.assignedCounts());
         return target;
     }
 
     /**
      * Distribute all NEXT_TECHWATCH links across TechWatches by date, respecting capacity, spillover creating new dates if needed.
-     * Returns the number of links assigned.
+     * Capacities are read once, from the link counts of the open TechWatches, and then tracked in memory for the
+     * whole distribution; the stored counts are updated at the end.
      */
     @Transactional
-    public int distributeNextLinks() {
+    public AssignmentReport distributeNextLinks() {
         List<Link> next = linkRepository.list("status = ?1", LinkStatus.NEXT_TECHWATCH);
-        int assigned = 0;
+        CapacityPlanner planner = planner();
         for (Link l : next) {
-            TechWatch target = findOrCreateNextAvailable();
-            if (!l.techWatches.contains(target)) {
-                l.techWatches.add(target);
-                assigned++;
+            assign(l, nextAvailable(planner), planner);
+        }
+        techWatchRepository.adjustLinkCounts(planner.assignedCounts());
+        return planner.report();
+    }
+
+    /**
+     * Assigns many links to the next TechWatches with capacity, in the given order, as {@link #assignLinkToNext}
+     * does for one. Statuses and current associations are read with one query each, and the new associations
+     * are inserted in JDBC batches.
+     */
+    @Transactional
+    public BatchAssignmentReport assignBatchToNext(List<Long> linkIds) {
+        return assignBatch(linkIds, planner(), true);
+    }
+
+    /**
+     * Attaches many links to the given TechWatch, up to its capacity; the links beyond are reported FULL.
+     * A COMPLETED TechWatch is closed: 409.
+     */
+    @Transactional
+    public BatchAssignmentReport addLinksToTechWatch(long techwatchId, List<Long> linkIds) {
+        TechWatch tw = techWatchRepository.findById(techwatchId);
+        if (tw == null) throw new NotFoundException();
+        if (tw.status == TechWatchStatus.COMPLETED) {
+            throw new ClientErrorException("Links cannot be added to a completed TechWatch", 409);
+        }
+        return assignBatch(linkIds, new CapacityPlanner(List.of(tw)), false);
+    }
+
+    /** TechWatches whose stored link count is wrong, with the actual count; {@code rebuild} also fixes them. */
+    @Transactional
+    public List<LinkCountDrift> checkLinkCounts(boolean rebuild) {
+        List<LinkCountDrift> drifts = techWatchRepository.findLinkCountDrifts();
+        if (rebuild && !drifts.isEmpty()) techWatchRepository.rebuildLinkCounts();
+        return drifts;
+    }
+
+    private BatchAssignmentReport assignBatch(List<Long> linkIds, CapacityPlanner planner, boolean createWhenFull) {
+        if (linkIds == null || linkIds.isEmpty()) throw new BadRequestException("ids are required");
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(linkIds));
+        ids.remove(null);
+        Map<Long, LinkStatus> statuses = linkRepository.findStatuses(ids);
+        Map<Long, Set<Long>> attached = linkRepository.techWatchIdsByLink(ids);
+        List<LinkAssignment> links = new ArrayList<>();
+        Map<Long, Long> toAttach = new LinkedHashMap<>();
+        List<Long> kept = new ArrayList<>();
+        for (Long id : ids) {
+            LinkStatus status = statuses.get(id);
+            if (status == null) {
+                links.add(LinkAssignment.skipped(id, LinkAssignment.Outcome.NOT_FOUND));
+                continue;
             }
-            if (l.status == LinkStatus.NEXT_TECHWATCH || l.status == LinkStatus.TO_PROCESS) {
-                l.status = LinkStatus.KEEP;
+            if (status == LinkStatus.REJECT) {
+                links.add(LinkAssignment.skipped(id, LinkAssignment.Outcome.REJECTED));
+                continue;
             }
+            TechWatch target = createWhenFull ? nextAvailable(planner) : planner.next();
+            if (target == null) {
+                links.add(LinkAssignment.skipped(id, LinkAssignment.Outcome.FULL));
+                continue;
+            }
+            if (attached.getOrDefault(id, Set.of()).contains(target.id)) {
+                links.add(LinkAssignment.to(id, target, LinkAssignment.Outcome.ALREADY_ASSIGNED));
+            } else {
+                toAttach.put(id, target.id);
+                target.touch();
+                planner.assigned();
+                links.add(LinkAssignment.to(id, target, LinkAssignment.Outcome.ASSIGNED));
+            }
+            kept.add(id);
+        }
+        techWatchRepository.attachLinks(toAttach);
+        techWatchRepository.adjustLinkCounts(planner.assignedCounts());
+        linkRepository.keepAssigned(kept);
+        AssignmentReport report = planner.report();
+        return new BatchAssignmentReport(report.assigned(), links, report.techWatches());
+    }
+
+    private CapacityPlanner planner() {
+        return new CapacityPlanner(techWatchRepository.listOpen());
+    }
+
+    private TechWatch nextAvailable(CapacityPlanner planner) {
+        TechWatch available = planner.next();
+        if (available != null) return available;
+        // None has capacity or none exists: create new +7 days after latest date
+        LocalDate latest = planner.latestDate();
+        LocalDate base = latest != null ? latest : LocalDate.now();
+        TechWatch created = new TechWatch();
+        created.date = base.plusDays(7);
+        created.status = TechWatchStatus.PLANNED;
+        created.maxArticles = 10; // default
+        techWatchRepository.persist(created);
+        techWatchChanges.fire(TechWatchChangedEvent.INSTANCE);
+        planner.created(created);
+        return planner.next();
+    }
+
+    // Adds the association without removing previous ones
+    private void assign(Link link, TechWatch target, CapacityPlanner planner) {
+        if (!link.techWatches.contains(target)) {
+            link.techWatches.add(target);
+            target.touch();
+            planner.assigned();
+        }
+        // Consider KEEP when assigned to any TechWatch
+        if (link.status == LinkStatus.NEXT_TECHWATCH || link.status == LinkStatus.TO_PROCESS) {
+            link.status = LinkStatus.KEEP;
         }
-        return assigned;
     }
 }
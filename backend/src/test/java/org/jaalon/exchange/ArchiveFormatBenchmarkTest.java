@@ -0,0 +1,143 @@
+package org.jaalon.exchange;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.jaalon.exchange.dto.LinkExport;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the archive encodings on a links.json-like payload: raw and deflated size, encode and decode
+ * throughput. Only the relative sizes are asserted, timings are logged for information.
+ * <p>
+ * Tagged {@code benchmark}: excluded from {@code test}, run with {@code gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ArchiveFormatBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(ArchiveFormatBenchmarkTest.class);
+
+    private static final int LINKS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private enum Encoding {
+        PRETTY_JSON(new ObjectMapper(), true),
+        COMPACT_JSON(new ObjectMapper(), false),
+        SMILE(new ObjectMapper(new SmileFactory()), false);
+
+        final ObjectMapper mapper;
+        final boolean pretty;
+
+        Encoding(ObjectMapper mapper, boolean pretty) {
+            this.mapper = mapper;
+            this.pretty = pretty;
+        }
+    }
+
+    private record Result(int size, int deflatedSize, double encodeMbPerSecond, double decodeMbPerSecond) {
+    }
+
+    @Test
+    void smile_isSmallerThanCompactJson_whichIsSmallerThanPrettyJson() throws IOException {
+        List<LinkExport> links = links();
+        Result pretty = measure(Encoding.PRETTY_JSON, links);
+        Result compact = measure(Encoding.COMPACT_JSON, links);
+        Result smile = measure(Encoding.SMILE, links);
+
+        assertTrue(compact.size() < pretty.size());
+        assertTrue(smile.size() < compact.size());
+        assertTrue(compact.deflatedSize() <= pretty.deflatedSize());
+    }
+
+    private static Result measure(Encoding encoding, List<LinkExport> links) throws IOException {
+        byte[] encoded = encode(encoding, links);
+        assertEquals(links.size(), decode(encoding, encoded));
+
+        // First round warms the code paths up and is not counted
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            encode(encoding, links);
+            long middle = System.nanoTime();
+            decode(encoding, encoded);
+            long decoded = System.nanoTime();
+            if (round > 0) {
+                encodeNanos += middle - start;
+                decodeNanos += decoded - middle;
+            }
+        }
+        double megabytes = encoded.length * (double) ROUNDS / (1024 * 1024);
+        Result result = new Result(encoded.length, deflate(encoded).length,
+                megabytes / (encodeNanos / 1e9), megabytes / (decodeNanos / 1e9));
+        LOG.infof("%-12s %,11d bytes, %,10d deflated, encode %7.1f MB/s, decode %7.1f MB/s",
+                encoding, result.size(), result.deflatedSize(), result.encodeMbPerSecond(), result.decodeMbPerSecond());
+        return result;
+    }
+
+    // Streams the array element by element, as the exporters do
+    private static byte[] encode(Encoding encoding, List<LinkExport> links) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = encoding.mapper.createGenerator(out)) {
+            if (encoding.pretty) generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            for (LinkExport link : links) generator.writeObject(link);
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    // Reads the array element by element, as ZipService.readArray does
+    private static int decode(Encoding encoding, byte[] bytes) throws IOException {
+        int count = 0;
+        try (JsonParser parser = encoding.mapper.createParser(new ByteArrayInputStream(bytes))) {
+            parser.nextToken();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                encoding.mapper.readValue(parser, LinkExport.class);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] deflate(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION))) {
+            deflater.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<LinkExport> links() {
+        List<LinkExport> links = new ArrayList<>(LINKS);
+        for (int i = 0; i < LINKS; i++) {
+            LinkedHashSet<String> tags = new LinkedHashSet<>();
+            tags.add("tag-" + (i % 40));
+            if (i % 3 == 0) tags.add("java");
+            links.add(new LinkExport(
+                    "Article number " + i + " about software engineering",
+                    "https://blog.example/" + (i % 200) + "/posts/article-" + i,
+                    "A short description of article " + i + ", as found in the page metadata.",
+                    i % 2 == 0 ? "Summary of article " + i + ": the main points, in a few sentences." : null,
+                    tags,
+                    String.format("%064x", i)));
+        }
+        return links;
+    }
+}
@@ -1,9 +1,16 @@
 package org.jaalon.exchange;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jaalon.exchange.exporters.TechWatchExporter;
 import org.jaalon.promptinstruction.PromptInstruction;
 import org.jaalon.promptinstruction.PromptInstructionRepository;
 import org.jaalon.links.Link;
@@ -19,8 +26,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -38,6 +50,9 @@ class DataExchangeResourceTest {
     @Inject TechWatchRepository techWatchRepo;
     @Inject TagRepository tagRepo;
     @Inject LinkRepository linkRepo;
+    @Inject ObjectMapper mapper;
+    @Inject SessionFactory sessionFactory;
+    @Inject TechWatchExporter techWatchExporter;
 
     private byte[] zipOf(String name, String json) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -81,6 +96,347 @@ class DataExchangeResourceTest {
         assertTrue(funcNames.contains(DataExchangeFiles.TAGS.fileName()));
     }
 
+    private Map<String, byte[]> zipEntries(byte[] zipBytes) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipBytes))) {
+            ZipEntry e;
+            while ((e = zis.getNextEntry()) != null) {
+                entries.put(e.getName(), zis.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    void export_streamsEveryLinkAcrossBatches() throws Exception {
+        // The test profile reads 2 entities per batch: 5 links span 3 batches
+        QuarkusTransaction.requiringNew().run(() -> {
+            Tag tag = new Tag();
+            tag.name = "streamed-export";
+            tagRepo.persist(tag);
+            for (int i = 0; i < 5; i++) {
+                Link link = new Link();
+                link.title = "Streamed " + i;
+                link.url = "https://export.example/streamed-" + i;
+                link.content = "Never exported";
+                link.tags.add(tag);
+                linkRepo.persist(link);
+            }
+        });
+
+        byte[] zip = given().when()
+                .get("/api/data-exchange/export/functional")
+                .then().statusCode(200)
+                .extract().asByteArray();
+
+        JsonNode links = mapper.readTree(zipEntries(zip).get(DataExchangeFiles.LINKS.fileName()));
+        assertTrue(links.isArray());
+        int streamed = 0;
+        for (JsonNode link : links) {
+            if (!link.get("url").asText().startsWith("https://export.example/streamed-")) continue;
+            streamed++;
+            assertEquals("streamed-export", link.get("tags").get(0).asText());
+            assertFalse(link.has("content"));
+        }
+        assertEquals(5, streamed);
+    }
+
+    @Test
+    void exportTechWatches_readsLinkUrlsWithOneGroupedQueryPerBatch() throws Exception {
+        LocalDate base = LocalDate.of(2032, 3, 1);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int w = 0; w < 5; w++) {
+                TechWatch tw = new TechWatch();
+                tw.date = base.plusWeeks(w);
+                tw.status = TechWatchStatus.PLANNED;
+                tw.maxArticles = 10;
+                techWatchRepo.persist(tw);
+                for (int i = 0; i < 3; i++) {
+                    Link link = new Link();
+                    link.title = "Exported " + w + "-" + i;
+                    link.url = "https://export.example/tw-" + w + "-" + i;
+                    link.techWatches.add(tw);
+                    linkRepo.persist(link);
+                }
+            }
+        });
+        long techWatches = QuarkusTransaction.requiringNew().call(() -> techWatchRepo.count());
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            techWatchExporter.write(generator, 2, null);
+            generator.writeEndArray();
+        }
+        long statements = statistics.getPrepareStatementCount();
+
+        JsonNode exported = mapper.readTree(out.toByteArray());
+        assertEquals(techWatches, exported.size());
+        for (JsonNode tw : exported) {
+            if (!tw.get("date").asText().startsWith("2032-")) continue;
+            long w = ChronoUnit.WEEKS.between(base, LocalDate.parse(tw.get("date").asText()));
+            Set<String> urls = new HashSet<>();
+            for (JsonNode url : tw.get("linkUrls")) urls.add(url.asText());
+            assertEquals(Set.of("https://export.example/tw-" + w + "-0", "https://export.example/tw-" + w + "-1",
+                    "https://export.example/tw-" + w + "-2"), urls);
+        }
+        // Per batch of 2: the TechWatches, then the URLs of their links; never a query per TechWatch or per link
+        long batches = techWatches / 2 + 1;
+        assertTrue(statements <= 2 * batches, "Got " + statements + " statements for " + batches + " batches");
+    }
+
+    @Test
+    void exportContent_isStoredOncePerHashAndRestoredOnImport() throws Exception {
+        String shared = "# Shared article\n\nSaved twice.";
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String name : List.of("a", "b", "c")) {
+                Link link = new Link();
+                link.title = "Content " + name;
+                link.url = "https://content.example/" + name;
+                link.setContent(name.equals("c") ? "# Another article" : shared);
+                linkRepo.persist(link);
+            }
+        });
+        String sharedHash = Link.contentHash(shared);
+
+        byte[] zip = given().when()
+                .get("/api/data-exchange/export/functional")
+                .then().statusCode(200)
+                .extract().asByteArray();
+
+        Map<String, byte[]> entries = zipEntries(zip);
+        assertEquals(shared, new String(entries.get(DataExchangeFiles.contentFileName(sharedHash)), StandardCharsets.UTF_8));
+        assertTrue(entries.containsKey(DataExchangeFiles.contentFileName(Link.contentHash("# Another article"))));
+        Map<String, String> hashByUrl = new HashMap<>();
+        for (JsonNode link : mapper.readTree(entries.get(DataExchangeFiles.LINKS.fileName()))) {
+            if (link.get("url").asText().startsWith("https://content.example/")) {
+                hashByUrl.put(link.get("url").asText(), link.get("contentHash").asText());
+            }
+        }
+        assertEquals(sharedHash, hashByUrl.get("https://content.example/a"));
+        assertEquals(sharedHash, hashByUrl.get("https://content.example/b"));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            linkRepo.delete(linkRepo.find("url", "https://content.example/a").firstResult());
+            linkRepo.find("url", "https://content.example/b").firstResult().setContent("# Edited locally");
+        });
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String url : List.of("https://content.example/a", "https://content.example/b")) {
+                Link link = linkRepo.find("url", url).firstResult();
+                assertEquals(shared, link.content);
+                assertEquals(sharedHash, link.contentHash);
+            }
+        });
+    }
+
+    @Test
+    void import_rejectsContentNotMatchingItsHash() throws Exception {
+        String hash = Link.contentHash("# Original");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.LINKS.fileName()));
+            zos.write(("[{\"title\":\"Tampered\", \"url\":\"https://content.example/tampered\", \"contentHash\":\"" + hash + "\"}]")
+                    .getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.contentFileName(hash)));
+            zos.write("# Tampered".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+
+        given().contentType("application/zip").body(baos.toByteArray())
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(400);
+    }
+
+    @Test
+    void exportSince_containsModifiedEntitiesAndDeletionsOnly() throws Exception {
+        Long[] ids = new Long[2];
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 2; i++) {
+                Link link = new Link();
+                link.title = "Delta old " + i;
+                link.url = "https://delta.example/old-" + i;
+                linkRepo.persist(link);
+                ids[i] = link.id;
+            }
+        });
+        Thread.sleep(20);
+        Instant since = Instant.now();
+        Thread.sleep(20);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link link = new Link();
+            link.title = "Delta new";
+            link.url = "https://delta.example/new";
+            linkRepo.persist(link);
+            linkRepo.findById(ids[1]).title = "Delta old 1 (edited)";
+        });
+        given().when().delete("/api/links/" + ids[0]).then().statusCode(204);
+
+        byte[] zip = given().queryParam("since", since.toString())
+                .when().get("/api/data-exchange/export/functional")
+                .then().statusCode(200)
+                .header("X-Export-Time", notNullValue())
+                .extract().asByteArray();
+
+        Map<String, byte[]> entries = zipEntries(zip);
+        Set<String> urls = new HashSet<>();
+        for (JsonNode link : mapper.readTree(entries.get(DataExchangeFiles.LINKS.fileName()))) {
+            urls.add(link.get("url").asText());
+        }
+        assertEquals(Set.of("https://delta.example/new", "https://delta.example/old-1"), urls);
+
+        JsonNode deletions = mapper.readTree(entries.get(DataExchangeFiles.DELETIONS.fileName()));
+        assertEquals(1, deletions.size());
+        assertEquals("Link", deletions.get(0).get("entity").asText());
+        assertEquals("https://delta.example/old-0", deletions.get(0).get("key").asText());
+    }
+
+    @Test
+    void exportSince_recordsTheFormerDateOfAMovedTechWatchAsDeleted() throws Exception {
+        Long[] id = new Long[1];
+        QuarkusTransaction.requiringNew().run(() -> {
+            TechWatch tw = new TechWatch();
+            tw.date = LocalDate.of(2034, 3, 1);
+            techWatchRepo.persist(tw);
+            id[0] = tw.id;
+        });
+        Thread.sleep(20);
+        Instant since = Instant.now();
+        Thread.sleep(20);
+
+        given().contentType(ContentType.JSON)
+                .body(Map.of("date", "2034-03-08"))
+                .when().put("/api/techwatch/" + id[0])
+                .then().statusCode(200);
+
+        byte[] zip = given().queryParam("since", since.toString())
+                .when().get("/api/data-exchange/export/functional")
+                .then().statusCode(200)
+                .extract().asByteArray();
+
+        Map<String, byte[]> entries = zipEntries(zip);
+        JsonNode deletions = mapper.readTree(entries.get(DataExchangeFiles.DELETIONS.fileName()));
+        assertEquals(1, deletions.size());
+        assertEquals("TechWatch", deletions.get(0).get("entity").asText());
+        assertEquals("2034-03-01", deletions.get(0).get("key").asText());
+    }
+
+    @Test
+    void exportSmile_isAnnouncedByTheManifestAndImportedBack() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link link = new Link();
+            link.title = "Smile link";
+            link.url = "https://smile.example/link";
+            linkRepo.persist(link);
+        });
+
+        byte[] zip = given().queryParam("format", "smile")
+                .when().get("/api/data-exchange/export/functional")
+                .then().statusCode(200)
+                .extract().asByteArray();
+
+        Map<String, byte[]> entries = zipEntries(zip);
+        JsonNode manifest = mapper.readTree(entries.get(DataExchangeFiles.MANIFEST.fileName()));
+        assertEquals("smile", manifest.get("format").asText());
+        assertEquals("functional", manifest.get("type").asText());
+        // Smile header ":)\n" instead of a JSON array
+        byte[] links = entries.get(DataExchangeFiles.LINKS.fileName());
+        assertEquals(':', links[0]);
+        assertEquals(')', links[1]);
+
+        QuarkusTransaction.requiringNew().run(() -> linkRepo.delete(linkRepo.find("url", "https://smile.example/link").firstResult()));
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200);
+
+        QuarkusTransaction.requiringNew().run(() ->
+                assertEquals("Smile link", linkRepo.find("url", "https://smile.example/link").firstResult().title));
+    }
+
+    @Test
+    void export_isCompactJsonByDefault() throws Exception {
+        byte[] zip = given().when()
+                .get("/api/data-exchange/export/technical")
+                .then().statusCode(200)
+                .extract().asByteArray();
+
+        Map<String, byte[]> entries = zipEntries(zip);
+        assertEquals("json", mapper.readTree(entries.get(DataExchangeFiles.MANIFEST.fileName())).get("format").asText());
+        String prompts = new String(entries.get(DataExchangeFiles.PROMPTS.fileName()), StandardCharsets.UTF_8);
+        assertFalse(prompts.contains("\n"));
+    }
+
+    @Test
+    void export_rejectsUnknownFormat() {
+        given().queryParam("format", "xml")
+                .when().get("/api/data-exchange/export/functional")
+                .then().statusCode(400);
+    }
+
+    @Test
+    void exportSince_rejectsInvalidInstant() {
+        given().queryParam("since", "yesterday")
+                .when().get("/api/data-exchange/export/functional")
+                .then().statusCode(400);
+    }
+
+    @Test
+    void execute_appliesDeletionsUnlessModifiedLocallyAfterwards() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String name : List.of("removed", "kept")) {
+                Link link = new Link();
+                link.title = name;
+                link.url = "https://delta.example/import-" + name;
+                linkRepo.persist(link);
+            }
+        });
+        String deletedAt = Instant.now().minusSeconds(3600).toString();
+        String deletions = "[ {\"entity\":\"Link\", \"key\":\"https://delta.example/import-removed\", \"deletedAt\":\"" + Instant.now() + "\"},"
+                + " {\"entity\":\"Link\", \"key\":\"https://delta.example/import-kept\", \"deletedAt\":\"" + deletedAt + "\"} ]";
+        byte[] zip = zipOf(DataExchangeFiles.DELETIONS.fileName(), deletions);
+
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(0, linkRepo.count("url", "https://delta.example/import-removed"));
+            // Created after the remote deletion: the local row wins
+            assertEquals(1, linkRepo.count("url", "https://delta.example/import-kept"));
+        });
+    }
+
+    @Test
+    void execute_skipsDeletionsWithAMalformedKey() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link link = new Link();
+            link.title = "removed despite a bad sibling";
+            link.url = "https://delta.example/import-malformed-sibling";
+            linkRepo.persist(link);
+        });
+        String now = Instant.now().toString();
+        String deletions = "[ {\"entity\":\"TechWatch\", \"key\":\"not-a-date\", \"deletedAt\":\"" + now + "\"},"
+                + " {\"entity\":\"AiApiKey\", \"key\":\"no-provider\", \"deletedAt\":\"" + now + "\"},"
+                + " {\"entity\":\"Link\", \"key\":\"https://delta.example/import-malformed-sibling\", \"deletedAt\":\"" + now + "\"} ]";
+        byte[] zip = zipOf(DataExchangeFiles.DELETIONS.fileName(), deletions);
+
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200)
+            .body("files[0].imported", equalTo(1))
+            .body("files[0].skipped", equalTo(2));
+
+        QuarkusTransaction.requiringNew().run(() ->
+                assertEquals(0, linkRepo.count("url", "https://delta.example/import-malformed-sibling")));
+    }
+
     @Test
     @Transactional
     void analyze_detectsPromptInstructionConflictOnStringId() throws Exception {
@@ -101,6 +457,103 @@ class DataExchangeResourceTest {
             .body("newItems.find { it.entity == 'PromptInstruction' && it.key == 'summary' }", nullValue());
     }
 
+    @Test
+    void analyzeStream_emitsConflictsOfEveryAnalyzerAsNdjson() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            PromptInstruction pi = promptRepo.findById("stream-prompt");
+            if (pi == null) {
+                pi = new PromptInstruction();
+                pi.type = "stream-prompt";
+                promptRepo.persist(pi);
+            }
+            pi.content = "A";
+            if (tagRepo.find("name", "stream-tag").firstResultOptional().isEmpty()) {
+                Tag tag = new Tag();
+                tag.name = "stream-tag";
+                tagRepo.persist(tag);
+            }
+        });
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.PROMPTS.fileName()));
+            zos.write("[ {\"type\":\"stream-prompt\", \"content\":\"B\"} ]".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.TAGS.fileName()));
+            zos.write("[ {\"name\":\"stream-tag\"} ]".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+
+        String body = given().contentType("application/zip").body(baos.toByteArray())
+        .when().post("/api/data-exchange/import/analyze/stream")
+        .then().statusCode(200)
+            .contentType(containsString("application/x-ndjson"))
+            .extract().asString();
+
+        Set<String> keys = new HashSet<>();
+        for (String line : body.split("\n")) {
+            if (line.isBlank()) continue;
+            JsonNode conflict = mapper.readTree(line);
+            keys.add(conflict.get("entity").asText() + ":" + conflict.get("key").asText());
+        }
+        // The identical tag is analyzed alongside but is not a conflict
+        assertEquals(Set.of("PromptInstruction:stream-prompt"), keys);
+    }
+
+    @Test
+    void analyzeStream_rejectsMalformedJsonBeforeStreaming() throws Exception {
+        byte[] zip = zipOf(DataExchangeFiles.TAGS.fileName(), "[ {\"name\":\"truncated\"}");
+
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/analyze/stream")
+        .then().statusCode(400);
+    }
+
+    @Test
+    void analyze_comparesTechWatchLinksWithOneGroupedQuery() throws Exception {
+        LocalDate base = LocalDate.of(2031, 1, 5);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int w = 0; w < 3; w++) {
+                TechWatch tw = new TechWatch();
+                tw.date = base.plusWeeks(w);
+                tw.status = TechWatchStatus.PLANNED;
+                tw.maxArticles = 10;
+                techWatchRepo.persist(tw);
+                for (int i = 0; i < 2; i++) {
+                    Link link = new Link();
+                    link.title = "Grouped " + w + "-" + i;
+                    link.url = "https://analyze.example/grouped-" + w + "-" + i;
+                    link.techWatches.add(tw);
+                    linkRepo.persist(link);
+                }
+            }
+        });
+        StringBuilder twJson = new StringBuilder("[");
+        for (int w = 0; w < 3; w++) {
+            if (w > 0) twJson.append(',');
+            // Week 1 loses its second link: the only conflict
+            String urls = w == 1
+                    ? "\"https://analyze.example/grouped-1-0\""
+                    : "\"https://analyze.example/grouped-" + w + "-1\", \"https://analyze.example/grouped-" + w + "-0\"";
+            twJson.append("{\"date\":\"").append(base.plusWeeks(w)).append("\", \"status\":\"PLANNED\", \"maxArticles\": 10, \"linkUrls\": [")
+                    .append(urls).append("]}");
+        }
+        twJson.append(']');
+        byte[] zip = zipOf(DataExchangeFiles.TECHWATCHES.fileName(), twJson.toString());
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/analyze")
+        .then().statusCode(200)
+            .body("conflicts.findAll { it.entity == 'TechWatch' }.key", contains(base.plusWeeks(1).toString()))
+            .body("conflicts.find { it.entity == 'TechWatch' }.existing.linkUrls",
+                    containsInAnyOrder("https://analyze.example/grouped-1-0", "https://analyze.example/grouped-1-1"));
+
+        // TechWatches by date, then their URLs, whatever the number of TechWatches and links
+        assertTrue(statistics.getQueryExecutionCount() <= 2, "Got " + statistics.getQueryExecutionCount() + " queries");
+    }
+
     @Test
     @Transactional
     void execute_demotesImportedActiveTechWatchIfOneExists() throws Exception {
@@ -156,6 +609,89 @@ class DataExchangeResourceTest {
         assertThat(link.tags.stream().map(t->t.name).toList(), containsInAnyOrder("java","ai"));
     }
 
+    @Test
+    void execute_importsLinksInBatchesAndReportsPerFile() throws Exception {
+        StringBuilder linksJson = new StringBuilder("[");
+        for (int i = 0; i < 5; i++) {
+            if (i > 0) linksJson.append(',');
+            linksJson.append("{\"title\":\"Batched ").append(i).append("\", \"url\":\"https://import.example/batched-").append(i)
+                    .append("\", \"tags\":[\"batched-import\"]}");
+        }
+        linksJson.append(']');
+
+        // Links come first in the archive but are imported after the tags they reference
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.LINKS.fileName()));
+            zos.write(linksJson.toString().getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry(DataExchangeFiles.TAGS.fileName()));
+            zos.write("[ {\"name\":\"batched-import\"} ]".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+
+        given().contentType("application/zip").body(baos.toByteArray())
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200)
+            .body("status", equalTo("ok"))
+            .body("files.file", contains(DataExchangeFiles.TAGS.fileName(), DataExchangeFiles.LINKS.fileName()))
+            .body("files.find { it.file == 'links.json' }.imported", equalTo(5))
+            .body("files.find { it.file == 'links.json' }.batches", equalTo(3));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(1, tagRepo.count("name", "batched-import"));
+            for (int i = 0; i < 5; i++) {
+                Link link = linkRepo.find("url", "https://import.example/batched-" + i).firstResult();
+                assertNotNull(link);
+                assertEquals("batched-import", link.tags.iterator().next().name);
+            }
+        });
+    }
+
+    @Test
+    void execute_looksUpExistingRowsPerBatchNotPerRecord() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link existing = new Link();
+            existing.title = "Before import";
+            existing.url = "https://import.example/bulk-0";
+            linkRepo.persist(existing);
+        });
+        StringBuilder linksJson = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) linksJson.append(',');
+            linksJson.append("{\"title\":\"Bulk ").append(i).append("\", \"url\":\"https://import.example/bulk-").append(i)
+                    .append("\", \"tags\":[\"bulk-a\", \"bulk-").append(i % 3).append("\"]}");
+        }
+        linksJson.append(']');
+        byte[] zip = zipOf(DataExchangeFiles.LINKS.fileName(), linksJson.toString());
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        int batches = given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(200)
+            .extract().jsonPath().getInt("files[0].batches");
+        long queries = statistics.getQueryExecutionCount();
+
+        // One query for the links and one for the tags of each batch, whatever the batch size
+        assertEquals(10, batches);
+        assertTrue(queries <= 2L * batches, "Expected bulk lookups, got " + queries + " queries for " + batches + " batches");
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(1, linkRepo.count("url", "https://import.example/bulk-0"));
+            assertEquals("Bulk 0", linkRepo.find("url", "https://import.example/bulk-0").firstResult().title);
+            assertEquals(1, tagRepo.count("name", "bulk-a"));
+        });
+    }
+
+    @Test
+    void execute_rejectsMalformedJson() throws Exception {
+        byte[] zip = zipOf(DataExchangeFiles.TAGS.fileName(), "[ {\"name\":\"truncated\"}");
+
+        given().contentType("application/zip").body(zip)
+        .when().post("/api/data-exchange/import/execute")
+        .then().statusCode(400);
+    }
+
     // Helper to persist within a transaction
     @Transactional
     void seedPrompt() {
@@ -190,4 +726,36 @@ class DataExchangeResourceTest {
         assertNotNull(updated);
         assertEquals("B", updated.content);
     }
+
+    @Test
+    void resolveBatch_appliesItemsAndReportsFailuresPerItem() {
+        // Import batch size is 2 in tests: the first group fails on the unsupported entity and is replayed item by item
+        String payload = """
+                [
+                  { "entity": "PromptInstruction", "key": "batch-prompt", "data": { "content": "batched" } },
+                  { "entity": "Unknown", "key": "x", "data": {} },
+                  { "entity": "Link", "key": "https://resolve.example/batch",
+                    "data": { "title": "Batched", "tags": ["batch-tag-a", "batch-tag-b"] } },
+                  { "entity": "TechWatch", "key": "not-a-date", "data": { "status": "PLANNED" } },
+                  { "entity": "Tag", "key": "batch-tag-a", "data": {} }
+                ]""";
+
+        given().contentType(ContentType.JSON).body(payload)
+                .when().post("/api/data-exchange/import/resolve-batch")
+                .then().statusCode(200)
+                .body("size()", is(5))
+                .body("ok", contains(true, false, true, false, true))
+                .body("[1].error", containsString("Unsupported entity"))
+                .body("[3].key", is("not-a-date"));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals("batched", promptRepo.findById("batch-prompt").content);
+            Link link = linkRepo.find("url", "https://resolve.example/batch").firstResult();
+            assertEquals("Batched", link.title);
+            Set<String> tagNames = new HashSet<>();
+            for (Tag tag : link.tags) tagNames.add(tag.name);
+            assertEquals(Set.of("batch-tag-a", "batch-tag-b"), tagNames);
+            assertEquals(1, tagRepo.count("name", "batch-tag-a"));
+        });
+    }
 }
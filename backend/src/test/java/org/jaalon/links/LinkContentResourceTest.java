@@ -31,7 +31,7 @@ class LinkContentResourceTest {
                     .post("/api/links")
                 .then()
                     .statusCode(201)
-                    .body("content", nullValue())
+                    .body("hasContent", equalTo(false))
                     .extract().jsonPath().getLong("id");
 
         // Set content as text/markdown using text/plain
@@ -44,7 +44,8 @@ class LinkContentResourceTest {
         .then()
             .statusCode(200)
             .body("id", equalTo((int) id))
-            .body("content", equalTo(md));
+            .body("hasContent", equalTo(true))
+            .body("$", not(hasKey("content")));
 
         // Retrieve content via dedicated endpoint
         given()
@@ -55,13 +56,14 @@ class LinkContentResourceTest {
             .contentType("text/plain")
             .body(equalTo(md));
 
-        // Also available on the JSON resource
+        // The JSON resource only flags its presence
         given()
         .when()
             .get("/api/links/" + id)
         .then()
             .statusCode(200)
-            .body("content", equalTo(md));
+            .body("hasContent", equalTo(true))
+            .body("$", not(hasKey("content")));
     }
 
     @Test
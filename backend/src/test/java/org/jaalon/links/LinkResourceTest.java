@@ -13,6 +13,9 @@ class LinkResourceTest {
     @jakarta.inject.Inject
     LinkRepository repo;
 
+    @jakarta.inject.Inject
+    org.jaalon.links.search.LinkSearchIndex searchIndex;
+
     @org.junit.jupiter.api.BeforeEach
     @jakarta.transaction.Transactional
     void clean() {
@@ -148,6 +151,55 @@ class LinkResourceTest {
             .body("[0].title", equalTo("Item 1"));
     }
 
+    @Test
+    void cursorPaginationWalksAllPagesWithoutCount() throws InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Cursor " + i + "\",\"url\":\"https://example.com/c" + i + "\"}")
+            .when().post("/api/links")
+            .then().statusCode(201);
+            Thread.sleep(5);
+        }
+
+        // First page: empty cursor, no count unless asked
+        var first = given()
+        .when()
+            .get("/api/links?size=2&cursor=")
+        .then()
+            .statusCode(200)
+            .header("X-Total-Count", nullValue())
+            .header("X-Next-Cursor", notNullValue())
+            .body("title", contains("Cursor 5", "Cursor 4"))
+            .extract();
+
+        var second = given()
+            .queryParam("cursor", first.header("X-Next-Cursor"))
+        .when()
+            .get("/api/links?size=2&count=true")
+        .then()
+            .statusCode(200)
+            .header("X-Total-Count", equalTo("5"))
+            .body("title", contains("Cursor 3", "Cursor 2"))
+            .extract();
+
+        given()
+            .queryParam("cursor", second.header("X-Next-Cursor"))
+        .when()
+            .get("/api/links?size=2")
+        .then()
+            .statusCode(200)
+            .header("X-Next-Cursor", nullValue())
+            .body("title", contains("Cursor 1"));
+
+        // A cursor is bound to the sort it was issued for
+        given()
+            .queryParam("cursor", first.header("X-Next-Cursor"))
+        .when()
+            .get("/api/links?size=2&sort=title")
+        .then()
+            .statusCode(400);
+    }
+
     @Test
     void filterByStatus() {
         // Create two links and update status of one to KEEP
@@ -241,4 +293,141 @@ class LinkResourceTest {
             .body("[1].title", startsWith("B"));
     }
 
+    @Test
+    void searchUsesStemmingPrefixesContentAndRelevance() {
+        long idTitle = given().contentType(ContentType.JSON)
+            .body("{\"title\":\"Les caches distribués\",\"url\":\"https://example.com/fts1\",\"description\":\"Retour d'expérience\"}")
+            .when().post("/api/links").then().statusCode(201).extract().jsonPath().getLong("id");
+        long idContent = given().contentType(ContentType.JSON)
+            .body("{\"title\":\"Notes diverses\",\"url\":\"https://example.com/fts2\"}")
+            .when().post("/api/links").then().statusCode(201).extract().jsonPath().getLong("id");
+        given().contentType(ContentType.TEXT)
+            .body("# Notes\n\nUn cache distribué évite des allers-retours vers la base.")
+            .when().put("/api/links/" + idContent + "/content").then().statusCode(200);
+
+        // Accents and plural forms are folded: "cache distribue" matches title and content
+        given()
+        .when()
+            .get("/api/links?q=cache distribue&sort=relevance")
+        .then()
+            .statusCode(200)
+            .header("X-Total-Count", equalTo("2"))
+            // Title matches weigh more than content matches
+            .body("[0].id", equalTo((int) idTitle))
+            .body("[1].id", equalTo((int) idContent));
+
+        // Partial words match as prefixes (search-as-you-type)
+        given()
+        .when()
+            .get("/api/links?q=distrib")
+        .then()
+            .statusCode(200)
+            .body("size()", equalTo(2));
+
+        // Deleted links disappear from results
+        given().when().delete("/api/links/" + idTitle).then().statusCode(204);
+        given()
+        .when()
+            .get("/api/links?q=caches")
+        .then()
+            .statusCode(200)
+            .body("size()", equalTo(1))
+            .body("[0].id", equalTo((int) idContent));
+
+        // Relevance ordering needs a query
+        given().when().get("/api/links?sort=relevance").then().statusCode(400);
+    }
+
+    @Test
+    void searchWithFiltersPagesThroughEveryMatchWithTheTrueTotal() {
+        for (int i = 0; i < 5; i++) {
+            long id = given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Kotlin coroutines " + i + "\",\"url\":\"https://example.com/kt" + i + "\"}")
+                .when().post("/api/links").then().statusCode(201).extract().jsonPath().getLong("id");
+            if (i % 2 == 0) {
+                given().contentType(ContentType.JSON).body("{\"status\":\"KEEP\"}")
+                    .when().put("/api/links/" + id).then().statusCode(200);
+            }
+        }
+
+        given()
+        .when()
+            .get("/api/links?q=kotlin&status=KEEP&sort=title&size=2&page=1")
+        .then()
+            .statusCode(200)
+            .header("X-Total-Count", equalTo("3"))
+            .body("title", contains("Kotlin coroutines 4"));
+
+        // Keyset pages over the matches, filtered by the database
+        String next = given()
+            .when().get("/api/links?q=kotlin&status=KEEP&sort=title&size=2&cursor=&count=true")
+            .then().statusCode(200)
+            .header("X-Total-Count", equalTo("3"))
+            .body("title", contains("Kotlin coroutines 0", "Kotlin coroutines 2"))
+            .extract().header("X-Next-Cursor");
+        given()
+            .when().get("/api/links?q=kotlin&status=KEEP&sort=title&size=2&cursor=" + next)
+            .then().statusCode(200)
+            .header("X-Next-Cursor", nullValue())
+            .body("title", contains("Kotlin coroutines 4"));
+    }
+
+    @Test
+    void broadSearchWithFiltersScansTheFilteredLinksInOrder() {
+        // More hits than one IN clause binds: the filtered links are scanned in order instead
+        java.util.List<Link> links = new java.util.ArrayList<>();
+        io.quarkus.narayana.jta.QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 600; i++) {
+                Link link = new Link();
+                link.title = String.format("Zeppelin airship %03d", i);
+                link.url = "https://example.com/zeppelin" + i;
+                if (i % 3 == 0) link.status = LinkStatus.KEEP;
+                repo.persist(link);
+                links.add(link);
+            }
+        });
+        for (Link link : links) searchIndex.index(link.id, link.title, null, null, null);
+
+        given()
+            .when().get("/api/links?q=zeppelin&status=KEEP&sort=title&size=2&page=50")
+            .then().statusCode(200)
+            .header("X-Total-Count", equalTo("200"))
+            .body("title", contains("Zeppelin airship 300", "Zeppelin airship 303"));
+
+        String next = given()
+            .when().get("/api/links?q=zeppelin&status=KEEP&sort=title&size=2&cursor=&count=true")
+            .then().statusCode(200)
+            .header("X-Total-Count", equalTo("200"))
+            .body("title", contains("Zeppelin airship 000", "Zeppelin airship 003"))
+            .extract().header("X-Next-Cursor");
+        given()
+            .when().get("/api/links?q=zeppelin&status=KEEP&sort=title&size=2&cursor=" + next + "&count=true")
+            .then().statusCode(200)
+            .header("X-Total-Count", equalTo("200"))
+            .body("title", contains("Zeppelin airship 006", "Zeppelin airship 009"));
+
+        given()
+            .when().get("/api/links?q=zeppelin&status=KEEP&sort=relevance&size=5")
+            .then().statusCode(200)
+            .header("X-Total-Count", equalTo("200"))
+            .body("size()", equalTo(5));
+    }
+
+    @Test
+    void stopWordQueryFallsBackToSubstringSearch() {
+        given().contentType(ContentType.JSON)
+            .body("{\"title\":\"The Pragmatic Programmer\",\"url\":\"https://example.com/stop1\"}")
+            .when().post("/api/links").then().statusCode(201);
+        given().contentType(ContentType.JSON)
+            .body("{\"title\":\"Refactoring\",\"url\":\"https://example.com/stop2\"}")
+            .when().post("/api/links").then().statusCode(201);
+
+        given()
+        .when()
+            .get("/api/links?q=the&sort=relevance")
+        .then()
+            .statusCode(200)
+            .header("X-Total-Count", equalTo("1"))
+            .body("[0].title", equalTo("The Pragmatic Programmer"));
+    }
 }
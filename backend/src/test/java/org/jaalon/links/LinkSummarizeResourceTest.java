@@ -9,6 +9,7 @@ import org.jaalon.apikey.AiApiKey;
 import org.jaalon.apikey.AiApiKeyRepository;
 import org.jaalon.promptinstruction.PromptInstruction;
 import org.jaalon.promptinstruction.PromptInstructionRepository;
+import org.jaalon.links.summary.SummaryCache;
 import org.jaalon.llm.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,8 @@ import org.mockito.Mockito;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 
 @QuarkusTest
 public class LinkSummarizeResourceTest {
@@ -32,6 +35,9 @@ public class LinkSummarizeResourceTest {
     @Inject
     PromptInstructionRepository instructionRepository;
 
+    @Inject
+    SummaryCache summaryCache;
+
     @InjectMock
     LlmClient llmClient;
 
@@ -40,6 +46,7 @@ public class LinkSummarizeResourceTest {
     void setup() {
         // Clean
         linkRepository.deleteAll();
+        summaryCache.clear();
         llmConfigRepository.deleteAll();
         instructionRepository.deleteAll();
         aiApiKeyRepository.deleteAll();
@@ -94,4 +101,91 @@ public class LinkSummarizeResourceTest {
             .statusCode(200)
             .body("summary", equalTo("- Idée 1\n- Idée 2\nPoints clés: A, B"));
     }
+
+    @Test
+    void summarizeLongContent_shouldMapChunksAndOnlyResendChangedOnes() {
+        Mockito.when(llmClient.generate(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(inv -> ((String) inv.getArgument(3)).contains("Fusionne-les") ? "Résumé global" : "Résumé partiel");
+
+        long id =
+            given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Long\",\"url\":\"https://example.com/long-article\"}")
+            .when().post("/api/links")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        // Three sections of ~2500 estimated tokens each: above the 6000 tokens threshold, one chunk per section
+        String part1 = "# Partie 1\n\n" + "Premier paragraphe. ".repeat(500);
+        String part2 = "# Partie 2\n\n" + "Second paragraphe. ".repeat(520);
+        String part3 = "# Partie 3\n\n" + "Dernier paragraphe. ".repeat(500);
+        given().contentType(ContentType.TEXT)
+            .body(part1 + "\n\n" + part2 + "\n\n" + part3)
+        .when().put("/api/links/" + id + "/content")
+        .then().statusCode(200);
+
+        given()
+        .when().post("/api/links/" + id + "/summarize")
+        .then()
+            .statusCode(200)
+            .body("summary", equalTo("Résumé global"));
+
+        // 3 map calls + 1 reduce call
+        Mockito.verify(llmClient, Mockito.times(4)).generate(anyString(), anyString(), anyString(), anyString());
+        Mockito.verify(llmClient, Mockito.times(1)).generate(anyString(), anyString(), anyString(), contains("Fusionne-les"));
+
+        // Only the edited section is summarized again before the reduce call
+        String editedPart2 = "# Partie 2\n\n" + "Second paragraphe modifié. ".repeat(380);
+        given().contentType(ContentType.TEXT)
+            .body(part1 + "\n\n" + editedPart2 + "\n\n" + part3)
+        .when().put("/api/links/" + id + "/content")
+        .then().statusCode(200);
+
+        given()
+        .when().post("/api/links/" + id + "/summarize")
+        .then().statusCode(200);
+
+        Mockito.verify(llmClient, Mockito.times(6)).generate(anyString(), anyString(), anyString(), anyString());
+        Mockito.verify(llmClient, Mockito.times(1)).generate(anyString(), anyString(), anyString(), contains("Partie 1"));
+        Mockito.verify(llmClient, Mockito.times(1)).generate(anyString(), anyString(), anyString(), contains("modifié"));
+    }
+
+    @Test
+    void summarizeLongContent_shouldMergePartialsByGroupsWhenTheyDoNotFitInOnePrompt() {
+        // Partials of ~2500 estimated tokens each: the three together exceed the 6000 tokens prompt budget
+        String longPartial = "Résumé partiel détaillé. ".repeat(400);
+        Mockito.when(llmClient.generate(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(inv -> {
+                    String prompt = inv.getArgument(3);
+                    if (prompt.contains("résumé de ces parties")) return "Résumé intermédiaire";
+                    if (prompt.contains("Fusionne-les")) return "Résumé global";
+                    return longPartial;
+                });
+
+        long id =
+            given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Very long\",\"url\":\"https://example.com/very-long-article\"}")
+            .when().post("/api/links")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        String part1 = "# Section 1\n\n" + "Premier paragraphe. ".repeat(500);
+        String part2 = "# Section 2\n\n" + "Second paragraphe. ".repeat(520);
+        String part3 = "# Section 3\n\n" + "Dernier paragraphe. ".repeat(500);
+        given().contentType(ContentType.TEXT)
+            .body(part1 + "\n\n" + part2 + "\n\n" + part3)
+        .when().put("/api/links/" + id + "/content")
+        .then().statusCode(200);
+
+        given()
+        .when().post("/api/links/" + id + "/summarize")
+        .then()
+            .statusCode(200)
+            .body("summary", equalTo("Résumé global"));
+
+        // 3 map calls, 1 merge of the first two partials, 1 final reduce of that merge with the third partial
+        Mockito.verify(llmClient, Mockito.times(5)).generate(anyString(), anyString(), anyString(), anyString());
+        Mockito.verify(llmClient, Mockito.times(1)).generate(anyString(), anyString(), anyString(), contains("résumé de ces parties"));
+        Mockito.verify(llmClient, Mockito.times(1)).generate(anyString(), anyString(), anyString(),
+                contains("Résumé intermédiaire\n\n---\n\n" + longPartial.trim()));
+    }
 }
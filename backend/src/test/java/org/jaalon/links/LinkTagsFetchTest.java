@@ -0,0 +1,103 @@
+package org.jaalon.links;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jaalon.tags.Tag;
+import org.jaalon.tags.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class LinkTagsFetchTest {
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    TagRepository tagRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @BeforeEach
+    @Transactional
+    void clean() {
+        linkRepository.deleteAll();
+    }
+
+    @Test
+    void listingStatementCountDoesNotDependOnPageSize() {
+        createLinksWithTags(100);
+
+        long smallPage = statementsFor(() -> given().when().get("/api/links?size=10")
+                .then().statusCode(200).body("size()", is(10)).body("[0].tags.size()", is(2)));
+        long fullPage = statementsFor(() -> given().when().get("/api/links?size=100")
+                .then().statusCode(200).body("size()", is(100)).body("tags.flatten().size()", is(200)));
+
+        assertEquals(smallPage, fullPage, "Loading tags must not issue one query per link");
+    }
+
+    @Test
+    @Transactional
+    void tagsOfAWholePageAreBatchLoaded() {
+        createLinksWithTags(100);
+        linkRepository.getEntityManager().clear();
+
+        long statements = statementsFor(() -> {
+            List<Link> links = linkRepository.findAll().page(0, 100).list();
+            int tagCount = 0;
+            for (Link link : links) tagCount += link.tags.size();
+            assertEquals(200, tagCount);
+        });
+
+        // One query for the links, one batch for the tags of all 100 links
+        assertTrue(statements <= 2, "Expected the tags to be batch loaded, got " + statements + " statements");
+    }
+
+    private void createLinksWithTags(int count) {
+        QuarkusTransaction.requiringNew().run(() -> persistLinksWithTags(count));
+    }
+
+    private void persistLinksWithTags(int count) {
+        Tag java = tag("java");
+        Tag cloud = tag("cloud");
+        for (int i = 0; i < count; i++) {
+            Link link = new Link();
+            link.title = "Link " + i;
+            link.url = "https://example.com/fetch/" + i;
+            link.date = Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i);
+            link.tags.add(java);
+            link.tags.add(cloud);
+            linkRepository.persist(link);
+        }
+    }
+
+    private Tag tag(String name) {
+        Tag tag = tagRepository.find("name", name).firstResult();
+        if (tag == null) {
+            tag = new Tag();
+            tag.name = name;
+            tagRepository.persist(tag);
+        }
+        return tag;
+    }
+
+    private long statementsFor(Runnable action) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
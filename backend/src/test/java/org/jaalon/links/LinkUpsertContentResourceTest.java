@@ -39,7 +39,9 @@ class LinkUpsertContentResourceTest {
         .then()
             .statusCode(anyOf(is(200), is(201)))
             .body("url", equalTo("https://example.com/article"))
-            .body("content", equalTo("# Hello\nWorld"));
+            .body("hasContent", equalTo(true));
+
+        assertContent("https://example.com/article", "# Hello\nWorld");
     }
 
     @Test
@@ -63,8 +65,8 @@ class LinkUpsertContentResourceTest {
                 "}";
         given().contentType(ContentType.JSON).body(older)
             .when().post("/api/links/upsert-content")
-            .then().statusCode(200)
-            .body("content", equalTo("A"));
+            .then().statusCode(200);
+        assertContent("https://example.com/article2", "A");
     }
 
     @Test
@@ -88,8 +90,8 @@ class LinkUpsertContentResourceTest {
                 "}";
         given().contentType(ContentType.JSON).body(newer)
             .when().post("/api/links/upsert-content")
-            .then().statusCode(200)
-            .body("content", equalTo("Second"));
+            .then().statusCode(200);
+        assertContent("https://example.com/article3", "Second");
     }
 
     @Test
@@ -108,6 +110,16 @@ class LinkUpsertContentResourceTest {
         .then()
             .statusCode(anyOf(is(200), is(201)))
             .body("url", equalTo("https://youtube.com/watch?v=abc"))
-            .body("content", anyOf(nullValue(), equalTo("")));
+            .body("hasContent", equalTo(false));
+    }
+
+    private void assertContent(String url, String expected) {
+        Long id = repo.find("url", url).firstResult().id;
+        given()
+        .when()
+            .get("/api/links/" + id + "/content")
+        .then()
+            .statusCode(200)
+            .body(equalTo(expected));
     }
 }
@@ -69,4 +69,58 @@ public class TagAndLinkTagsResourceTest {
                 .then().statusCode(200)
                 .body("tags.name", not(hasItem("cloud")));
     }
+
+    private long createLink(String name) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"title\":\"" + name + "\",\"url\":\"https://ex/bulk-" + name + "\"}")
+                .when().post("/api/links").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    @Test
+    void bulkUpdate_setsStatusAndTagsOfTheSelectedLinks() {
+        long l1 = createLink("one");
+        long l2 = createLink("two");
+        long l3 = createLink("three");
+        given().contentType(ContentType.JSON)
+                .body("{\"name\":\"Triage\"}")
+                .when().post("/api/links/" + l3 + "/tags")
+                .then().statusCode(200);
+
+        // "triage" matches the existing "Triage" whatever the case; l3 already carries it
+        given().contentType(ContentType.JSON)
+                .body("{\"ids\":[" + l1 + "," + l2 + "," + l3 + ",999999], \"setStatus\":\"KEEP\", "
+                        + "\"addTags\":[\"triage\", \"Bulk-New\"]}")
+                .when().post("/api/links/bulk")
+                .then().statusCode(200)
+                .body("matched", equalTo(3))
+                .body("statusChanged", equalTo(3))
+                .body("tagsAdded", equalTo(5));
+
+        given().when().get("/api/links/" + l1)
+                .then().statusCode(200)
+                .body("status", equalTo("KEEP"))
+                .body("tags.name", containsInAnyOrder("Triage", "Bulk-New"));
+
+        // Filter selection: every KEEP link
+        given().contentType(ContentType.JSON)
+                .body("{\"status\":\"KEEP\", \"removeTags\":[\"BULK-NEW\"]}")
+                .when().post("/api/links/bulk")
+                .then().statusCode(200)
+                .body("matched", equalTo(3))
+                .body("statusChanged", equalTo(0))
+                .body("tagsRemoved", equalTo(3));
+
+        given().when().get("/api/links/" + l2)
+                .then().statusCode(200)
+                .body("tags.name", contains("Triage"));
+    }
+
+    @Test
+    void bulkUpdate_requiresASelection() {
+        given().contentType(ContentType.JSON)
+                .body("{\"setStatus\":\"KEEP\"}")
+                .when().post("/api/links/bulk")
+                .then().statusCode(400);
+    }
 }
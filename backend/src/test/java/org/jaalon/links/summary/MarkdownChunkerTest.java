@@ -0,0 +1,46 @@
+package org.jaalon.links.summary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MarkdownChunkerTest {
+
+    @Test
+    void shortContent_isASingleChunk() {
+        assertEquals(List.of("# Title\n\nSome text."), MarkdownChunker.chunk("# Title\n\nSome text.", 100));
+    }
+
+    @Test
+    void sections_areCutAtHeadings() {
+        String section1 = "# One\n\n" + "a".repeat(300);
+        String section2 = "## Two\n\n" + "b".repeat(300);
+        List<String> chunks = MarkdownChunker.chunk(section1 + "\n\n" + section2, 100);
+
+        assertEquals(List.of(section1, section2), chunks);
+    }
+
+    @Test
+    void oversizedSection_isCutAtParagraphsThenSentences() {
+        String sentence = "This is a sentence of forty characters. ";
+        String paragraph = sentence.repeat(30).strip();
+        List<String> chunks = MarkdownChunker.chunk("# Big\n\n" + paragraph, 100);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(MarkdownChunker.estimateTokens(chunk) <= 100, "chunk too large: " + chunk.length());
+        }
+        assertTrue(chunks.get(1).startsWith("This is a sentence"));
+    }
+
+    @Test
+    void codeFences_areNotSplitAtBlankLines() {
+        String code = "```\nline 1\n\n# not a heading\n\nline 2\n```";
+        List<String> chunks = MarkdownChunker.chunk("Intro\n\n" + code, 10);
+
+        assertEquals(List.of("Intro", code), chunks);
+    }
+}
@@ -0,0 +1,123 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.jaalon.llm.LlmClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static io.restassured.RestAssured.given;
+import static org.jaalon.links.summary.SummaryTestFixtures.createLink;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class SummarizationJobResourceTest {
+
+    @Inject
+    SummarizationJobRepository jobRepository;
+
+    @Inject
+    SummaryTestFixtures fixtures;
+
+    @InjectMock
+    LlmClient llmClient;
+
+    @BeforeEach
+    void setup() {
+        fixtures.reset();
+    }
+
+    @Test
+    void queuedJobIsSummarizedByAWorker() throws InterruptedException {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn("Résumé");
+        long linkId = createLink("https://example.com/job/a", "# A");
+
+        long jobId = given().contentType(ContentType.JSON)
+                .body("{\"linkId\":" + linkId + "}")
+            .when().post("/api/summarization-jobs")
+            .then().statusCode(202)
+                .header("Location", containsString("/api/summarization-jobs/"))
+                .body("linkId", equalTo((int) linkId))
+                .extract().jsonPath().getLong("id");
+
+        JsonPath job = awaitStatus(jobId, "DONE");
+        assertEquals(1, job.getInt("attempts"));
+        given().when().get("/api/links/" + linkId).then().statusCode(200).body("summary", equalTo("Résumé"));
+    }
+
+    @Test
+    void failingJobIsRetriedThenMarkedFailed() throws InterruptedException {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RuntimeException("LLM call failed: boom"));
+        long linkId = createLink("https://example.com/job/b", "# B");
+
+        long jobId = given().contentType(ContentType.JSON)
+                .body("{\"linkId\":" + linkId + "}")
+            .when().post("/api/summarization-jobs")
+            .then().statusCode(202)
+                .extract().jsonPath().getLong("id");
+
+        JsonPath job = awaitStatus(jobId, "FAILED");
+        assertEquals(3, job.getInt("attempts"));
+        assertEquals("LLM call failed: boom", job.getString("error"));
+        // Retries waited 200ms then 400ms (retry-delay doubled) instead of hitting the provider again at once
+        Duration elapsed = Duration.between(Instant.parse(job.getString("createdAt")), Instant.parse(job.getString("finishedAt")));
+        assertTrue(elapsed.toMillis() >= 600, "retries were not delayed: " + elapsed);
+    }
+
+    @Test
+    void jobLeftRunningByAShutdownIsRequeued() throws InterruptedException {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn("Résumé");
+        long linkId = createLink("https://example.com/job/c", "# C");
+        Long jobId = QuarkusTransaction.requiringNew().call(() -> {
+            SummarizationJob interrupted = new SummarizationJob();
+            interrupted.linkId = linkId;
+            interrupted.status = SummarizationJobStatus.RUNNING;
+            interrupted.attempts = 1;
+            jobRepository.persist(interrupted);
+            return interrupted.id;
+        });
+
+        assertEquals(1, QuarkusTransaction.requiringNew().call(() -> jobRepository.requeueRunning()));
+
+        awaitStatus(jobId, "DONE");
+        given().when().get("/api/links/" + linkId).then().statusCode(200).body("summary", equalTo("Résumé"));
+    }
+
+    @Test
+    void submissionIsValidatedUpFront() {
+        long withoutContent = given().contentType(ContentType.JSON)
+                .body("{\"title\":\"T\",\"url\":\"https://example.com/job/empty\"}")
+            .when().post("/api/links")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        given().contentType(ContentType.JSON).body("{\"linkId\":" + withoutContent + "}")
+            .when().post("/api/summarization-jobs").then().statusCode(400);
+        given().contentType(ContentType.JSON).body("{\"linkId\":999999}")
+            .when().post("/api/summarization-jobs").then().statusCode(404);
+        given().when().get("/api/summarization-jobs/999999").then().statusCode(404);
+    }
+
+    private JsonPath awaitStatus(long jobId, String status) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JsonPath job = given().when().get("/api/summarization-jobs/" + jobId)
+                    .then().statusCode(200).extract().jsonPath();
+            if (status.equals(job.getString("status"))) return job;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Summarization job " + jobId + " did not reach " + status);
+    }
+}
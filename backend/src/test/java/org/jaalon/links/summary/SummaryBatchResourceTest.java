@@ -0,0 +1,94 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.jaalon.llm.LlmClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static io.restassured.RestAssured.given;
+import static org.jaalon.links.summary.SummaryTestFixtures.createLink;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+class SummaryBatchResourceTest {
+
+    @Inject
+    SummaryTestFixtures fixtures;
+
+    @InjectMock
+    LlmClient llmClient;
+
+    @BeforeEach
+    void setup() {
+        fixtures.reset();
+    }
+
+    @Test
+    void summarizesEveryLinkWithContentAndReportsProgress() throws InterruptedException {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn("Résumé");
+
+        long a = createLink("https://example.com/batch/a", "# A");
+        long b = createLink("https://example.com/batch/b", "# B");
+        long withoutContent = createLink("https://example.com/batch/c", null);
+
+        String jobId = given().contentType(ContentType.JSON)
+                .body("{\"ids\":[" + a + "," + b + "," + withoutContent + "]}")
+            .when().post("/api/links/summarize-batch")
+            .then().statusCode(202)
+                .header("Location", containsString("/api/links/summarize-batch/"))
+                .body("total", equalTo(2))
+                .extract().jsonPath().getString("id");
+
+        JsonPath job = awaitFinished(jobId);
+        assertEquals("COMPLETED", job.getString("state"));
+        assertEquals(2, job.getInt("succeeded"));
+        assertEquals(0, job.getInt("failed"));
+
+        given().when().get("/api/links/" + a).then().statusCode(200).body("summary", equalTo("Résumé"));
+        given().when().get("/api/links/" + b).then().statusCode(200).body("summary", equalTo("Résumé"));
+        given().when().get("/api/links/" + withoutContent).then().statusCode(200).body("hasSummary", equalTo(false));
+    }
+
+    @Test
+    void failuresAreCountedPerLink() throws InterruptedException {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RuntimeException("LLM call failed: boom"));
+
+        long a = createLink("https://example.com/batch/fail", "# A");
+
+        String jobId = given().contentType(ContentType.JSON)
+                .body("{\"status\":\"TO_PROCESS\"}")
+            .when().post("/api/links/summarize-batch")
+            .then().statusCode(202)
+                .body("total", equalTo(1))
+                .extract().jsonPath().getString("id");
+
+        JsonPath job = awaitFinished(jobId);
+        assertEquals("COMPLETED", job.getString("state"));
+        assertEquals(1, job.getInt("failed"));
+        assertEquals("LLM call failed: boom", job.getMap("errors").get(String.valueOf(a)));
+    }
+
+    @Test
+    void unknownJobIsNotFound() {
+        given().when().get("/api/links/summarize-batch/unknown").then().statusCode(404);
+        given().when().delete("/api/links/summarize-batch/unknown").then().statusCode(404);
+    }
+
+    private JsonPath awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JsonPath job = given().when().get("/api/links/summarize-batch/" + jobId)
+                    .then().statusCode(200).extract().jsonPath();
+            if (job.getString("finishedAt") != null) return job;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Summary batch " + jobId + " did not finish");
+    }
+}
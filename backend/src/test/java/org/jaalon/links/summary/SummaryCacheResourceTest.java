@@ -0,0 +1,74 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.jaalon.llm.LlmClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static io.restassured.RestAssured.given;
+import static org.jaalon.links.summary.SummaryTestFixtures.createLink;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@QuarkusTest
+class SummaryCacheResourceTest {
+
+    @Inject
+    SummaryTestFixtures fixtures;
+
+    @InjectMock
+    LlmClient llmClient;
+
+    @BeforeEach
+    void setup() {
+        fixtures.reset();
+    }
+
+    @Test
+    void identicalContentIsSummarizedOnce() {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn("Résumé");
+
+        long first = createLink("https://example.com/cache/a", "# Article\n\nSame text.");
+        // Same article saved under another URL, with different line endings and trailing spaces
+        long second = createLink("https://example.com/cache/b", "# Article  \r\n\r\nSame text.\r\n");
+
+        given().when().post("/api/links/" + first + "/summarize").then().statusCode(200).body("summary", equalTo("Résumé"));
+        given().when().post("/api/links/" + second + "/summarize").then().statusCode(200).body("summary", equalTo("Résumé"));
+        // Invalidating then summarizing again is served from the cache too
+        given().when().delete("/api/links/" + first + "/summary").then().statusCode(200);
+        given().when().post("/api/links/" + first + "/summarize").then().statusCode(200).body("summary", equalTo("Résumé"));
+
+        Mockito.verify(llmClient, Mockito.times(1))
+                .generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        given().when().get("/api/links/summary-cache/stats")
+                .then().statusCode(200)
+                .body("hits", equalTo(2))
+                .body("misses", equalTo(1))
+                .body("storedEntries", equalTo(1));
+    }
+
+    @Test
+    void refreshBypassesTheCache() {
+        Mockito.when(llmClient.generate(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn("Premier", "Second");
+
+        long id = createLink("https://example.com/cache/refresh", "# Refresh");
+
+        given().when().post("/api/links/" + id + "/summarize").then().statusCode(200).body("summary", equalTo("Premier"));
+        given().when().post("/api/links/" + id + "/summarize?refresh=true").then().statusCode(200).body("summary", equalTo("Second"));
+        // The refreshed summary replaces the cached one
+        given().when().post("/api/links/" + id + "/summarize").then().statusCode(200).body("summary", equalTo("Second"));
+    }
+
+    @Test
+    void keyDependsOnModelButNotOnWhitespace() {
+        String key = SummaryCache.key("# A\n\nText", "Résume", "model-x", "http://localhost:9999");
+        assertEquals(key, SummaryCache.key("# A  \r\n\r\n\r\nText\n", "Résume", "model-x", "http://localhost:9999"));
+        assertNotEquals(key, SummaryCache.key("# A\n\nText", "Résume", "model-y", "http://localhost:9999"));
+    }
+}
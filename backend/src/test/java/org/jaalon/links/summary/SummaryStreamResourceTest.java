@@ -0,0 +1,83 @@
+package org.jaalon.links.summary;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import org.jaalon.llm.LlmClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static io.restassured.RestAssured.given;
+import static org.jaalon.links.summary.SummaryTestFixtures.createLink;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+class SummaryStreamResourceTest {
+
+    @Inject
+    SummaryTestFixtures fixtures;
+
+    @InjectMock
+    LlmClient llmClient;
+
+    @BeforeEach
+    void setup() {
+        fixtures.reset();
+    }
+
+    @Test
+    void streamsTokensThenPersistsTheSummary() {
+        Mockito.when(llmClient.stream(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(Multi.createFrom().items("- Idée", " 1\r\n", "- Idée 2"));
+
+        long id = createLink("https://example.com/stream/a", "# Stream");
+
+        given().accept("text/event-stream")
+            .when().post("/api/links/" + id + "/summarize/stream")
+            .then().statusCode(200)
+                .contentType(containsString("text/event-stream"))
+                .body(containsString("\"delta\":\"- Idée\""),
+                        containsString("\"delta\":\" 1\\r\\n\""),
+                        containsString("\"summary\":\"- Idée 1\\n- Idée 2\",\"done\":true"));
+
+        given().when().get("/api/links/" + id)
+            .then().statusCode(200)
+                .body("summary", equalTo("- Idée 1\n- Idée 2"));
+    }
+
+    @Test
+    void cachedSummaryIsSentAsASingleEvent() {
+        Mockito.when(llmClient.stream(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(Multi.createFrom().items("Résumé"));
+
+        long first = createLink("https://example.com/stream/b", "# Same");
+        long second = createLink("https://example.com/stream/c", "# Same");
+
+        given().accept("text/event-stream").when().post("/api/links/" + first + "/summarize/stream")
+            .then().statusCode(200).body(containsString("\"delta\":\"Résumé\""));
+        given().accept("text/event-stream").when().post("/api/links/" + second + "/summarize/stream")
+            .then().statusCode(200)
+                .body(not(containsString("\"delta\"")), containsString("\"summary\":\"Résumé\""));
+
+        Mockito.verify(llmClient, Mockito.times(1))
+                .stream(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        given().when().get("/api/links/" + second).then().statusCode(200).body("summary", equalTo("Résumé"));
+    }
+
+    @Test
+    void linkWithoutContentIsRejectedBeforeStreaming() {
+        long id = given().contentType(ContentType.JSON)
+                .body("{\"title\":\"T\",\"url\":\"https://example.com/stream/empty\"}")
+            .when().post("/api/links")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+
+        given().accept("text/event-stream").when().post("/api/links/" + id + "/summarize/stream").then().statusCode(400);
+        given().accept("text/event-stream").when().post("/api/links/999999/summarize/stream").then().statusCode(404);
+        // Generating persists the summary: not reachable with a GET
+        given().accept("text/event-stream").when().get("/api/links/" + id + "/summarize/stream").then().statusCode(405);
+    }
+}
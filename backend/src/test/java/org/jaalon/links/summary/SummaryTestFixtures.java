@@ -0,0 +1,79 @@
+package org.jaalon.links.summary;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import io.restassured.http.ContentType;
+import org.jaalon.apikey.AiApiKey;
+import org.jaalon.apikey.AiApiKeyRepository;
+import org.jaalon.links.LinkRepository;
+import org.jaalon.llm.LlmConfig;
+import org.jaalon.llm.LlmConfigRepository;
+import org.jaalon.promptinstruction.PromptInstruction;
+import org.jaalon.promptinstruction.PromptInstructionRepository;
+
+import static io.restassured.RestAssured.given;
+
+/** Data shared by the summary tests: a default LLM configuration on a mocked provider and links with content. */
+@ApplicationScoped
+public class SummaryTestFixtures {
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    LlmConfigRepository llmConfigRepository;
+
+    @Inject
+    AiApiKeyRepository aiApiKeyRepository;
+
+    @Inject
+    PromptInstructionRepository instructionRepository;
+
+    @Inject
+    SummaryCache summaryCache;
+
+    /** Deletes the links, cached summaries and LLM settings, then creates the default configuration and instruction. */
+    @Transactional
+    public void reset() {
+        linkRepository.deleteAll();
+        summaryCache.clear();
+        llmConfigRepository.deleteAll();
+        instructionRepository.deleteAll();
+        aiApiKeyRepository.deleteAll();
+
+        AiApiKey key = new AiApiKey();
+        key.provider = "perplexity";
+        key.name = "Local";
+        key.baseUrl = "http://localhost:9999";
+        key.apiKey = "key";
+        aiApiKeyRepository.persist(key);
+
+        LlmConfig cfg = new LlmConfig();
+        cfg.name = "test";
+        cfg.aiApiKey = key;
+        cfg.model = "model-x";
+        cfg.isDefault = true;
+        llmConfigRepository.persist(cfg);
+
+        PromptInstruction pi = new PromptInstruction();
+        pi.type = "summarize";
+        pi.content = "Résume cet article";
+        instructionRepository.persist(pi);
+    }
+
+    /** Creates a link through the API, with the given Markdown content unless null. */
+    public static long createLink(String url, String content) {
+        long id = given().contentType(ContentType.JSON)
+                .body("{\"title\":\"T\",\"url\":\"" + url + "\"}")
+            .when().post("/api/links")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+        if (content != null) {
+            given().contentType(ContentType.TEXT).body(content)
+                .when().put("/api/links/" + id + "/content")
+                .then().statusCode(200);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,22 @@
+package org.jaalon.llm;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Stands in for a provider's /v1/models endpoint and counts the calls it receives. */
+@Path("/fake-provider/v1/models")
+public class FakeModelsProviderResource {
+
+    static final AtomicInteger HITS = new AtomicInteger();
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public String models() {
+        HITS.incrementAndGet();
+        return "{\"data\":[{\"id\":\"model-a\"},{\"id\":\"model-b\"}]}";
+    }
+}
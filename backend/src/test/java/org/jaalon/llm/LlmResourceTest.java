@@ -1,15 +1,18 @@
 package org.jaalon.llm;
 
+import io.quarkus.test.common.http.TestHTTPResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import org.jaalon.apikey.AiApiKeyRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.net.URL;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @QuarkusTest
 class LlmResourceTest {
@@ -20,11 +23,18 @@ class LlmResourceTest {
     @Inject
     AiApiKeyRepository keyRepo;
 
+    @Inject
+    ModelListCache modelListCache;
+
+    @TestHTTPResource("/fake-provider")
+    URL fakeProvider;
+
     @BeforeEach
     @jakarta.transaction.Transactional
     void clean() {
         repo.deleteAll();
         keyRepo.deleteAll();
+        modelListCache.clear();
     }
 
     @Test
@@ -103,4 +113,44 @@ class LlmResourceTest {
                 .body("find { it.id == " + id1 + " }.isDefault", equalTo(false))
                 .body("find { it.id == " + id2 + " }.isDefault", equalTo(true));
     }
+
+    @Test
+    void modelsEndpoint_servesCachedListUntilKeyChangesOrRefresh() {
+        String keyBody = "{\"provider\":\"openai\",\"name\":\"Fake\",\"baseUrl\":\"" + fakeProvider + "\",\"apiKey\":\"%s\"}";
+        long keyId = given().contentType(ContentType.JSON)
+                .body(keyBody.formatted("secret"))
+            .when().post("/api/ai-keys")
+            .then().statusCode(201)
+            .extract().jsonPath().getLong("id");
+        int hits = FakeModelsProviderResource.HITS.get();
+
+        for (int i = 0; i < 2; i++) {
+            given().queryParam("aiApiKeyId", keyId)
+            .when().get("/api/llm/models")
+            .then()
+                    .statusCode(200)
+                    .body("models", contains("model-a", "model-b"));
+        }
+        // The raw upstream answer is shared with the Mistral endpoint
+        given().contentType(ContentType.JSON)
+                .body(Map.of("aiApiKeyId", keyId))
+        .when().post("/api/llm/mistral/models")
+        .then().statusCode(200);
+        assertEquals(hits + 1, FakeModelsProviderResource.HITS.get());
+
+        given().queryParam("aiApiKeyId", keyId).queryParam("refresh", true)
+        .when().get("/api/llm/models")
+        .then().statusCode(200);
+        assertEquals(hits + 2, FakeModelsProviderResource.HITS.get());
+
+        // Editing the key drops its cached list
+        given().contentType(ContentType.JSON)
+                .body(keyBody.formatted("other-secret"))
+        .when().put("/api/ai-keys/" + keyId)
+        .then().statusCode(200);
+        given().queryParam("aiApiKeyId", keyId)
+        .when().get("/api/llm/models")
+        .then().statusCode(200);
+        assertEquals(hits + 3, FakeModelsProviderResource.HITS.get());
+    }
 }
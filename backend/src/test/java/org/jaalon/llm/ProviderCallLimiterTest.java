@@ -0,0 +1,61 @@
+package org.jaalon.llm;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProviderCallLimiterTest {
+
+    private ProviderCallLimiter limiterWithOnePermit() {
+        ProviderCallLimiter limiter = new ProviderCallLimiter();
+        limiter.perProviderConcurrency = 1;
+        return limiter;
+    }
+
+    @Test
+    void stream_holdsThePermitUntilItCompletes() throws InterruptedException {
+        ProviderCallLimiter limiter = limiterWithOnePermit();
+        UnicastProcessor<String> first = UnicastProcessor.create();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        limiter.stream("http://provider", () -> {
+            firstStarted.countDown();
+            return first;
+        }).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        AssertSubscriber<String> second = limiter.stream("http://provider", () -> {
+            secondStarted.countDown();
+            return Multi.createFrom().item("second");
+        }).subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        assertFalse(secondStarted.await(200, TimeUnit.MILLISECONDS));
+        first.onComplete();
+        second.awaitCompletion(Duration.ofSeconds(5));
+        assertEquals(List.of("second"), second.getItems());
+    }
+
+    @Test
+    void stream_releasesThePermitWhenCancelled() throws InterruptedException {
+        ProviderCallLimiter limiter = limiterWithOnePermit();
+        CountDownLatch started = new CountDownLatch(1);
+
+        AssertSubscriber<String> first = limiter.stream("http://provider",
+                () -> Multi.createFrom().<String>nothing().onSubscription().invoke(started::countDown))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        first.cancel();
+
+        assertEquals("next", limiter.call("http://provider", () -> "next"));
+    }
+}
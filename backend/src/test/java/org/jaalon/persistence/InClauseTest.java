@@ -0,0 +1,36 @@
+package org.jaalon.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InClauseTest {
+
+    @Test
+    void values_areDeduplicatedAndSplitInChunksInOrder() {
+        List<Long> values = new ArrayList<>(LongStream.rangeClosed(1, 1200).boxed().toList());
+        values.addAll(Arrays.asList(5L, null, 1200L));
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        List<Long> results = InClause.inChunks(values, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+
+        assertEquals(List.of(InClause.CHUNK_SIZE, InClause.CHUNK_SIZE, 200), chunkSizes);
+        assertEquals(LongStream.rangeClosed(1, 1200).boxed().toList(), results);
+    }
+
+    @Test
+    void counts_areSummedOverChunks() {
+        List<Long> values = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        assertEquals(1001, InClause.countInChunks(values, List::size));
+        assertEquals(0, InClause.countInChunks(List.<Long>of(), chunk -> 1));
+    }
+}
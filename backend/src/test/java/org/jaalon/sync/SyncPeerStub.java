@@ -0,0 +1,53 @@
+package org.jaalon.sync;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Test peer whose delta export is set by the test, to pull rows that differ from the local ones.
+ * Serves plain JSON archives, as a peer without Smile support would.
+ */
+@Path("/test-peer/api/data-exchange/export/{type}")
+public class SyncPeerStub {
+
+    // links.json and techwatches.json of the functional export; the technical export is empty
+    static volatile String linksJson = "[]";
+    static volatile String techWatchesJson = "[]";
+    // Time of the first export request since the last reset
+    static volatile Instant firstRequestAt;
+
+    static void reset(String links, String techWatches) {
+        linksJson = links;
+        techWatchesJson = techWatches;
+        firstRequestAt = null;
+    }
+
+    @GET
+    @Produces("application/zip")
+    public Response export(@PathParam("type") String type) throws IOException {
+        Instant now = Instant.now();
+        if (firstRequestAt == null) firstRequestAt = now;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            if (type.equals("functional")) {
+                zos.putNextEntry(new ZipEntry("links.json"));
+                zos.write(linksJson.getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+                zos.putNextEntry(new ZipEntry("techwatches.json"));
+                zos.write(techWatchesJson.getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return Response.ok(baos.toByteArray()).header("X-Export-Time", now.toString()).build();
+    }
+}
@@ -0,0 +1,242 @@
+package org.jaalon.sync;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.jaalon.links.Link;
+import org.jaalon.links.LinkRepository;
+import org.jaalon.techwatch.TechWatch;
+import org.jaalon.techwatch.TechWatchRepository;
+import org.jaalon.techwatch.TechWatchStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class SyncResourceTest {
+
+    @Inject
+    SyncPeerRepository peerRepository;
+
+    @Inject
+    LinkRepository linkRepository;
+
+    @Inject
+    TechWatchRepository techWatchRepository;
+
+    // This very instance plays the peer: a pull exports its own changes and imports them back unchanged
+    @TestHTTPResource("/")
+    URL self;
+
+    @BeforeEach
+    @jakarta.transaction.Transactional
+    void clean() {
+        peerRepository.deleteAll();
+    }
+
+    private long createPeer(String name, String baseUrl) {
+        return given().contentType(ContentType.JSON)
+                .body(Map.of("name", name, "baseUrl", baseUrl))
+                .when().post("/api/sync/peers")
+                .then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    private void persistLink(String url) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link link = new Link();
+            link.title = url;
+            link.url = url;
+            linkRepository.persist(link);
+        });
+    }
+
+    // A TechWatch with the given links, last modified here before the previous pull
+    private void persistTechWatch(LocalDate date, TechWatchStatus status, Instant modifiedAt, String... urls) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            TechWatch tw = new TechWatch();
+            tw.date = date;
+            tw.status = status;
+            tw.linkCount = urls.length;
+            techWatchRepository.persist(tw);
+            for (String url : urls) {
+                linkRepository.find("url", url).firstResult().techWatches.add(tw);
+            }
+        });
+        QuarkusTransaction.requiringNew().run(() ->
+                techWatchRepository.update("updatedAt = ?1 where date = ?2", modifiedAt, date));
+    }
+
+    // A peer whose previous pull happened at lastSync and whose export is served by SyncPeerStub
+    private long createStubPeer(Instant lastSync) {
+        long peerId = createPeer("stub", self.toString() + "test-peer");
+        QuarkusTransaction.requiringNew().run(() -> {
+            SyncPeer peer = peerRepository.findById(peerId);
+            peer.lastSyncedAt = lastSync;
+            peer.remoteSince = lastSync;
+        });
+        return peerId;
+    }
+
+    private List<String> linkUrlsOf(LocalDate date) {
+        return QuarkusTransaction.requiringNew().call(() -> linkRepository.getEntityManager()
+                .createQuery("select l.url from Link l join l.techWatches t where t.date = :date order by l.url", String.class)
+                .setParameter("date", date)
+                .getResultList());
+    }
+
+    private long importedLinks(JsonPath report) {
+        Number imported = report.get("imported.find { it.file == 'links.json' }.imported");
+        return imported.longValue();
+    }
+
+    @Test
+    void pull_transfersOnlyWhatChangedSinceThePreviousPull() {
+        persistLink("https://sync.example/first");
+        long peerId = createPeer("self", self.toString());
+
+        JsonPath first = given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(200)
+                .body("since", nullValue())
+                .body("remoteSince", notNullValue())
+                .body("conflicts", empty())
+                .extract().jsonPath();
+        assertTrue(importedLinks(first) >= 1);
+
+        persistLink("https://sync.example/second");
+
+        JsonPath second = given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(200)
+                .body("since", equalTo(first.getString("remoteSince")))
+                .body("conflicts", empty())
+                .extract().jsonPath();
+        // Links imported unchanged by the first pull are not modified, so only the new one is sent again
+        assertEquals(1, importedLinks(second));
+
+        given().when().get("/api/sync/peers")
+                .then().statusCode(200)
+                .body("find { it.name == 'self' }.remoteSince", equalTo(second.getString("remoteSince")))
+                .body("find { it.name == 'self' }.lastError", nullValue());
+    }
+
+    @Test
+    void pull_reportsRowsModifiedOnBothSidesAsConflictsAndKeepsThem() {
+        Instant lastSync = Instant.now().minusSeconds(3600);
+        persistLink("https://sync.example/both-sides");
+        persistLink("https://sync.example/remote-only");
+        // Last modified here before the previous pull: the peer's version is taken
+        QuarkusTransaction.requiringNew().run(() -> linkRepository.update("updatedAt = ?1 where url = ?2",
+                lastSync.minusSeconds(60), "https://sync.example/remote-only"));
+        long peerId = createStubPeer(lastSync);
+        SyncPeerStub.reset("[ {\"title\":\"Remote title\", \"url\":\"https://sync.example/both-sides\", \"tags\":[]},"
+                + " {\"title\":\"Remote title\", \"url\":\"https://sync.example/remote-only\", \"tags\":[]} ]", "[]");
+
+        given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(200)
+                .body("conflicts.key", contains("https://sync.example/both-sides"))
+                .body("conflicts[0].entity", equalTo("Link"))
+                .body("conflicts[0].existing.title", equalTo("https://sync.example/both-sides"))
+                .body("conflicts[0].incoming.title", equalTo("Remote title"));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals("https://sync.example/both-sides",
+                    linkRepository.find("url", "https://sync.example/both-sides").firstResult().title);
+            assertEquals("Remote title", linkRepository.find("url", "https://sync.example/remote-only").firstResult().title);
+            // Taken before the export was requested, so local changes made during the pull count as modified next time
+            assertFalse(peerRepository.findById(peerId).lastSyncedAt.isAfter(SyncPeerStub.firstRequestAt));
+        });
+    }
+
+    @Test
+    void pull_detachesLinksRemovedFromATechWatchOnThePeer() {
+        Instant lastSync = Instant.now().minusSeconds(3600);
+        LocalDate date = LocalDate.of(2033, 5, 2);
+        persistLink("https://sync.example/kept");
+        persistLink("https://sync.example/removed");
+        persistTechWatch(date, TechWatchStatus.PLANNED, lastSync.minusSeconds(60),
+                "https://sync.example/kept", "https://sync.example/removed");
+        long peerId = createStubPeer(lastSync);
+        SyncPeerStub.reset("[]", "[ {\"date\":\"2033-05-02\", \"status\":\"PLANNED\", \"maxArticles\":10,"
+                + " \"linkUrls\":[\"https://sync.example/kept\"]} ]");
+
+        given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(200)
+                .body("conflicts", empty());
+
+        assertEquals(List.of("https://sync.example/kept"), linkUrlsOf(date));
+        QuarkusTransaction.requiringNew().run(() ->
+                assertEquals(1, techWatchRepository.find("date", date).firstResult().linkCount));
+    }
+
+    @Test
+    void pull_keepsTheActiveTechWatch() {
+        Instant lastSync = Instant.now().minusSeconds(3600);
+        LocalDate date = LocalDate.of(2033, 5, 9);
+        persistLink("https://sync.example/active-first");
+        persistLink("https://sync.example/active-second");
+        QuarkusTransaction.requiringNew().run(() -> techWatchRepository.update("status = ?1 where status = ?2",
+                TechWatchStatus.PLANNED, TechWatchStatus.ACTIVE));
+        persistTechWatch(date, TechWatchStatus.ACTIVE, lastSync.minusSeconds(60), "https://sync.example/active-first");
+        long peerId = createStubPeer(lastSync);
+        // The peer shares the active TechWatch and added a link to it
+        SyncPeerStub.reset("[]", "[ {\"date\":\"2033-05-09\", \"status\":\"ACTIVE\", \"maxArticles\":10,"
+                + " \"linkUrls\":[\"https://sync.example/active-first\", \"https://sync.example/active-second\"]} ]");
+
+        given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(200)
+                .body("conflicts", empty());
+
+        assertEquals(List.of("https://sync.example/active-first", "https://sync.example/active-second"),
+                linkUrlsOf(date));
+        QuarkusTransaction.requiringNew().run(() ->
+                assertEquals(TechWatchStatus.ACTIVE, techWatchRepository.find("date", date).firstResult().status));
+        given().when().get("/api/techwatch/active")
+                .then().statusCode(200)
+                .body("date", equalTo("2033-05-09"));
+    }
+
+    @Test
+    void pull_reportsUnreachablePeer() {
+        long peerId = createPeer("offline", "http://localhost:1");
+
+        given().when().post("/api/sync/peers/" + peerId + "/pull")
+                .then().statusCode(502);
+
+        given().when().get("/api/sync/peers")
+                .then().statusCode(200)
+                .body("find { it.name == 'offline' }.lastError", notNullValue())
+                .body("find { it.name == 'offline' }.remoteSince", nullValue());
+    }
+
+    @Test
+    void createPeer_validatesInput() {
+        given().contentType(ContentType.JSON)
+                .body(Map.of("name", "bad", "baseUrl", "ftp://nowhere"))
+                .when().post("/api/sync/peers")
+                .then().statusCode(400);
+
+        createPeer("twice", "http://localhost:8080");
+        given().contentType(ContentType.JSON)
+                .body(Map.of("name", "twice", "baseUrl", "http://localhost:8080"))
+                .when().post("/api/sync/peers")
+                .then().statusCode(409);
+    }
+
+    @Test
+    void pull_unknownPeerIs404() {
+        given().when().post("/api/sync/peers/999999/pull")
+                .then().statusCode(404);
+    }
+}
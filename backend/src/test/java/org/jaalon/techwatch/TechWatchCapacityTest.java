@@ -1,13 +1,22 @@
 package org.jaalon.techwatch;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jaalon.links.Link;
 import org.jaalon.links.LinkRepository;
+import org.jaalon.links.LinkStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 class TechWatchCapacityTest {
@@ -18,11 +27,18 @@ class TechWatchCapacityTest {
     @jakarta.inject.Inject
     LinkRepository linkRepo;
 
+    @jakarta.inject.Inject
+    SessionFactory sessionFactory;
+
+    @jakarta.inject.Inject
+    TechWatchCache techWatchCache;
+
     @BeforeEach
     @jakarta.transaction.Transactional
     void clean() {
         linkRepo.deleteAll();
         techWatchRepository.deleteAll();
+        techWatchCache.invalidate();
     }
 
     @Test
@@ -49,7 +65,9 @@ class TechWatchCapacityTest {
         // Collect -> should assign 12 with spillover to a newly created planned (+7 days)
         given().when().post("/api/techwatch/" + id + "/collect-next-links")
                 .then().statusCode(200)
-                .body(equalTo("12"));
+                .body("assigned", equalTo(12))
+                .body("techWatches.assigned", contains(10, 2))
+                .body("techWatches[1].created", equalTo(true));
 
         // Check active has 10 links
         given().when().get("/api/techwatch/" + id + "/links")
@@ -99,4 +117,183 @@ class TechWatchCapacityTest {
                 .then().statusCode(200)
                 .body("id", equalTo((int) tw2));
     }
+
+    @Test
+    void collect_readsCapacitiesOnceForTheWholeDistribution() {
+        LocalDate base = LocalDate.of(2025, 11, 3);
+        long activeId = QuarkusTransaction.requiringNew().call(() -> {
+            TechWatch active = null;
+            for (int i = 0; i < 4; i++) {
+                TechWatch tw = new TechWatch();
+                tw.date = base.plusWeeks(i);
+                tw.status = i == 0 ? TechWatchStatus.ACTIVE : TechWatchStatus.PLANNED;
+                tw.maxArticles = 2;
+                techWatchRepository.persist(tw);
+                if (i == 0) active = tw;
+            }
+            for (int i = 0; i < 9; i++) {
+                Link link = new Link();
+                link.title = "Planned " + i;
+                link.url = "https://planner.example/" + i;
+                link.status = LinkStatus.NEXT_TECHWATCH;
+                linkRepo.persist(link);
+            }
+            return active.id;
+        });
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().when().post("/api/techwatch/" + activeId + "/collect-next-links")
+                .then().statusCode(200)
+                .body("assigned", equalTo(9));
+
+        // The NEXT_TECHWATCH links and the open TechWatches, which carry their link counts
+        long queries = statistics.getQueryExecutionCount();
+        assertTrue(queries <= 2, "Got " + queries + " queries");
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 4; i++) {
+                TechWatch tw = techWatchRepository.find("date", base.plusWeeks(i)).firstResult();
+                assertEquals(2, linkCount(tw.id));
+                assertEquals(2, tw.linkCount);
+            }
+            TechWatch spillover = techWatchRepository.find("date", base.plusWeeks(4)).firstResult();
+            assertEquals(TechWatchStatus.PLANNED, spillover.status);
+            assertEquals(1, linkCount(spillover.id));
+            assertEquals(1, spillover.linkCount);
+        });
+    }
+
+    private long createLink(String name) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"title\":\"" + name + "\",\"url\":\"https://batch.example/" + name + "\"}")
+                .when().post("/api/links").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    @Test
+    void assignNextBatch_reportsWhereEachLinkLanded() {
+        long tw1 = given().contentType(ContentType.JSON).body("{\"date\":\"2025-12-01\",\"maxArticles\":1}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        long tw2 = given().contentType(ContentType.JSON).body("{\"date\":\"2025-12-08\",\"maxArticles\":3}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        long a = createLink("a");
+        long b = createLink("b");
+        long rejected = createLink("rejected");
+        given().contentType(ContentType.JSON).body("{\"status\":\"REJECT\"}")
+                .when().put("/api/links/" + rejected).then().statusCode(200);
+
+        given().contentType(ContentType.JSON)
+                .body("{\"ids\":[" + a + "," + b + "," + rejected + ",999999," + a + "]}")
+                .when().post("/api/links/assign-next-batch")
+                .then().statusCode(200)
+                .body("assigned", equalTo(2))
+                .body("links.size()", equalTo(4))
+                .body("links[0].techWatchId", equalTo((int) tw1))
+                .body("links[0].outcome", equalTo("ASSIGNED"))
+                .body("links[1].techWatchId", equalTo((int) tw2))
+                .body("links[2].outcome", equalTo("REJECTED"))
+                .body("links[3].outcome", equalTo("NOT_FOUND"))
+                .body("techWatches.find { it.techWatchId == " + tw2 + " }.linkCount", equalTo(1));
+
+        given().when().get("/api/links/" + a).then().statusCode(200).body("status", equalTo("KEEP"));
+        given().when().get("/api/techwatch/" + tw1 + "/links").then().statusCode(200).body("id", contains((int) a));
+        given().when().get("/api/techwatch/" + tw2 + "/links").then().statusCode(200).body("id", contains((int) b));
+    }
+
+    @Test
+    void addLinksBatch_fillsTheTechWatchUpToItsCapacity() {
+        long tw = given().contentType(ContentType.JSON).body("{\"date\":\"2025-12-15\",\"maxArticles\":2}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        long a = createLink("fill-a");
+        long b = createLink("fill-b");
+        long c = createLink("fill-c");
+        given().when().post("/api/links/" + a + "/assign-next").then().statusCode(200);
+
+        given().contentType(ContentType.JSON)
+                .body("{\"ids\":[" + a + "," + b + "," + c + "]}")
+                .when().post("/api/techwatch/" + tw + "/links:batch")
+                .then().statusCode(200)
+                .body("assigned", equalTo(1))
+                .body("links.outcome", contains("ALREADY_ASSIGNED", "ASSIGNED", "FULL"))
+                .body("techWatches[0].linkCount", equalTo(2));
+
+        given().when().get("/api/techwatch/" + tw + "/links").then().statusCode(200)
+                .body("id", containsInAnyOrder((int) a, (int) b));
+    }
+
+    @Test
+    void addLinksBatch_validatesTheRequest() {
+        long tw = given().contentType(ContentType.JSON).body("{\"date\":\"2025-12-22\"}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        given().contentType(ContentType.JSON).body("{\"ids\":[]}")
+                .when().post("/api/techwatch/" + tw + "/links:batch")
+                .then().statusCode(400);
+        given().contentType(ContentType.JSON).body("{\"ids\":[1]}")
+                .when().post("/api/techwatch/999999/links:batch")
+                .then().statusCode(404);
+    }
+
+    @Test
+    void addLinksBatch_rejectsACompletedTechWatch() {
+        long tw = given().contentType(ContentType.JSON).body("{\"date\":\"2026-02-02\"}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        // The first TechWatch is activated on creation; completing it promotes a new ACTIVE one
+        given().contentType(ContentType.JSON).body("{\"status\":\"COMPLETED\"}")
+                .when().put("/api/techwatch/" + tw).then().statusCode(200);
+        long a = createLink("completed-a");
+
+        given().contentType(ContentType.JSON).body("{\"ids\":[" + a + "]}")
+                .when().post("/api/techwatch/" + tw + "/links:batch")
+                .then().statusCode(409);
+        given().when().get("/api/techwatch/" + tw + "/links").then().statusCode(200).body("size()", equalTo(0));
+    }
+
+    @Test
+    void linkCount_followsTheLinksAndIsRebuiltWhenItDrifts() {
+        long tw = given().contentType(ContentType.JSON).body("{\"date\":\"2026-01-05\",\"maxArticles\":5}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .body("linkCount", equalTo(0))
+                .extract().jsonPath().getLong("id");
+        long a = createLink("count-a");
+        long b = createLink("count-b");
+        given().contentType(ContentType.JSON).body("{\"ids\":[" + a + "," + b + "]}")
+                .when().post("/api/techwatch/" + tw + "/links:batch").then().statusCode(200);
+        given().when().get("/api/techwatch/" + tw).then().statusCode(200).body("linkCount", equalTo(2));
+
+        given().when().delete("/api/techwatch/" + tw + "/links/" + a).then().statusCode(204);
+        given().when().get("/api/techwatch/" + tw).then().statusCode(200).body("linkCount", equalTo(1));
+        given().when().delete("/api/links/" + b).then().statusCode(204);
+        given().when().get("/api/techwatch").then().statusCode(200)
+                .body("find { it.id == " + tw + " }.linkCount", equalTo(0));
+        given().when().get("/api/techwatch/link-counts").then().statusCode(200).body("size()", equalTo(0));
+
+        // An association written behind the counter is reported, then fixed by the rebuild
+        QuarkusTransaction.requiringNew().run(() -> {
+            Link link = new Link();
+            link.title = "Behind the counter";
+            link.url = "https://batch.example/count-c";
+            link.techWatches.add(techWatchRepository.findById(tw));
+            linkRepo.persist(link);
+        });
+        given().when().get("/api/techwatch/link-counts").then().statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].techWatchId", equalTo((int) tw))
+                .body("[0].stored", equalTo(0))
+                .body("[0].actual", equalTo(1));
+        given().when().post("/api/techwatch/link-counts/rebuild").then().statusCode(200).body("size()", equalTo(1));
+        given().when().get("/api/techwatch/" + tw).then().statusCode(200).body("linkCount", equalTo(1));
+        given().when().get("/api/techwatch/link-counts").then().statusCode(200).body("size()", equalTo(0));
+    }
+
+    private long linkCount(long techWatchId) {
+        return linkRepo.getEntityManager()
+                .createQuery("select count(l) from Link l join l.techWatches t where t.id = :id", Long.class)
+                .setParameter("id", techWatchId)
+                .getSingleResult();
+    }
 }
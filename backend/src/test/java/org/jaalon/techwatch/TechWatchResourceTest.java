@@ -4,12 +4,15 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.jaalon.links.LinkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @QuarkusTest
 class TechWatchResourceTest {
@@ -20,12 +23,19 @@ class TechWatchResourceTest {
     @Inject
     LinkRepository linkRepo;
 
+    @Inject
+    TechWatchCache techWatchCache;
+
+    @Inject
+    SessionFactory sessionFactory;
+
     @BeforeEach
     @Transactional
     void clean() {
         // order matters due to FKs if any; here we just clear both
         linkRepo.deleteAll();
         techWatchRepository.deleteAll();
+        techWatchCache.invalidate();
     }
 
     @Test
@@ -150,5 +160,38 @@ class TechWatchResourceTest {
                 .body("id", hasItems((int) l1, (int) l2));
     }
 
-
+    @Test
+    void activeTechWatchAndItsLinks_areServedFromTheCacheUntilAWrite() {
+        long techWatchId = given().contentType(ContentType.JSON)
+                .body("{\"date\":\"2026-02-02\"}")
+                .when().post("/api/techwatch").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        long linkId = given().contentType(ContentType.JSON)
+                .body("{\"title\":\"Cached\",\"url\":\"https://ex/cached\"}")
+                .when().post("/api/links").then().statusCode(201)
+                .extract().jsonPath().getLong("id");
+        given().when().get("/api/links/" + linkId + "/in-active-techwatch")
+                .then().statusCode(200).body("inActiveTechWatch", equalTo(false));
+
+        given().when().post("/api/links/" + linkId + "/assign-next")
+                .then().statusCode(200).body("id", equalTo((int) techWatchId));
+        given().when().get("/api/links/" + linkId + "/in-active-techwatch")
+                .then().statusCode(200).body("inActiveTechWatch", equalTo(true));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().when().get("/api/techwatch/active").then().statusCode(200).body("id", equalTo((int) techWatchId));
+        given().when().get("/api/techwatch").then().statusCode(200)
+                .body("find { it.id == " + techWatchId + " }.linkCount", equalTo(1));
+        given().when().get("/api/links/" + linkId + "/in-active-techwatch")
+                .then().statusCode(200).body("inActiveTechWatch", equalTo(true));
+        assertEquals(0, statistics.getQueryExecutionCount());
+
+        // Completing it activates a new TechWatch, without the link
+        given().when().post("/api/techwatch/" + techWatchId + "/complete").then().statusCode(200);
+        given().when().get("/api/techwatch/active").then().statusCode(200)
+                .body("id", not(equalTo((int) techWatchId)));
+        given().when().get("/api/links/" + linkId + "/in-active-techwatch")
+                .then().statusCode(200).body("inActiveTechWatch", equalTo(false));
+    }
 }
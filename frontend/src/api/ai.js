@@ -12,3 +12,43 @@ export async function summarizeLink(linkId) {
   }
   return await res.json()
 }
+
+// Streams the summary of a link as it is generated (Server-Sent Events).
+// onDelta receives each chunk of text; resolves with the final summary once it is saved.
+export async function streamSummarizeLink(linkId, { onDelta, signal } = {}) {
+  if (!linkId && linkId !== 0) throw new Error('linkId is required')
+  const res = await fetch(`/api/links/${encodeURIComponent(String(linkId))}/summarize/stream`, {
+    method: 'POST',
+    headers: { Accept: 'text/event-stream' },
+    signal
+  })
+  if (!res.ok || !res.body) {
+    const txt = await res.text().catch(() => '')
+    throw new Error(txt || 'Failed to summarize')
+  }
+
+  const reader = res.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  let summary = null
+  for (;;) {
+    const { value, done } = await reader.read()
+    if (done) break
+    buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n')
+    let sep
+    while ((sep = buffer.indexOf('\n\n')) >= 0) {
+      const block = buffer.slice(0, sep)
+      buffer = buffer.slice(sep + 2)
+      const data = block.split('\n')
+        .filter(line => line.startsWith('data:'))
+        .map(line => line.slice(5))
+        .join('\n')
+      if (!data) continue
+      const event = JSON.parse(data)
+      if (event.done) summary = event.summary
+      else if (event.delta && onDelta) onDelta(event.delta)
+    }
+  }
+  if (summary == null) throw new Error('Summary stream ended unexpectedly')
+  return summary
+}
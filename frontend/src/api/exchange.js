@@ -16,6 +16,30 @@ export async function analyzeZip(file) {
   return res.data // { newItems: [], conflicts: [] }
 }
 
+// Streams the analysis as NDJSON: onConflict is called for each conflict as soon as the backend reports it
+export async function streamAnalyzeZip(file, { onConflict, signal } = {}) {
+  const res = await fetch(`${BASE}/import/analyze/stream`, {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/zip', Accept: 'application/x-ndjson' },
+    body: file,
+    signal
+  })
+  if (!res.ok) throw new Error(`Request failed with status code ${res.status}`)
+  const reader = res.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  const flush = (lines) => lines.filter(l => l.trim()).forEach(l => onConflict?.(JSON.parse(l)))
+  for (;;) {
+    const { done, value } = await reader.read()
+    if (done) break
+    buffer += decoder.decode(value, { stream: true })
+    const lines = buffer.split('\n')
+    buffer = lines.pop()
+    flush(lines)
+  }
+  flush([buffer + decoder.decode()])
+}
+
 export async function executeZip(file) {
   const res = await axios.post(`${BASE}/import/execute`, file, {
     headers: { 'Content-Type': 'application/zip' }
@@ -28,6 +52,12 @@ export async function resolveOne(entity, key, data) {
   return res.status
 }
 
+// Resolves many conflicts in one call; returns one { entity, key, ok, error } result per item, in order
+export async function resolveBatch(items) {
+  const res = await axios.post(`${BASE}/import/resolve-batch`, items)
+  return res.data
+}
+
 export async function exportConflicts(items) {
   const res = await axios.post(`${BASE}/export/conflicts`, items, { responseType: 'blob' })
   return res.data // Blob
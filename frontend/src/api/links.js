@@ -2,23 +2,31 @@
 
 const BASE = '/api/links'
 
-export async function listLinks({ status, q, page = 0, size = 10, sort = 'date', withoutTw = false } = {}) {
+// Page mode by default. Pass cursor ('' for the first page, then the returned nextCursor) for keyset
+// pagination, which stays fast at any depth; the total is then only computed when count is true.
+export async function listLinks({ status, q, page = 0, size = 10, sort = 'date', withoutTw = false, cursor, count } = {}) {
   const params = new URLSearchParams()
   if (status) params.set('status', status)
   if (q) params.set('q', q)
-  params.set('page', String(page))
+  if (cursor !== undefined && cursor !== null) {
+    params.set('cursor', cursor)
+  } else {
+    params.set('page', String(page))
+  }
   params.set('size', String(size))
   if (sort) params.set('sort', sort)
   if (withoutTw) params.set('withoutTw', 'true')
+  if (count !== undefined) params.set('count', String(!!count))
   const res = await fetch(`${BASE}?${params.toString()}`)
   const totalCountHeader = res.headers.get('X-Total-Count')
   const total = totalCountHeader ? parseInt(totalCountHeader, 10) : undefined
+  const nextCursor = res.headers.get('X-Next-Cursor') || null
   if (!res.ok) {
     const txt = await res.text().catch(() => '')
     throw new Error(txt || `Server error (${res.status})`)
   }
   const data = await res.json()
-  return { items: Array.isArray(data) ? data : [], total }
+  return { items: Array.isArray(data) ? data : [], total, nextCursor }
 }
 
 export async function createLink(payload) {
@@ -106,6 +114,16 @@ export async function getLink(id) {
   return await res.json()
 }
 
+// Markdown content of a link (not included in the link JSON)
+export async function getLinkContent(id) {
+  const res = await fetch(`${BASE}/${id}/content`)
+  if (!res.ok) {
+    const txt = await res.text().catch(() => '')
+    throw new Error(txt || `Server error (${res.status})`)
+  }
+  return await res.text()
+}
+
 // Returns true if the link already belongs to an ACTIVE TechWatch
 export async function getLinkInActiveTechWatch(id) {
   const res = await fetch(`${BASE}/${id}/in-active-techwatch`)
@@ -40,8 +40,11 @@ export async function completeTechWatch(id) {
   return fetch(`${BASE}/${id}/complete`, { method: 'POST' })
 }
 
+// Resolves to the assignment report: { assigned, techWatches: [{ techWatchId, date, maxArticles, linkCount, assigned, created }] }
 export async function collectNextLinks(id) {
-  return fetch(`${BASE}/${id}/collect-next-links`, { method: 'POST' })
+  const res = await fetch(`${BASE}/${id}/collect-next-links`, { method: 'POST' })
+  if (!res.ok) throw new Error(await res.text().catch(() => ''))
+  return await res.json()
 }
 
 export async function getTechWatchLinks(id) {
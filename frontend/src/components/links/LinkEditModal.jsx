@@ -1,6 +1,6 @@
 import React from 'react'
-import { updateLink as apiUpdateLink, deleteLink as apiDeleteLink, assignToNext as apiAssignToNext, invalidateSummary as apiInvalidateSummary, getLink as apiGetLink, getLinkInActiveTechWatch as apiGetLinkInActiveTechWatch } from '../../api/links'
-import { summarizeLink } from '../../api/ai'
+import { updateLink as apiUpdateLink, deleteLink as apiDeleteLink, assignToNext as apiAssignToNext, invalidateSummary as apiInvalidateSummary, getLink as apiGetLink, getLinkContent as apiGetLinkContent, getLinkInActiveTechWatch as apiGetLinkInActiveTechWatch } from '../../api/links'
+import { streamSummarizeLink } from '../../api/ai'
 import TagRow from './TagRow'
 import LinkEditFooter from './LinkEditFooter'
 import LinkContentModal from './LinkContentModal'
@@ -22,6 +22,8 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
     const [summarizeError, setSummarizeError] = React.useState('')
     const [inActiveTechWatch, setInActiveTechWatch] = React.useState(false)
     const [showContent, setShowContent] = React.useState(false)
+    const [content, setContent] = React.useState(null)
+    const [contentError, setContentError] = React.useState('')
 
     const fieldsBoxRef = React.useRef(null)
 
@@ -111,21 +113,40 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
     }, [saveAndClose])
 
 
+    // Content is not part of the link payload: fetch it the first time it is read
+    const onReadContent = async () => {
+        setContentError('')
+        if (content == null) {
+            try {
+                setContent(await apiGetLinkContent(link.id))
+            } catch (e) {
+                setContentError(e?.message || 'Failed to load content')
+                return
+            }
+        }
+        setShowContent(true)
+    }
+
     const onSummarize = async () => {
         if (summarizeLoading) return
         setSummarizeError('')
         setSummarizeLoading(true)
+        // Restored if the generation fails, so a failed attempt does not wipe the current summary
+        const previousText = apiText
         try {
-            const r = await summarizeLink(link.id)
-            const txt = r && (r.summary || r.text)
+            // Show the summary while it is generated, then replace it with the saved version
+            setApiText('')
+            const txt = await streamSummarizeLink(link.id, { onDelta: (delta) => setApiText(prev => prev + delta) })
             if (txt) {
                 setApiText(txt)
                 setSummarizeError('')
             } else {
+                setApiText(previousText)
                 setSummarizeError('Empty response from LLM')
             }
         } catch (e) {
             console.error(e)
+            setApiText(previousText)
             setSummarizeError(e?.message || 'Summarize failed')
         } finally {
             setSummarizeLoading(false)
@@ -188,10 +209,10 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
                             <div className="flex items-center justify-between mb-1">
                                 <label className="block text-xs font-medium tw-text-muted">Title</label>
                                 <div className="flex items-center gap-2">
-                                    {Boolean(apiText && link?.content && (link.content + '').trim().length > 0) && (
+                                    {Boolean(apiText && link?.hasContent) && (
                                         <button
                                             type="button"
-                                            onClick={() => setShowContent(true)}
+                                            onClick={onReadContent}
                                             className="tw-btn tw-btn--sm"
                                             title="Read content"
                                         >
@@ -269,12 +290,12 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
                                 {!invalidateLoading && invalidateError && <div className="mt-1"><span className="tw-error">{invalidateError}</span></div>}
                             </div>
                         ) : (
-                            Boolean(link?.content && (link.content + '').trim().length > 0) && (
+                            Boolean(link?.hasContent) && (
                                 <div className="flex items-center gap-2">
                                     <button type="button" onClick={onSummarize} className="tw-btn" disabled={summarizeLoading}>IA summarize</button>
                                     <button
                                         type="button"
-                                        onClick={() => setShowContent(true)}
+                                        onClick={onReadContent}
                                         className="tw-btn"
                                         title="Read content"
                                     >
@@ -282,6 +303,7 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
                                     </button>
                                     {summarizeLoading && <span className="text-sm tw-text-muted">Summarize in progress…</span>}
                                     {!summarizeLoading && summarizeError && <span className="tw-error">{summarizeError}</span>}
+                                    {contentError && <span className="tw-error">{contentError}</span>}
                                 </div>
                             )
                         )}
@@ -293,7 +315,7 @@ export default function LinkEditModal({ linkId, onRequestClose, onSaved }) {
             {showContent && (
                 <LinkContentModal
                     title={link?.title}
-                    content={link?.content || ''}
+                    content={content || ''}
                     onRequestClose={() => setShowContent(false)}
                 />
             )}
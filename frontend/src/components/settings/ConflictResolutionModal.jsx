@@ -1,11 +1,11 @@
 import React from 'react'
 import Modal from '../common/Modal.jsx'
 import MergeEditor from './MergeEditor.jsx'
-import { resolveOne as apiResolveOne, exportConflicts as apiExportConflicts } from '../../api/exchange'
+import { resolveOne as apiResolveOne, resolveBatch as apiResolveBatch, exportConflicts as apiExportConflicts } from '../../api/exchange'
 
 const PAGE_SIZE = 15
 
-export default function ConflictResolutionModal({ conflicts = [], onCancel, onResolvedAll }) {
+export default function ConflictResolutionModal({ conflicts = [], loading = false, onCancel, onResolvedAll }) {
   const [items, setItems] = React.useState(Array.isArray(conflicts) ? conflicts : [])
   const [page, setPage] = React.useState(1)
   const [busy, setBusy] = React.useState(false)
@@ -15,9 +15,16 @@ export default function ConflictResolutionModal({ conflicts = [], onCancel, onRe
   const totalPages = Math.max(1, Math.ceil(items.length / PAGE_SIZE))
   const pageItems = items.slice((page - 1) * PAGE_SIZE, page * PAGE_SIZE)
 
+  // Conflicts may keep arriving while the analysis streams: append the ones not seen yet, so that
+  // items already resolved or dismissed do not come back and the current page is kept
+  const seenRef = React.useRef(null)
+  if (seenRef.current === null) seenRef.current = new Set(items.map(c => `${c.entity}:${c.key}`))
   React.useEffect(() => {
-    setItems(Array.isArray(conflicts) ? conflicts : [])
-    setPage(1)
+    const incoming = (Array.isArray(conflicts) ? conflicts : [])
+      .filter(c => !seenRef.current.has(`${c.entity}:${c.key}`))
+    if (incoming.length === 0) return
+    incoming.forEach(c => seenRef.current.add(`${c.entity}:${c.key}`))
+    setItems(prev => [...prev, ...incoming])
   }, [conflicts])
 
   const removeAtIndex = (globalIdx) => {
@@ -29,9 +36,9 @@ export default function ConflictResolutionModal({ conflicts = [], onCancel, onRe
   }
 
   React.useEffect(() => {
-    if (items.length === 0) onResolvedAll?.()
+    if (items.length === 0) { if (!loading) onResolvedAll?.() }
     else if (page > totalPages) setPage(totalPages)
-  }, [items.length, totalPages])
+  }, [items.length, totalPages, loading])
 
   const onKeepExisting = (globalIdx) => {
     // No server change, just dismiss this item
@@ -73,6 +80,25 @@ export default function ConflictResolutionModal({ conflicts = [], onCancel, onRe
     }
   }
 
+  const onOverwriteAll = async () => {
+    if (!items.length) return
+    try {
+      setBusy(true)
+      const results = await apiResolveBatch(items.map(c => ({ entity: c.entity, key: c.key, data: c.incoming })))
+      const applied = new Set(results.filter(r => r.ok).map(r => `${r.entity}:${r.key}`))
+      setItems(prev => prev.filter(c => !applied.has(`${c.entity}:${c.key}`)))
+      const failed = results.filter(r => !r.ok)
+      if (failed.length) {
+        setInfo({ title: 'Error', message: `${failed.length} item(s) could not be overwritten:\n` + failed.map(r => `${r.entity} ${r.key}: ${r.error}`).join('\n') })
+      }
+    } catch (e) {
+      console.error(e)
+      setInfo({ title: 'Error', message: `Failed to overwrite: ${e?.message || 'Unknown error'}` })
+    } finally {
+      setBusy(false)
+    }
+  }
+
   const exportRemaining = async () => {
     if (!items.length) return
     try {
@@ -110,6 +136,7 @@ export default function ConflictResolutionModal({ conflicts = [], onCancel, onRe
               <button className="tw-btn tw-btn--ghost" onClick={onCancel} disabled={busy}>Cancel</button>
             </div>
             <div className="flex items-center gap-2">
+              <button className="tw-btn" onClick={onOverwriteAll} disabled={busy || items.length === 0}>Overwrite All</button>
               <button className="tw-btn tw-btn--ghost" onClick={exportRemaining} disabled={busy || items.length === 0}>Export Remaining</button>
               <div className="text-sm tw-text-muted">{items.length} remaining</div>
             </div>
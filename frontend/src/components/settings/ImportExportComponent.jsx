@@ -1,5 +1,5 @@
 import React from 'react'
-import { exportZip as apiExportZip, analyzeZip as apiAnalyzeZip, executeZip as apiExecuteZip } from '../../api/exchange'
+import { exportZip as apiExportZip, streamAnalyzeZip as apiStreamAnalyzeZip, executeZip as apiExecuteZip } from '../../api/exchange'
 import ConflictResolutionModal from './ConflictResolutionModal.jsx'
 import Modal from '../common/Modal.jsx'
 
@@ -8,6 +8,7 @@ export default function ImportExportComponent() {
   const [busy, setBusy] = React.useState(false)
   const [conflicts, setConflicts] = React.useState([])
   const [showModal, setShowModal] = React.useState(false)
+  const [analyzing, setAnalyzing] = React.useState(false)
   const [info, setInfo] = React.useState(null) // { title, message }
   const fileRef = React.useRef(null)
   const lastZipRef = React.useRef(null)
@@ -43,21 +44,35 @@ export default function ImportExportComponent() {
     if (!f) return
     try {
       setBusy(true)
-      const report = await apiAnalyzeZip(f)
       lastZipRef.current = f
-      const list = Array.isArray(report?.conflicts) ? report.conflicts : []
+      setConflicts([])
+      setAnalyzing(true)
       // Normalize conflicts so that the modal shows the full object (not only the differing field).
       // Also compute diffs based on the merged view (existing + incoming patch) so we only show real differences.
-      const normalized = list.map((c) => {
+      const normalize = (c) => {
         const existing = (c && typeof c.existing === 'object') ? (c.existing || {}) : (c?.existing ?? {})
         const incoming = (c && typeof c.incoming === 'object') ? (c.incoming || {}) : (c?.incoming ?? {})
         const mergedIncoming = (incoming && typeof incoming === 'object') ? { ...(existing || {}), ...(incoming || {}) } : incoming
         const hasDiff = !deepEqual(existing, mergedIncoming)
         return { ...c, existing, incoming: mergedIncoming, __hasDiff: hasDiff }
-      })
-      // Show only real differences in the modal; if an entity has no diff, we keep existing silently
-      const diffsOnly = normalized.filter(c => c.__hasDiff).map(({ __hasDiff, ...rest }) => rest)
-      if (diffsOnly.length === 0) {
+      }
+      // Conflicts arrive as each analyzer completes: open the modal on the first real difference and
+      // append the following ones; if an entity has no diff, we keep existing silently
+      let diffCount = 0
+      try {
+        await apiStreamAnalyzeZip(f, {
+          onConflict: (c) => {
+            const { __hasDiff, ...rest } = normalize(c)
+            if (!__hasDiff) return
+            diffCount++
+            setConflicts(prev => [...prev, rest])
+            setShowModal(true)
+          }
+        })
+      } finally {
+        setAnalyzing(false)
+      }
+      if (diffCount === 0) {
         // If backend returned no conflicts, execute import directly using the same ZIP
         try {
           await apiExecuteZip(f)
@@ -66,9 +81,6 @@ export default function ImportExportComponent() {
           console.error(e)
           setInfo({ title: 'Import Error', message: `Execute import failed: ${e?.message || 'Unknown error'}` })
         }
-      } else {
-        setConflicts(diffsOnly)
-        setShowModal(true)
       }
     } catch (err) {
       console.error(err)
@@ -144,6 +156,7 @@ export default function ImportExportComponent() {
       {showModal && (
         <ConflictResolutionModal
           conflicts={conflicts}
+          loading={analyzing}
           onCancel={onCancelModal}
           onResolvedAll={onResolvedAll}
         />
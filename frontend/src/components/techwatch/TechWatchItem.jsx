@@ -1,25 +1,9 @@
-import React, { useEffect, useState } from 'react'
-import { getTechWatchLinks as apiGetTechWatchLinks } from '../../api/techwatch'
+import React from 'react'
 
 function TechWatchItem({ item, onOpen }) {
   const m = item || {}
-  const [count, setCount] = useState(0)
-
-  useEffect(() => {
-    let cancelled = false
-    const loadCount = async () => {
-      try {
-        if (!m?.id) { setCount(0); return }
-        const links = await apiGetTechWatchLinks(m.id)
-        if (!cancelled) setCount(Array.isArray(links) ? links.length : 0)
-      } catch (e) {
-        if (!cancelled) setCount(0)
-      }
-    }
-    loadCount()
-    return () => { cancelled = true }
-  }, [m?.id])
-
+  // Maintained by the backend on every link (de)assignment: no need to fetch the links of each TechWatch
+  const count = m?.linkCount ?? 0
   const max = m?.maxArticles ?? '?'
 
   return (